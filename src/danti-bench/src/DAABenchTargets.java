@@ -0,0 +1,177 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import gov.nasa.danti.bench.BenchTarget;
+import gov.nasa.larcfm.ACCoRD.Daidalus;
+import gov.nasa.larcfm.ACCoRD.TrafficState;
+
+/**
+ * Benchmark targets for the DANTi utilities, see gov.nasa.danti.bench.
+ * The configuration used by DAIDALUS can be set with the system property danti.config (default: DAIDALUS defaults).
+ */
+public class DAABenchTargets {
+
+	/**
+	 * Utility function, creates a DAABandsV2 object, with the configuration given in danti.config, if any
+	 */
+	static DAABandsV2 createBands () {
+		DAABandsV2 bands = new DAABandsV2();
+		String config = System.getProperty("danti.config");
+		if (config != null) {
+			bands.daaConfig = config;
+			bands.loadConfig();
+		}
+		return bands;
+	}
+
+	/**
+	 * Utility function, returns the header and the first time step of a .daa file, as sent to the REPL
+	 */
+	static String firstStep (String fname) throws Exception {
+		List<String> lines = Files.readAllLines(Paths.get(fname), StandardCharsets.UTF_8);
+		StringBuilder sb = new StringBuilder();
+		String time = null;
+		for (int i = 0; i < lines.size(); i++) {
+			String line = lines.get(i);
+			if (i >= 2) {
+				String[] cols = line.trim().split("\\s*,\\s*|\\s+");
+				String t = cols[cols.length - 1];
+				if (time != null && !time.equals(t)) { break; }
+				time = t;
+			}
+			sb.append(line).append('\n');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * DAABandsV2.jsonBands, each operation processes the next time step of the scenario 
+	 * (arg is the .daa file, the scenario is parsed once during setup)
+	 */
+	public static class Bands implements BenchTarget {
+		DAABandsV2 bands;
+		DAAScenario scenario;
+		JsonBands jb = new JsonBands();
+		int step = 0;
+
+		public void setup (String fname) {
+			bands = createBands();
+			scenario = DAAScenario.read(fname, null);
+			if (scenario == null || scenario.size() == 0) { throw new IllegalArgumentException("Scenario " + fname + " could not be read"); }
+		}
+		public Object run () {
+			scenario.getStep(step).apply(bands.daa);
+			step = (step + 1) % scenario.size();
+			String stats = bands.jsonBands(jb);
+			DAABandsV2.clearArrays(jb);
+			return stats;
+		}
+	}
+
+	/**
+	 * DaaStreamReader.readData, each operation parses the first time step of the scenario (arg is the .daa file)
+	 */
+	public static class StreamReader implements BenchTarget {
+		String daaData;
+
+		public void setup (String fname) throws Exception {
+			daaData = firstStep(fname);
+		}
+		public Object run () {
+			DaaStreamReader reader = new DaaStreamReader();
+			return reader.readData(daaData);
+		}
+	}
+
+	/**
+	 * DantiStreamWalker.readAllStates, each operation loads the first time step of the scenario in Daidalus (arg is the .daa file)
+	 */
+	public static class StreamWalker implements BenchTarget {
+		DantiStreamWalker walker;
+		Daidalus daa = new Daidalus();
+
+		public void setup (String fname) throws Exception {
+			walker = new DantiStreamWalker(firstStep(fname));
+		}
+		public Object run () {
+			walker.readAllStates(daa);
+			return daa;
+		}
+	}
+
+	/**
+	 * DAA2Json.printLLA and DAA2Json.printDAA, each operation converts all aircraft of the first time step of the scenario 
+	 * (arg is the .daa file)
+	 */
+	public static class PrintLLA implements BenchTarget {
+		Daidalus daa = new Daidalus();
+		DAA2Json daa2json;
+		TrafficState ownship;
+
+		public void setup (String fname) {
+			DAAScenario scenario = DAAScenario.read(fname, null);
+			if (scenario == null || scenario.size() == 0) { throw new IllegalArgumentException("Scenario " + fname + " could not be read"); }
+			scenario.getStep(0).apply(daa);
+			daa2json = new DAA2Json(daa);
+			ownship = daa.getOwnshipState();
+		}
+		public Object run () {
+			StringBuilder sb = new StringBuilder();
+			for (int idx = 0; idx <= daa.lastTrafficIndex(); idx++) {
+				daa2json.appendLLA(sb, ownship, daa.getAircraftStateAt(idx));
+			}
+			return sb;
+		}
+	}
+	public static class PrintDAA extends PrintLLA {
+		public Object run () {
+			StringBuilder sb = new StringBuilder();
+			double time = ownship.getTime();
+			for (int idx = 0; idx <= daa.lastTrafficIndex(); idx++) {
+				daa2json.appendDAA(sb, ownship, daa.getAircraftStateAt(idx), time);
+			}
+			return sb;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+package gov.nasa.danti.bench;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the DANTi benchmarks with JMH, arguments are the same as org.openjdk.jmh.Main.
+ * Unless the scenarios are given with -p scenario=..., the scenario parameter of the benchmarks is set to 
+ * all .daa files in the folder given in the system property danti.scenarios (default: ../daa-scenarios), 
+ * so new scenarios are benchmarked without changes to the code.
+ * Usage: java gov.nasa.danti.bench.DantiBench [JMH options]
+ */
+public class DantiBench {
+	public static final String SCENARIO = "scenario";
+
+	/**
+	 * Returns the names of the .daa files in the given folder, in alphabetical order
+	 */
+	public static List<String> discoverScenarios (String folder) {
+		List<String> res = new ArrayList<String>();
+		File[] files = new File(folder).listFiles((File f) -> f.isFile() && f.getName().endsWith(".daa"));
+		if (files != null) {
+			for (File f : files) { res.add(f.getName()); }
+		}
+		res.sort(null);
+		return res;
+	}
+
+	/**
+	 * Utility function, checks if a value of parameter 'name' is given in the JMH options
+	 */
+	static boolean hasParam (String[] args, String name) {
+		for (int i = 0; i + 1 < args.length; i++) {
+			if (args[i].equals("-p") && args[i + 1].startsWith(name + "=")) { return true; }
+		}
+		return false;
+	}
+
+	public static void main (String[] args) throws Exception {
+		List<String> opts = new ArrayList<String>(Arrays.asList(args));
+		if (!hasParam(args, SCENARIO)) {
+			String folder = System.getProperty("danti.scenarios", "../daa-scenarios");
+			List<String> scenarios = discoverScenarios(folder);
+			if (scenarios.isEmpty()) {
+				System.err.println("** Error: no .daa scenarios found in " + new File(folder).getAbsolutePath());
+				System.exit(1);
+			}
+			System.out.println("Scenarios: " + String.join(", ", scenarios));
+			opts.add("-p");
+			opts.add(SCENARIO + "=" + String.join(",", scenarios));
+		}
+		org.openjdk.jmh.Main.main(opts.toArray(new String[0]));
+	}
+}
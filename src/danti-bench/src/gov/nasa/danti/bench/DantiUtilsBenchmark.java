@@ -0,0 +1,154 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+package gov.nasa.danti.bench;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the DANTi utilities (danti-utils): bands computation, REPL stream parsing, LLA conversions.
+ * Scenarios are read from the folder given in the system property danti.scenarios (default: ../daa-scenarios), 
+ * run the benchmarks with DantiBench so that all scenarios in the folder are discovered.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DantiUtilsBenchmark {
+
+	/**
+	 * Utility function, returns the path of a scenario
+	 */
+	static String scenarioPath (String scenario) {
+		return Paths.get(System.getProperty("danti.scenarios", "../daa-scenarios"), scenario).toString();
+	}
+
+	@State(Scope.Thread)
+	public static class Bands {
+		// all .daa files in danti.scenarios, set by DantiBench, or given on the command line with -p scenario=...
+		@Param
+		public String scenario;
+		BenchTarget target;
+
+		@Setup
+		public void setup () throws Exception {
+			target = BenchTarget.create("DAABenchTargets$Bands", scenarioPath(scenario));
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Stream {
+		BenchTarget reader;
+		BenchTarget walker;
+
+		@Setup
+		public void setup () throws Exception {
+			String fname = scenarioPath("Centennial_N416DJ_own_m.daa");
+			reader = BenchTarget.create("DAABenchTargets$StreamReader", fname);
+			walker = BenchTarget.create("DAABenchTargets$StreamWalker", fname);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class LLA {
+		BenchTarget printLLA;
+		BenchTarget printDAA;
+
+		@Setup
+		public void setup () throws Exception {
+			String fname = scenarioPath("Centennial_N416DJ_own_m.daa");
+			printLLA = BenchTarget.create("DAABenchTargets$PrintLLA", fname);
+			printDAA = BenchTarget.create("DAABenchTargets$PrintDAA", fname);
+		}
+	}
+
+	/**
+	 * DAABandsV2.jsonBands, one time step per operation
+	 */
+	@Benchmark
+	public Object jsonBands (Bands state) throws Exception {
+		return state.target.run();
+	}
+
+	/**
+	 * DaaStreamReader.readData, one REPL message (header + one time step) per operation
+	 */
+	@Benchmark
+	public Object streamReaderReadData (Stream state) throws Exception {
+		return state.reader.run();
+	}
+
+	/**
+	 * DantiStreamWalker.readAllStates, one time step per operation
+	 */
+	@Benchmark
+	public Object streamWalkerReadAllStates (Stream state) throws Exception {
+		return state.walker.run();
+	}
+
+	/**
+	 * DAA2Json.printLLA, all aircraft of a time step per operation
+	 */
+	@Benchmark
+	public Object printLLA (LLA state) throws Exception {
+		return state.printLLA.run();
+	}
+
+	/**
+	 * DAA2Json.printDAA, all aircraft of a time step per operation
+	 */
+	@Benchmark
+	public Object printDAA (LLA state) throws Exception {
+		return state.printDAA.run();
+	}
+}
@@ -0,0 +1,136 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+package gov.nasa.danti.bench;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gov.nasa.xpc.XPlaneConnect;
+
+/**
+ * Benchmarks of the XPlaneConnect packets used by DANTi (GETD, GETP, POSI).
+ * Each operation measures only the encoding of a request or the decoding of a response, 
+ * responses are canned packets in the format sent by the X-Plane plugin. No socket is involved, 
+ * so the results do not depend on the network stack or on the scheduling of a responder thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class XPlaneConnectBenchmark {
+	// velocity datarefs requested by XPlaneConnection for each traffic aircraft
+	static final String[] DREFS = {
+		"sim/multiplayer/position/plane1_v_x", "sim/multiplayer/position/plane1_v_y", "sim/multiplayer/position/plane1_v_z"
+	};
+	static final double[] POSI = { 39.62155741, -104.89228662, 2109.2, 0, 0, 47.2, 1 };
+
+	byte[] getdResponse;
+	byte[] posiResponse;
+
+	@Setup
+	public void setup () {
+		// RESP, length, count, then for each dref: number of values, values
+		ByteBuffer bb = ByteBuffer.allocate(6 + 5 * DREFS.length).order(ByteOrder.LITTLE_ENDIAN);
+		bb.put("RESP".getBytes(StandardCharsets.UTF_8)).put((byte) 0xFF).put((byte) DREFS.length);
+		for (int i = 0; i < DREFS.length; i++) { bb.put((byte) 1).putFloat(i * 1.5f); }
+		getdResponse = bb.array();
+		// POSI, length, aircraft, then 7 values
+		bb = ByteBuffer.allocate(34).order(ByteOrder.LITTLE_ENDIAN);
+		bb.put("POSI".getBytes(StandardCharsets.UTF_8)).put((byte) 0xFF).put((byte) 0);
+		for (int i = 0; i < 7; i++) { bb.putFloat((float) POSI[i]); }
+		posiResponse = bb.array();
+	}
+
+	/**
+	 * Encoding of a GETD request with the velocity datarefs of a traffic aircraft
+	 */
+	@Benchmark
+	public byte[] encodeGETD () throws IOException {
+		return XPlaneConnect.encodeGETD(DREFS);
+	}
+
+	/**
+	 * Decoding of the response to a GETD request
+	 */
+	@Benchmark
+	public float[][] decodeGETD () throws IOException {
+		return XPlaneConnect.decodeGETD(getdResponse, DREFS.length);
+	}
+
+	/**
+	 * Encoding of a GETP request
+	 */
+	@Benchmark
+	public byte[] encodeGETP () throws IOException {
+		return XPlaneConnect.encodeGETP(0);
+	}
+
+	/**
+	 * Decoding of the response to a GETP request
+	 */
+	@Benchmark
+	public double[] decodePOSI () throws IOException {
+		return XPlaneConnect.decodePOSI(posiResponse);
+	}
+
+	/**
+	 * Encoding of a POSI packet
+	 */
+	@Benchmark
+	public byte[] encodePOSI () throws IOException {
+		return XPlaneConnect.encodePOSI(POSI, 1);
+	}
+}
@@ -269,6 +269,19 @@ public class XPlaneConnect implements AutoCloseable
      * @throws IOException If either the request or the response fails.
      */
     public float[][] getDREFs(String[] drefs) throws IOException
+    {
+        sendUDP(encodeGETD(drefs));
+        return decodeGETD(readUDP(), drefs.length);
+    }
+
+    /**
+     * Builds a GETD request for several drefs. The packet is not sent.
+     *
+     * @param drefs An array of dref names to request.
+     * @return      The GETD packet.
+     * @throws IOException If the packet cannot be built.
+     */
+    public static byte[] encodeGETD(String[] drefs) throws IOException
     {
         //Preconditions
         if(drefs == null || drefs.length == 0)
@@ -305,10 +318,19 @@ public class XPlaneConnect implements AutoCloseable
             os.write(dref.length);
             os.write(dref, 0, dref.length);
         }
-        sendUDP(os.toByteArray());
+        return os.toByteArray();
+    }
 
-        //Read response
-        byte[] data = readUDP();
+    /**
+     * Parses the response to a GETD request.
+     *
+     * @param data The response received from X-Plane.
+     * @param n    The number of drefs requested.
+     * @return     A multidimensional array representing the data for each requested dref.
+     * @throws IOException If the response is empty or too short.
+     */
+    public static float[][] decodeGETD(byte[] data, int n) throws IOException
+    {
         if(data.length == 0)
         {
             throw new IOException("No response received.");
@@ -317,7 +339,7 @@ public class XPlaneConnect implements AutoCloseable
         {
             throw new IOException("Response too short");
         }
-        float[][] result = new float[drefs.length][];
+        float[][] result = new float[n][];
         ByteBuffer bb = ByteBuffer.wrap(data);
         bb.order(ByteOrder.LITTLE_ENDIAN);
         int cur = 6;
@@ -566,15 +588,35 @@ public class XPlaneConnect implements AutoCloseable
      */
     public double[] getPOSI(int ac) throws IOException
     {
-        // Send request
+        sendUDP(encodeGETP(ac));
+        return decodePOSI(readUDP());
+    }
+
+    /**
+     * Builds a GETP request for the specified airplane. The packet is not sent.
+     *
+     * @param ac The aircraft to get position information for.
+     * @return The GETP packet.
+     * @throws IOException If the packet cannot be built.
+     */
+    public static byte[] encodeGETP(int ac) throws IOException
+    {
         ByteArrayOutputStream os = new ByteArrayOutputStream();
         os.write("GETP".getBytes(StandardCharsets.UTF_8));
         os.write(0xFF); //Placeholder for message length
         os.write(ac);
-        sendUDP(os.toByteArray());
+        return os.toByteArray();
+    }
 
-        // Read response
-        byte[] data = readUDP();
+    /**
+     * Parses the response to a GETP request.
+     *
+     * @param data The response received from X-Plane.
+     * @return An array containing position data in the same format as {@code sendPOSI}.
+     * @throws IOException If the response is empty or too short.
+     */
+    public static double[] decodePOSI(byte[] data) throws IOException
+    {
         if(data.length == 0)
         {
             throw new IOException("No response received.");
@@ -642,6 +684,19 @@ public class XPlaneConnect implements AutoCloseable
      * @throws IOException If the command can not be sent.
      */
     public void sendPOSI(double[] values, int ac) throws IOException
+    {
+        sendUDP(encodePOSI(values, ac));
+    }
+
+    /**
+     * Builds a POSI packet that sets the position of the specified ac. The packet is not sent.
+     *
+     * @param values An array containing position elements, see {@code sendPOSI}.
+     * @param ac The ac to set. 0 for the player ac.
+     * @return The POSI packet.
+     * @throws IOException If the packet cannot be built.
+     */
+    public static byte[] encodePOSI(double[] values, int ac) throws IOException
     {
         //Preconditions
         if(values == null)
@@ -683,7 +738,7 @@ public class XPlaneConnect implements AutoCloseable
         os.write(0xFF); //Placeholder for message length
         os.write(ac);
         os.write(bb.array());
-        sendUDP(os.toByteArray());
+        return os.toByteArray();
     }
 
     /**
@@ -51,9 +51,7 @@ import gov.nasa.larcfm.Util.Position;
 import gov.nasa.larcfm.Util.Units;
 import gov.nasa.larcfm.Util.Vect3;
 import gov.nasa.larcfm.Util.Velocity;
-import gov.nasa.larcfm.Util.f;
 
-import gov.nasa.larcfm.Util.Projection;
 import static gov.nasa.larcfm.ACCoRD.DaidalusParameters.VERSION;
 
 public class DAA2Json {
@@ -73,6 +71,8 @@ public class DAA2Json {
 	protected String daaConfig = null;
 	protected static final int precision16 = 16;
 	protected static final int precision2 = 2;
+	// projection with origin in the ownship position, shared by all the inverse conversions of a time step
+	protected final DAAProjectionCache projection = new DAAProjectionCache();
 
 	// 1 degree latitude is 69 miles and 60nmi
 	// 1 degree longitude is ~69 miles and ~60nmi
@@ -110,8 +110,7 @@ public class DAA2Json {
 		Vect3 si = intruder.get_s(); // projected position of the intruder
 
 		Position po = ownship.getPosition(); // ownship position in lat lon
-		EuclideanProjection eprj = Projection.createProjection(po);
-		LatLonAlt lla = eprj.inverse(si);
+		LatLonAlt lla = projection.inverse(si, po);
 		Position px = Position.mkLatLonAlt(lla.lat(), lla.lon(), lla.alt());
 
 		return Math.abs(Units.to("deg", px.lat())) < DAA2Json.latlonThreshold 
@@ -120,56 +119,66 @@ public class DAA2Json {
 
 
 	public String printLLA(TrafficState ownship, TrafficState intruder) {
+		return appendLLA(new StringBuilder(256), ownship, intruder).toString();
+	}
+	/**
+	 * Appends the lla representation of the intruder to sb, numbers are written directly into sb
+	 */
+	public StringBuilder appendLLA(StringBuilder sb, TrafficState ownship, TrafficState intruder) {
 		// current intruder position
 		Vect3 si = intruder.get_s(); // projected position of the intruder
 		Velocity vi = Velocity.make(intruder.get_v()); // projected velocity of the intruder
 
 		// --- the following computations show how to perform inverse transformation for lla and velocity
 		Position po = ownship.getPosition(); // ownship position in lat lon
-		EuclideanProjection eprj = Projection.createProjection(po);
+		EuclideanProjection eprj = projection.get(po);
 		LatLonAlt lla = eprj.inverse(si);
 		Position px = Position.mkLatLonAlt(lla.lat(), lla.lon(), lla.alt());
 		Velocity vx = eprj.inverseVelocity(si, vi, true); // this should be the same as vi
 
-		String lat = llaFlag ? f.FmPrecision(Units.to("deg", px.lat()) + latOffset, precision16)
-				: f.FmPrecision(Units.to("deg", px.lat()), precision16);
-		String lon = llaFlag ? f.FmPrecision(Units.to("deg", px.lon()) + lonOffset, precision16)
-				: f.FmPrecision(Units.to("deg", px.lon()), precision16);
-		return "{ "
-		+ "\"id\": \"" + intruder.getId() + "\", " 
-		+ "\"s\": { "
-		+ "\"lat\": \"" + lat + "\", " 
-		+ "\"lon\": \"" + lon + "\", " 
-		+ "\"alt\": \"" + f.FmPrecision(Units.to("ft", px.alt()), precision16) + "\" }, "
-		+ "\"v\": { " 
-		    + "\"x\": \"" + f.FmPrecision(Units.to("knot", vx.x()), precision16) + "\", " 
-		    + "\"y\": \"" + f.FmPrecision(Units.to("knot", vx.y()), precision16) + "\", "
-		    + "\"z\": \"" + f.FmPrecision(Units.to("fpm", vx.z()), precision16) + "\" }"
-		+ " }";
+		double lat = llaFlag ? Units.to("deg", px.lat()) + latOffset : Units.to("deg", px.lat());
+		double lon = llaFlag ? Units.to("deg", px.lon()) + lonOffset : Units.to("deg", px.lon());
+		sb.append("{ ")
+		.append("\"id\": \"").append(intruder.getId()).append("\", ") 
+		.append("\"s\": { ");
+		DAAFormatter.append(sb.append("\"lat\": \""), lat, precision16).append("\", "); 
+		DAAFormatter.append(sb.append("\"lon\": \""), lon, precision16).append("\", "); 
+		DAAFormatter.append(sb.append("\"alt\": \""), Units.to("ft", px.alt()), precision16).append("\" }, ");
+		sb.append("\"v\": { "); 
+		    DAAFormatter.append(sb.append("\"x\": \""), Units.to("knot", vx.x()), precision16).append("\", "); 
+		    DAAFormatter.append(sb.append("\"y\": \""), Units.to("knot", vx.y()), precision16).append("\", ");
+		    DAAFormatter.append(sb.append("\"z\": \""), Units.to("fpm", vx.z()), precision16).append("\" }");
+		return sb.append(" }");
 	}
 
 	public String printDAA(TrafficState ownship, TrafficState intruder, double time) {
+		return appendDAA(new StringBuilder(256), ownship, intruder, time).toString();
+	}
+	/**
+	 * Appends the daa representation of the intruder to sb, numbers are written directly into sb
+	 */
+	public StringBuilder appendDAA(StringBuilder sb, TrafficState ownship, TrafficState intruder, double time) {
 		// current intruder position
 		Vect3 si = intruder.get_s(); // projected position of the intruder
 		Velocity vi = Velocity.make(intruder.get_v()); // projected velocity of the intruder
 
 		// --- the following shows how to perform inverse transformation
 		Position po = ownship.getPosition(); // ownship position in lat lon
-		EuclideanProjection eprj = Projection.createProjection(po);
+		EuclideanProjection eprj = projection.get(po);
 		LatLonAlt lla = eprj.inverse(si);
 		Position px = Position.mkLatLonAlt(lla.lat(), lla.lon(), lla.alt());
 		Velocity vx = eprj.inverseVelocity(si, vi, true);
 
-		return "{ "
-		+ "\"name\": \"" + intruder.getId() + "\", " 
-		+ "\"time\": \"" + f.FmPrecision(time, precision16) + "\", " 
-		+ "\"lat\": \"" + f.FmPrecision(Units.to("deg", px.lat()), precision16) + "\", " 
-		+ "\"lon\": \"" + f.FmPrecision(Units.to("deg", px.lon()), precision16) + "\", " 
-		+ "\"alt\": \"" + f.FmPrecision(Units.to("ft", px.alt()), precision16) + "\", "
-		    + "\"vx\": \"" + f.FmPrecision(Units.to("knot", vx.x()), precision16) + "\", " 
-		    + "\"vy\": \"" + f.FmPrecision(Units.to("knot", vx.y()), precision16) + "\", " 
-		    + "\"vz\": \"" + f.FmPrecision(Units.to("fpm", vx.z()), precision16) + "\""
-		+ " }";
+		sb.append("{ ")
+		.append("\"name\": \"").append(intruder.getId()).append("\", "); 
+		DAAFormatter.append(sb.append("\"time\": \""), time, precision16).append("\", "); 
+		DAAFormatter.append(sb.append("\"lat\": \""), Units.to("deg", px.lat()), precision16).append("\", "); 
+		DAAFormatter.append(sb.append("\"lon\": \""), Units.to("deg", px.lon()), precision16).append("\", "); 
+		DAAFormatter.append(sb.append("\"alt\": \""), Units.to("ft", px.alt()), precision16).append("\", ");
+		    DAAFormatter.append(sb.append("\"vx\": \""), Units.to("knot", vx.x()), precision16).append("\", "); 
+		    DAAFormatter.append(sb.append("\"vy\": \""), Units.to("knot", vx.y()), precision16).append("\", "); 
+		    DAAFormatter.append(sb.append("\"vz\": \""), Units.to("fpm", vx.z()), precision16).append("\"");
+		return sb.append(" }");
 	}
 
 	public static void printHelp () {
@@ -237,9 +246,9 @@ public class DAA2Json {
 			out.println("\t\"selectedOwnship\": \"" + ownshipName + "\",");
 		}
 
-		String lla = "\t\"lla\": {\n"; // position array, grouped by aircraft type
-		String daa = "\t\"daa\": [\n"; // position array, as in the original daa file
-		String steps = "\t\"steps\": [ "; // time array
+		StringBuilder lla = new StringBuilder("\t\"lla\": {\n"); // position array, grouped by aircraft type
+		StringBuilder daa = new StringBuilder("\t\"daa\": [\n"); // position array, as in the original daa file
+		StringBuilder steps = new StringBuilder("\t\"steps\": [ "); // time array
 
 		// daa2json.adjustThreshold(input, daidalus);
 
@@ -250,42 +259,42 @@ public class DAA2Json {
 		while (!walker.atEnd()) {
 			double time = walker.getTime();
 			walker.readState(daidalus);
-			steps += "\"" + f.FmPrecision(time, precision16) + "\""; // time at step i in seconds
-			lla += "\t\t\"" + f.FmPrecision(time, precision16) + "\": {\n"; // time at step i
+			DAAFormatter.append(steps.append("\""), time, precision16).append("\""); // time at step i in seconds
+			DAAFormatter.append(lla.append("\t\t\""), time, precision16).append("\": {\n"); // time at step i
 			// print ownship state
 			TrafficState ownship = daidalus.getOwnshipState();
-			lla += "\t\t\t\"ownship\": " + daa2json.printLLA(ownship, ownship) + ",\n";
-			lla += "\t\t\t\"traffic\": [\n";
+			daa2json.appendLLA(lla.append("\t\t\t\"ownship\": "), ownship, ownship).append(",\n");
+			lla.append("\t\t\t\"traffic\": [\n");
 			// print traffic state
 			int nTraffic = 0;
 			for (int idx = 0; idx <= daidalus.lastTrafficIndex(); idx++) {
 				TrafficState traffic = daidalus.getAircraftStateAt(idx);
-				daa += "\t\t" + daa2json.printDAA(ownship, traffic, time);
+				daa2json.appendDAA(daa.append("\t\t"), ownship, traffic, time);
 				if (idx < daidalus.lastTrafficIndex()) {
-					daa += ",\n";
+					daa.append(",\n");
 				}
 				if (traffic.getId() != ownship.getId()) {
 					nTraffic++;
-					lla += "\t\t\t\t" + daa2json.printLLA(ownship, traffic);
+					daa2json.appendLLA(lla.append("\t\t\t\t"), ownship, traffic);
 					if (nTraffic < daidalus.lastTrafficIndex()) {
-						lla += ",\n";
+						lla.append(",\n");
 					}
 				}
 			}
-			lla += "\n\t\t\t]\n\t\t}";
+			lla.append("\n\t\t\t]\n\t\t}");
 			if (!walker.atEnd()) {
-				lla += ",\n";
-				daa += ",\n";
-				steps += ", ";
+				lla.append(",\n");
+				daa.append(",\n");
+				steps.append(", ");
 			}
 			i++;
 		}
-		lla += "\n\t";
-		steps += "]";
+		lla.append("\n\t");
+		steps.append("]");
 
 		out.println("\t\"length\": " + i + ", ");
-		out.println(daa + "],");
-		out.println(lla + "},");
+		out.println(daa.append("],"));
+		out.println(lla.append("},"));
 		out.println(steps);
 		out.println("}");
 
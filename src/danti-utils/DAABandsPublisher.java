@@ -0,0 +1,182 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking publisher of bands, used by DAABandsREPLV2 to decouple the computation of bands 
+ * from the speed at which the DANTi display reads them from the socket.
+ * Messages are appended to a queue and written on the output stream by a dedicated sender thread, in the order they were published.
+ * Each message has a type (e.g., bands, lla), and the queue holds at most 'capacity' messages of each type:
+ * when the limit is reached, the oldest message of the same type is dropped in favor of the newest one (latest-wins),
+ * so a slow or stalled display never blocks the caller and always receives the most recent data when it catches up,
+ * and a burst of messages of one type never evicts a pending message of another type.
+ * Counters of published, sent, and dropped messages are thread-safe and can be read at any time.
+ */
+public class DAABandsPublisher {
+	// only the latest message of each type is kept by default, older bands are stale by the time the display can read them
+	public static final int DEFAULT_CAPACITY = 1;
+
+	// queued messages, in publication order, and number of queued messages of each type, guarded by 'this'
+	protected final ArrayDeque<String[]> queue = new ArrayDeque<String[]>();
+	protected final HashMap<String, Integer> queuedByType = new HashMap<String, Integer>();
+	protected final int capacity;
+	protected final PrintWriter out;
+	protected final Thread sender;
+	protected volatile boolean running = true;
+
+	// counters
+	protected final AtomicLong published = new AtomicLong();
+	protected final AtomicLong sent = new AtomicLong();
+	protected final AtomicLong dropped = new AtomicLong();
+	protected final AtomicLong errors = new AtomicLong();
+
+	/**
+	 * Constructor, starts the sender thread
+	 * @param out output stream, e.g., the socket connected to the DANTi display
+	 * @param capacity max number of messages of each type waiting to be sent, must be at least 1
+	 */
+	public DAABandsPublisher (PrintWriter out, int capacity) {
+		this.out = out;
+		this.capacity = Math.max(1, capacity);
+		sender = new Thread(this::run, "DAABandsPublisher");
+		sender.setDaemon(true);
+		sender.start();
+	}
+	public DAABandsPublisher (PrintWriter out) {
+		this(out, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Queues a message of the given type and returns immediately, 
+	 * the oldest queued message of the same type is dropped if the limit for the type has been reached
+	 * @return false if the publisher has been closed
+	 */
+	public synchronized boolean publish (String type, String msg) {
+		if (!running) { return false; }
+		published.incrementAndGet();
+		int n = queuedByType.getOrDefault(type, 0);
+		if (n >= capacity) {
+			Iterator<String[]> it = queue.iterator();
+			while (it.hasNext()) {
+				if (it.next()[0].equals(type)) {
+					it.remove();
+					dropped.incrementAndGet();
+					n--;
+					break;
+				}
+			}
+		}
+		queue.addLast(new String[] { type, msg });
+		queuedByType.put(type, n + 1);
+		notifyAll();
+		return true;
+	}
+
+	/**
+	 * Waits for the next message, returns null if no message is published within timeout_ms
+	 */
+	protected synchronized String next (long timeout_ms) throws InterruptedException {
+		if (queue.isEmpty()) { wait(timeout_ms); }
+		String[] entry = queue.pollFirst();
+		if (entry == null) { return null; }
+		queuedByType.put(entry[0], queuedByType.get(entry[0]) - 1);
+		return entry[1];
+	}
+
+	/**
+	 * Sender thread, writes queued messages on the output stream.
+	 * PrintWriter does not throw exceptions, write errors are detected with checkError()
+	 */
+	protected void run () {
+		try {
+			while (running || getQueued() > 0) {
+				String msg = next(100);
+				if (msg != null) {
+					out.println(msg);
+					if (out.checkError()) {
+						errors.incrementAndGet();
+					} else {
+						sent.incrementAndGet();
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Stops the sender thread, messages already in the queue are sent before the thread terminates
+	 * @param timeout_ms max time to wait for the sender thread
+	 */
+	public void close (long timeout_ms) {
+		running = false;
+		try {
+			sender.join(timeout_ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	public void close () {
+		close(1000);
+	}
+
+	/**
+	 * Counters
+	 */
+	public long getPublished () { return published.get(); }
+	public long getSent () { return sent.get(); }
+	public long getDropped () { return dropped.get(); }
+	public long getErrors () { return errors.get(); }
+	public synchronized int getQueued () { return queue.size(); }
+	public int getCapacity () { return capacity; }
+
+	/**
+	 * Returns the counters in human-readable form
+	 */
+	public String printStats () {
+		return "Publisher: " + getPublished() + " published, " + getSent() + " sent, " + getDropped() + " dropped, " 
+			+ getQueued() + " queued (capacity " + getCapacity() + " per message type)" + (getErrors() > 0 ? ", " + getErrors() + " write errors" : "");
+	}
+}
@@ -33,6 +33,8 @@ import java.io.StringReader;
 import java.net.Socket;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Iterator;
@@ -41,6 +43,12 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import gov.nasa.larcfm.ACCoRD.Daidalus;
 import gov.nasa.larcfm.ACCoRD.TrafficState;
@@ -53,6 +61,8 @@ import gov.nasa.larcfm.Util.ParameterData;
 import gov.nasa.larcfm.Util.Position;
 import gov.nasa.larcfm.Util.Projection;
 import gov.nasa.larcfm.Util.Triple;
+import gov.nasa.larcfm.Util.Units;
+import gov.nasa.larcfm.Util.Util;
 import gov.nasa.larcfm.Util.Vect3;
 import gov.nasa.larcfm.Util.Velocity;
 import gov.nasa.larcfm.Util.f;
@@ -360,11 +370,14 @@ class DaaStreamReader extends StateReader {
  */
 class DantiStreamWalker {
 	protected DaaStreamReader streamReader;
+	protected List<DaaStateRecord> records = null; // typed states, used instead of streamReader when the walker is created from records
 	protected ParameterData params;
 	protected String ownshipName;
 	protected List<String> trafficNames = new ArrayList<String>();
 	protected double staleThreshold = 10; // sec
 	protected double currentTime = 0;
+	protected DAATrafficFilter trafficFilter = null; // spatial pre-filter of traffic, null = all traffic is loaded in Daidalus
+	protected DAATrafficPrioritizer trafficPrioritizer = null; // top K prioritization of traffic, null = no bound on the number of intruders
 
 	/**
 	 * Constructors
@@ -372,6 +385,7 @@ class DantiStreamWalker {
 	public DantiStreamWalker () { }
 	public DantiStreamWalker (String daaData) { walk(daaData); }
 	public DantiStreamWalker (String daaData, double threshold) { staleThreshold = threshold; walk(daaData); }
+	public DantiStreamWalker (DaaStateRecord ownship, Collection<DaaStateRecord> traffic, double threshold) { staleThreshold = threshold; walk(ownship, traffic); }
 
 	/**
 	 * Set stale threshold
@@ -401,13 +415,65 @@ class DantiStreamWalker {
 		return false;
 	}
 
+	/**
+	 * Sets the spatial pre-filter of traffic, null disables the filter
+	 */
+	public void setTrafficFilter (DAATrafficFilter filter) {
+		trafficFilter = filter;
+	}
+	/**
+	 * Sets the prioritization of traffic, null disables prioritization
+	 */
+	public void setTrafficPrioritizer (DAATrafficPrioritizer prioritizer) {
+		trafficPrioritizer = prioritizer;
+	}
+	/**
+	 * Returns the prioritization of the last call to readAllStates in JSON format, null if prioritization is disabled
+	 */
+	public String jsonPrioritization () {
+		if (trafficPrioritizer == null) { return null; }
+		DAAJsonWriter out = new DAAJsonWriter();
+		out.raw("{ ").integer("k", trafficPrioritizer.getK())
+			.raw(", ").string("metric", trafficPrioritizer.getMetric())
+			.raw(", ").integer("candidates", trafficPrioritizer.getCandidates())
+			.raw(", \"dropped\": [ ");
+		List<Integer> dropped = trafficPrioritizer.getDropped();
+		for (int i = 0; i < dropped.size(); i++) {
+			if (i > 0) { out.raw(", "); }
+			out.quoted(getName(dropped.get(i)));
+		}
+		out.raw(" ] }");
+		return out.toString();
+	}
+
+	/**
+	 * Walks the typed states, the first state is the ownship. Stale traffic states are discarded.
+	 * If ownship is null, the first traffic aircraft is considered the ownship, as in DaaStreamReader.
+	 */
+	public boolean walk (DaaStateRecord ownship, Collection<DaaStateRecord> traffic) {
+		streamReader = null;
+		params = new ParameterData();
+		records = new ArrayList<DaaStateRecord>();
+		if (ownship != null) { records.add(ownship); }
+		for (DaaStateRecord rec : traffic) {
+			if (rec != null && (ownship == null || !rec.name.equals(ownship.name))) { records.add(rec); }
+		}
+		if (records.isEmpty()) { return false; }
+		DaaStateRecord own = records.get(0);
+		double stale_time = own.time - staleThreshold;
+		if (staleThreshold > 0 && own.time >= 0) {
+			records.removeIf(rec -> rec != own && rec.time < stale_time);
+		}
+		return true;
+	}
+
 	/**
 	 * Sets the ownship name
 	 */
 	public boolean setOwnshipName(String ownshipName) {
 		if (ownshipName != null && !ownshipName.trim().isEmpty()) {
 			this.ownshipName = ownshipName;
-			streamReader.log("ownship name: " + this.ownshipName);
+			if (streamReader != null) { streamReader.log("ownship name: " + this.ownshipName); }
 			return true;
 		}
 		return false;
@@ -433,7 +499,9 @@ class DantiStreamWalker {
 	}
 
 	public static void readExtraColumns(Daidalus daa, DaaStreamReader sr, int ac_idx) {
-		ParameterData pcol = extraColumnsToParameters(sr,daa.getCurrentTime(),daa.getAircraftStateAt(ac_idx).getId());
+		readExtraColumns(daa, extraColumnsToParameters(sr,daa.getCurrentTime(),daa.getAircraftStateAt(ac_idx).getId()), ac_idx);
+	}
+	public static void readExtraColumns(Daidalus daa, ParameterData pcol, int ac_idx) {
 		if (pcol.size() > 0) {
 			daa.setParameterData(pcol);
 			if (pcol.contains("alerter")) {
@@ -494,25 +562,74 @@ class DantiStreamWalker {
 			daa.reset();
 		}
 		int own = 0; // By default onwship is the first aircraft in the list
-		String ido = streamReader.getName(own);
-		Position so = streamReader.getPosition(own);
-		Velocity vo = streamReader.getVelocity(own);
-		double to = streamReader.getTime(own);
+		String ido = getName(own);
+		Position so = getPosition(own);
+		Velocity vo = getVelocity(own);
+		double to = getStateTime(own);
 		daa.setOwnshipState(ido, so, vo, to);
-		readExtraColumns(daa, streamReader, own);
+		readExtraColumns(daa, own, own);
 		// update current time
 		currentTime = daa.getCurrentTime();
 
-		for (int ac = 1; ac < streamReader.size(); ac++) {
-			String ida = streamReader.getName(ac);
-			if (trafficNames.isEmpty() || trafficNames.contains(ida)) {
-				Position sa = streamReader.getPosition(ac);
-				Velocity va = streamReader.getVelocity(ac);
-				double ta = streamReader.getTime(ac);
-				// Notice that idx may be different from ac because of traffic
-				int idx = daa.addTrafficState(ida, sa, va, ta); // <<<< added ta
-				readExtraColumns(daa,streamReader,idx);
+		List<Integer> candidates = new ArrayList<Integer>();
+		for (int ac = 1; ac < size(); ac++) {
+			if (trafficNames.isEmpty() || trafficNames.contains(getName(ac))) {
+				candidates.add(ac);
+			}
+		}
+		if (trafficFilter != null) {
+			// only traffic that can reach the alerting thresholds within the lookahead time is loaded in Daidalus
+			trafficFilter.begin(daa, so, vo);
+			for (int ac : candidates) {
+				trafficFilter.add(ac, getPosition(ac), getVelocity(ac));
 			}
+			candidates = trafficFilter.select();
+		}
+		if (trafficPrioritizer != null) {
+			// only the top K intruders are loaded in Daidalus
+			trafficPrioritizer.begin(daa, so, vo);
+			for (int ac : candidates) {
+				trafficPrioritizer.add(ac, getPosition(ac), getVelocity(ac));
+			}
+			candidates = trafficPrioritizer.select();
+		}
+		for (int ac : candidates) {
+			addTrafficState(daa, ac);
+		}
+	}
+	protected void addTrafficState (Daidalus daa, int ac) {
+		String ida = getName(ac);
+		Position sa = getPosition(ac);
+		Velocity va = getVelocity(ac);
+		double ta = getStateTime(ac);
+		// Notice that idx may be different from ac because of traffic
+		int idx = daa.addTrafficState(ida, sa, va, ta); // <<<< added ta
+		readExtraColumns(daa, ac, idx);
+	}
+
+	/**
+	 * Utility functions, access the states read by the walker, either typed records or stream reader
+	 */
+	protected int size () {
+		return records != null ? records.size() : streamReader.size();
+	}
+	protected String getName (int ac) {
+		return records != null ? records.get(ac).name : streamReader.getName(ac);
+	}
+	protected Position getPosition (int ac) {
+		return records != null ? records.get(ac).position : streamReader.getPosition(ac);
+	}
+	protected Velocity getVelocity (int ac) {
+		return records != null ? records.get(ac).velocity : streamReader.getVelocity(ac);
+	}
+	protected double getStateTime (int ac) {
+		return records != null ? records.get(ac).time : streamReader.getTime(ac);
+	}
+	protected void readExtraColumns (Daidalus daa, int ac, int ac_idx) {
+		if (records != null) {
+			readExtraColumns(daa, records.get(ac).extra, ac_idx);
+		} else {
+			readExtraColumns(daa, streamReader, ac_idx);
 		}
 	}
 }
@@ -553,6 +670,13 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 	static String[] cmd_stale_threshold = { "stale", "stale-threshold" };
 	static String[] cmd_reset = { "reset" }; // clears aircraft info stored in memory
 	static String[] cmd_daa_server = { "daa-server" }; // sets the daa server address/port (default is localhost:9092)
+	static String[] cmd_sections = { "sections" }; // selects the sections computed by compute-bands, e.g., sections alerts,hd-bands (default is all)
+	static String[] cmd_traffic_filter = { "traffic-filter" }; // drops traffic that cannot reach the alerting thresholds within the lookahead time before computing bands, e.g., traffic-filter on (default is off)
+	static String[] cmd_max_traffic = { "max-traffic", "top-k" }; // loads in Daidalus only the K most threatening intruders, ranked by tcpa (default), range, or closure rate, plus any intruder inside the alerting volume, e.g., max-traffic 10 range (default is off)
+	static String[] cmd_session = { "session" }; // keeps one Daidalus session across compute-bands calls, e.g., session on (default is off)
+	static String[] cmd_send_queue = { "send-queue" }; // sets the max number of messages of each type waiting to be sent to the DAA server, older messages of the same type are dropped when the limit is reached, e.g., send-queue 4 (default is 1, i.e., latest message only, 0 = synchronous send)
+	static String[] cmd_auto_bands = { "auto-bands" }; // computes and sends bands autonomously at the given rate, e.g., auto-bands 5hz (default is off)
+	static String[] cmd_simplify = { "simplify" }; // sets the maximum deviation in meters of simplified contours and hazard zones, e.g., simplify 50 (default is 0, no simplification)
 
 	// commands without parameters
 	static String[] cmd_quit = { "quit", "exit", "quit;", "exit;", "bye!" };
@@ -560,6 +684,9 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 	static String[] cmd_show_table = { "show-table", "show-table;" };
 	static String[] cmd_compute_bands = { "compute-bands", "compute-bands;", "bands", "bands;", "get-bands", "get-bands;" };
 	static String[] cmd_compute_lla = { "compute-lla", "compute-lla;", "lla", "lla;", "get-lla", "get-lla;" };
+	static String[] cmd_profiler_on = { "profiler-on", "profiler-on;" }; // turns on profiling of compute-bands
+	static String[] cmd_profiler = { "profiler", "profiler;", "show-profiler", "show-profiler;" }; // prints the profiler stats collected so far
+	static String[] cmd_concurrent = { "concurrent" }; // cli only, ownship/traffic updates are applied by the ingest thread while bands are computed by a separate compute thread
 
 	// ownship name
 	protected String ownshipName = "ownship";
@@ -574,6 +701,10 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 	protected String units = DEFAULT_UNITS;	
 	// column with time information
 	protected int time_col = TIME_COL;
+	// ownship and traffic data parsed at ingest time with the current labels and units, used by compute-bands
+	protected DaaStateTable stateTable = new DaaStateTable(DEFAULT_LABELS, DEFAULT_UNITS);
+	protected DaaStateRecord ownshipRecord = null;
+	protected HashMap<String, DaaStateRecord> trafficRecords = new HashMap<String, DaaStateRecord>();
 
 	// whether the configuration has been loaded
 	protected boolean configLoaded = false;
@@ -599,9 +730,49 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 	protected int serverPort = 8083;
 	protected Socket clientSocket = null;
 	protected PrintWriter socket_out = null;
+	// non-blocking publisher of messages sent over the socket connection, null = messages are written synchronously by the compute thread
+	protected DAABandsPublisher publisher = null;
+	protected int sendQueueCapacity = DAABandsPublisher.DEFAULT_CAPACITY;
 	
 	// daa data stream walker
 	protected DantiStreamWalker walker;
+	// spatial pre-filter of traffic used by compute-bands, null = all non-stale traffic is loaded in Daidalus
+	protected DAATrafficFilter trafficFilter = null;
+	// top K prioritization of traffic used by compute-bands, null = no bound on the number of intruders
+	protected DAATrafficPrioritizer trafficPrioritizer = null;
+
+	// incremental session: the Daidalus object and the walker are kept configured across compute-bands calls,
+	// configuration, alerting logic and wind are re-applied only when changed by the corresponding commands,
+	// and bands are recomputed only when a command has changed ownship, traffic, or settings since the last computation
+	protected boolean SESSION = false;
+	protected boolean windChanged = true;
+	protected boolean alerterChanged = true;
+	protected long stateVersion = 0; // incremented by every command that can change the bands
+	protected long bandsVersion = -1; // state version of lastBands
+	protected String lastBands = null;
+	protected long llaVersion = -1; // state version of lastLLA
+	protected String lastLLA = null;
+	// set by reset, the Daidalus object is reset by the next computation, so that hysteresis and persistence do not carry over to the next scenario
+	protected volatile boolean sessionReset = false;
+
+	// concurrent mode: ownship and traffic updates are applied by the ingest thread, all other commands are executed by the compute thread.
+	// stateLock protects ownship/traffic data, compute commands hold the lock only while taking a snapshot of the data
+	protected boolean CONCURRENT = false;
+	protected final Object stateLock = new Object();
+	protected long computeRequests = 0; // compute-bands requests received by the compute thread
+	protected long computeRuns = 0; // computations actually performed, after coalescing
+
+	// autonomous computation of bands at a fixed rate, null = bands are computed only when requested with compute-bands.
+	// computeLock serializes the execution of commands with the scheduled computations, a cycle is skipped if the lock is busy
+	protected final ReentrantLock computeLock = new ReentrantLock();
+	protected ScheduledExecutorService autoBands = null;
+	protected String autoBandsRate = null; // rate given as cli arg, applied when the repl starts
+	protected long autoPeriod_ns = 0;
+	protected long autoStart_ns = 0;
+	protected long autoCycles = 0; // scheduled cycles
+	protected long autoRuns = 0; // cycles in which bands were computed
+	protected long autoSkipped = 0; // cycles skipped because the previous computation or another command was still running, or no data was available
+	protected long autoMissed = 0; // computations that ended after the end of their cycle
 
 	/**
 	 * Constructor
@@ -632,6 +803,7 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 			// create output stream for sending data to danti-worker
 			System.out.println("[DAABandsREPLV2] Setting up output stream to DAA Server...");
 			socket_out = new PrintWriter(clientSocket.getOutputStream(), true);
+			startPublisher();
 		} catch (IOException e) {
 			System.out.println("[DAABandsREPLV2] Socket connection error :/");
 			System.out.println(e);
@@ -641,6 +813,36 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 		return true;
 	}
 
+	/**
+	 * Utility function, (re)starts the publisher on the current socket connection
+	 */
+	void startPublisher () {
+		if (publisher != null) {
+			publisher.close();
+			log(publisher.printStats());
+			publisher = null;
+		}
+		if (socket_out != null && sendQueueCapacity > 0) {
+			publisher = new DAABandsPublisher(socket_out, sendQueueCapacity);
+		}
+	}
+	/**
+	 * Utility function, sets the capacity of the send queue, 0 = synchronous send
+	 */
+	boolean setSendQueue (String capacity) {
+		try {
+			int n = Integer.parseInt(capacity.trim());
+			if (n >= 0) {
+				sendQueueCapacity = n;
+				this.log("Setting send queue: " + n + (n == 0 ? " (synchronous send)" : ""));
+				startPublisher();
+				return true;
+			}
+		} catch (NumberFormatException e) {
+			System.err.println("** Error: " + e);
+		}
+		return false;
+	}
 	/**
 	 * Resets ownship, ownshipID, and traffic information, keeps labels and units
 	 */
@@ -648,6 +850,10 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 		ownship = null;
 		ownshipName = "ownship";
 		traffic = new HashMap<String, String>();
+		ownshipRecord = null;
+		trafficRecords = new HashMap<String, DaaStateRecord>();
+		// in session mode, daa is reset by the compute thread before the next computation
+		if (SESSION) { sessionReset = true; }
 		this.log("resetting ownship and traffic information");
 	}
 
@@ -678,6 +884,150 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 		}
 		return false;
 	}
+	/**
+	 * Utility functions for setting the maximum deviation of simplified polygons, a value <= 0 disables simplification
+	 */
+	void setSimplifyTolerance (double meters) {
+		simplifyTolerance = meters;
+		simplifier = null;
+		this.log("Setting polygon simplification tolerance: " + simplifyTolerance + "m");
+	}
+	/**
+	 * Utility functions for enabling (on) or disabling (off) the spatial pre-filter of traffic
+	 */
+	boolean setTrafficFilter (String onoff) {
+		if (onoff.equalsIgnoreCase("on")) {
+			if (trafficFilter == null) { trafficFilter = new DAATrafficFilter(); }
+		} else if (onoff.equalsIgnoreCase("off")) {
+			trafficFilter = null;
+		} else {
+			return false;
+		}
+		this.log("Setting traffic filter: " + onoff);
+		return true;
+	}
+	/**
+	 * Utility functions for setting the maximum number of intruders loaded in Daidalus, 
+	 * args is "<K> [tcpa|range|closure]" or "off"
+	 */
+	boolean setMaxTraffic (String args) {
+		String[] info = args.trim().split("\\s+");
+		if (info[0].equalsIgnoreCase("off")) {
+			trafficPrioritizer = null;
+			this.log("Setting max traffic: off");
+			return true;
+		}
+		String metric = info.length > 1 ? info[1].toLowerCase() : DAATrafficPrioritizer.TCPA;
+		try {
+			int k = Integer.parseInt(info[0]);
+			if (k >= 0 && DAATrafficPrioritizer.isMetric(metric)) {
+				trafficPrioritizer = new DAATrafficPrioritizer(k, metric);
+				this.log("Setting max traffic: " + k + " (" + metric + ")");
+				return true;
+			}
+		} catch (NumberFormatException e) {
+			System.err.println("** Error: " + e);
+		}
+		return false;
+	}
+	/**
+	 * Utility functions for enabling (on) or disabling (off) the incremental session
+	 */
+	boolean setSession (String onoff) {
+		if (onoff.equalsIgnoreCase("on") || onoff.equalsIgnoreCase("off")) {
+			SESSION = onoff.equalsIgnoreCase("on");
+			windChanged = alerterChanged = true;
+			lastBands = null;
+			lastLLA = null;
+			this.log("Setting session: " + onoff);
+			return true;
+		}
+		return false;
+	}
+	/**
+	 * Utility functions for starting (e.g., 5hz) or stopping (off) the autonomous computation of bands
+	 */
+	boolean setAutoBands (String rate) {
+		if (rate != null) {
+			String r = rate.trim().toLowerCase();
+			if (r.equals("off") || r.equals("0")) {
+				stopAutoBands();
+				return true;
+			}
+			if (r.endsWith("hz")) { r = r.substring(0, r.length() - 2).trim(); }
+			try {
+				double hz = Double.parseDouble(r);
+				if (hz > 0) {
+					startAutoBands(hz);
+					return true;
+				}
+			} catch (NumberFormatException e) {
+				System.err.println("** Error: " + e);
+			}
+		}
+		return false;
+	}
+	void startAutoBands (double hz) {
+		stopAutoBands();
+		autoPeriod_ns = (long) (1e9 / hz);
+		autoStart_ns = System.nanoTime();
+		autoCycles = autoRuns = autoSkipped = autoMissed = 0;
+		autoBands = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "DAABandsREPLV2-auto-bands");
+			t.setDaemon(true);
+			return t;
+		});
+		autoBands.scheduleAtFixedRate(this::autoBandsCycle, 0, autoPeriod_ns, TimeUnit.NANOSECONDS);
+		this.log("Setting auto-bands: " + hz + "Hz");
+	}
+	void stopAutoBands () {
+		if (autoBands != null) {
+			autoBands.shutdown();
+			try {
+				autoBands.awaitTermination(1, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			autoBands = null;
+			this.log(printAutoBandsStats());
+		}
+	}
+	/**
+	 * Scheduled task, computes and sends bands.
+	 * The executor never overlaps executions, but delays the next ones when a computation overruns its cycle:
+	 * cycles whose time window is already over when they start are skipped instead of being executed back to back.
+	 * Cycles are also skipped until ownship or traffic data has been received.
+	 * Exceptions are caught because an exception would cancel all future executions.
+	 */
+	protected void autoBandsCycle () {
+		long deadline = autoStart_ns + (autoCycles + 1) * autoPeriod_ns;
+		autoCycles++;
+		boolean noData;
+		synchronized (stateLock) { noData = ownshipRecord == null && trafficRecords.isEmpty(); }
+		if (noData || System.nanoTime() >= deadline || !computeLock.tryLock()) {
+			autoSkipped++;
+			return;
+		}
+		try {
+			autoRuns++;
+			compute_bands();
+		} catch (RuntimeException e) {
+			System.err.println("** Error: " + e);
+		} finally {
+			computeLock.unlock();
+		}
+		long late = System.nanoTime() - deadline;
+		if (late > 0) {
+			autoMissed++;
+			this.log("auto-bands: missed deadline by " + String.format("%.1f", late / 1e6) + "ms");
+		}
+	}
+	/**
+	 * Returns the stats of the autonomous computation of bands in human-readable form
+	 */
+	String printAutoBandsStats () {
+		return "auto-bands: " + autoCycles + " cycles, " + autoRuns + " computations, " + autoSkipped + " skipped, " + autoMissed + " missed deadlines";
+	}
 	/**
 	 * Utility functions for setting DAA server address and port
 	 */
@@ -782,63 +1132,226 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 	 */
 	boolean compute_bands () {
 		log("Computing bands...");
+		if (SESSION) { return compute_bands_session(); }
 		// load config
 		if (!configLoaded) {
 			loadConfig();
 		}
 		// load wind
 		loadWind();
-		// create file walker
-		walker = new DantiStreamWalker(toDAA(), staleThreshold);
-		// set ownship name
-		walker.setOwnshipName(ownshipName);
+		// create walker, states have already been parsed by the ownship and traffic commands
+		boolean ready;
+		synchronized (stateLock) {
+			walker = new DantiStreamWalker();
+			walker.setStaleThreshold(staleThreshold);
+			ready = walker.walk(ownshipRecord, trafficRecords.values());
+			// set ownship name
+			walker.setOwnshipName(ownshipName);
+		}
+		if (!ready) {
+			log("No ownship or traffic data, bands cannot be computed");
+			return false;
+		}
+		walker.setTrafficFilter(trafficFilter);
+		walker.setTrafficPrioritizer(trafficPrioritizer);
 		// walk data
+		if (PROFILER_ENABLED) {
+			if (profiler == null) { profiler = new DAAProfiler("Profiling DAIDALUS v" + getVersion() + " REPL"); }
+			profiler.start();
+		}
 		String bands = compute_bands(walker);
 		// log(bands);
+		profileStart(DAAProfiler.IO);
 		boolean success = sendBands(bands);
+		profileStop(DAAProfiler.IO);
+		if (PROFILER_ENABLED) { profiler.stop(); }
 		// success &= compute_lla(walker);
+		if (simplifier != null) { log(simplifier.printStats()); }
+		if (trafficFilter != null) { log(trafficFilter.printStats()); }
+		if (trafficPrioritizer != null) { log("Prioritization: " + walker.jsonPrioritization()); }
+		if (publisher != null) { log(publisher.printStats()); }
+		log("Done! " + success);
+		return success;
+	}
+	/**
+	 * Computes daa bands in session mode: configuration and wind are loaded only when changed, 
+	 * the walker is reused, and the last bands are sent again if no command has changed the state since they were computed
+	 */
+	boolean compute_bands_session () {
+		prepareSession();
+		long version;
+		synchronized (stateLock) { version = stateVersion; }
+		boolean recompute = lastBands == null || bandsVersion != version;
+		if (recompute) {
+			version = walkSession();
+			if (version < 0) {
+				log("No ownship or traffic data, bands cannot be computed");
+				return false;
+			}
+		}
+		if (PROFILER_ENABLED) {
+			if (profiler == null) { profiler = new DAAProfiler("Profiling DAIDALUS v" + getVersion() + " REPL"); }
+			profiler.start();
+		}
+		if (recompute) {
+			lastBands = compute_bands(walker);
+			bandsVersion = version;
+		} else {
+			log("No changes since the last computation, sending the same bands");
+		}
+		profileStart(DAAProfiler.IO);
+		boolean success = sendBands(lastBands);
+		profileStop(DAAProfiler.IO);
+		if (PROFILER_ENABLED) { profiler.stop(); }
+		if (simplifier != null) { log(simplifier.printStats()); }
+		if (trafficFilter != null) { log(trafficFilter.printStats()); }
+		if (trafficPrioritizer != null) { log("Prioritization: " + walker.jsonPrioritization()); }
+		if (publisher != null) { log(publisher.printStats()); }
 		log("Done! " + success);
 		return success;
 	}
+	/**
+	 * Utility function, applies a pending reset, and loads configuration and wind if they have changed since the last computation
+	 */
+	protected void prepareSession () {
+		if (sessionReset) {
+			daa.reset();
+			windChanged = alerterChanged = true;
+			lastBands = null;
+			lastLLA = null;
+			sessionReset = false;
+		}
+		if (!configLoaded || !configLoaded()) {
+			loadConfig();
+			windChanged = alerterChanged = true;
+		}
+		if (windChanged) {
+			loadWind();
+			windChanged = false;
+		}
+	}
+	/**
+	 * Utility function, loads the ownship and traffic records in the session walker.
+	 * Returns the state version of the records, or -1 if there is no ownship or traffic data
+	 */
+	protected long walkSession () {
+		if (walker == null) { walker = new DantiStreamWalker(); }
+		walker.setStaleThreshold(staleThreshold);
+		boolean ready;
+		long version;
+		synchronized (stateLock) {
+			ready = walker.walk(ownshipRecord, trafficRecords.values());
+			walker.setOwnshipName(ownshipName);
+			version = stateVersion;
+		}
+		if (!ready) { return -1; }
+		walker.setTrafficFilter(trafficFilter);
+		walker.setTrafficPrioritizer(trafficPrioritizer);
+		return version;
+	}
+	/**
+	 * Utility function, applies the selected alerter, if any.
+	 * In session mode the alerting logic is set only when it changes, while the alerter of the ownship is part of 
+	 * the ownship state, which is replaced at every time step, and is therefore always set.
+	 */
+	protected void applySelectedAlerter () {
+		if (daaAlerter == null) { return; }
+		if (!SESSION || alerterChanged) {
+			loadSelectedAlerter();
+			alerterChanged = false;
+		} else {
+			daa.setAlerter(0, daaAlerter);
+		}
+	}
 	/**
 	 * Computes LLA data
 	 */
 	boolean compute_lla () {
 		log("Computing LLA...");
+		if (SESSION) { return compute_lla_session(); }
 		// load config
 		if (!configLoaded) {
 			loadConfig();
 		}
 		// load wind
 		loadWind();
-		// create file walker
-		walker = new DantiStreamWalker(toDAA(), staleThreshold);
-		// set ownship name
-		walker.setOwnshipName(ownshipName);
+		// create walker, states have already been parsed by the ownship and traffic commands
+		boolean ready;
+		synchronized (stateLock) {
+			walker = new DantiStreamWalker();
+			walker.setStaleThreshold(staleThreshold);
+			ready = walker.walk(ownshipRecord, trafficRecords.values());
+			// set ownship name
+			walker.setOwnshipName(ownshipName);
+		}
+		if (!ready) {
+			log("No ownship or traffic data, LLA cannot be computed");
+			return false;
+		}
+		// the aircraft loaded in Daidalus are the same as in compute-bands
+		walker.setTrafficFilter(trafficFilter);
+		walker.setTrafficPrioritizer(trafficPrioritizer);
+		walker.readAllStates(daa);
+		applySelectedAlerter();
 		String lla = compute_lla(walker);
 		boolean success = sendLLA(lla);
 		log("Done! " + success);
 		return success;
 	}
+	/**
+	 * Computes LLA data in session mode: the states are loaded in Daidalus only if no computation has loaded them yet, 
+	 * and the last LLA data are sent again if no command has changed the state since they were computed
+	 */
+	boolean compute_lla_session () {
+		prepareSession();
+		long version;
+		synchronized (stateLock) { version = stateVersion; }
+		if (lastLLA == null || llaVersion != version) {
+			// the states loaded by the last bands computation are still current
+			if (lastBands == null || bandsVersion != version) {
+				version = walkSession();
+				if (version < 0) {
+					log("No ownship or traffic data, LLA cannot be computed");
+					return false;
+				}
+				walker.readAllStates(daa);
+				applySelectedAlerter();
+			}
+			lastLLA = compute_lla(walker);
+			llaVersion = version;
+		} else {
+			log("No changes since the last computation, sending the same LLA data");
+		}
+		boolean success = sendLLA(lastLLA);
+		log("Done! " + success);
+		return success;
+	}
 
 	/**
 	 * Utility function, sends bands over the socket connection
 	 */
 	boolean sendBands (String bands) {
 		String msg = "{ \"type\": \"bands\", \"val\": " + bands + " }";
-		return send(msg);
+		return send("bands", msg);
 	}
 	/**
 	 * Utility function, sends lla data over the socket connection
 	 */
 	boolean sendLLA (String lla) {
 		String msg = "{ \"type\": \"lla\", \"val\": " + lla + " }";
-		return send(msg);
+		return send("lla", msg);
 	}
 	/**
-	 * Utility function, sends a string representation of JSON data over the socket connection
+	 * Utility function, sends a string representation of JSON data over the socket connection.
+	 * The type of message is used by the publisher, which drops only stale messages of the same type
 	 */
 	boolean send (String jsonData) {
+		return send("data", jsonData);
+	}
+	boolean send (String type, String jsonData) {
+		if (publisher != null) {
+			return publisher.publish(type, jsonData);
+		}
 		if (socket_out != null) {
 			socket_out.println(jsonData);
 			return true;
@@ -851,64 +1364,83 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 	 * This version returns a string encoding of the array
 	 */
 	public static String printArray(List<String> info, String label) {
-		String out = "\"" + label + "\": [\n";
+		DAAJsonWriter out = new DAAJsonWriter();
+		printArray(out, info, label);
+		return out.toString();
+	}
+	/**
+	 * Utility function, appends a list to 'out' as a JSON array.
+	 */
+	public static void printArray(DAAJsonWriter out, List<String> info, String label) {
+		out.key(label).raw("[\n");
 		boolean comma = false;
 		for (String str : info) {
 			if (comma) {
-				out += ",\n";
+				out.raw(",\n");
 			} else {
 				comma = true;
 			}
-			out += str + "\n";
+			out.raw(str).raw('\n');
 		}
-		out += "]";
-		return out;
+		out.raw(']');
 	}
 
 	/**
 	 * Utility function, computes the bands and returns them as a JSON string
 	 */
 	public String compute_bands (DantiStreamWalker walker) {
-		String out = "{\n" + jsonHeader() + "\n";
+		DAAJsonWriter out = new DAAJsonWriter(16384);
+		out.raw("{\n").raw(jsonHeader()).raw('\n');
 
+		profileStart(DAAProfiler.READ);
 		walker.readAllStates(daa);
-		if (daaAlerter != null) { loadSelectedAlerter(); }
+		applySelectedAlerter();
+		profileStop(DAAProfiler.READ);
+		profileStart(DAAProfiler.BANDS);
 		JsonBands jb = new JsonBands();
 		String jsonStats = jsonBands(jb);
-		out += jsonStats + ",\n";
-
-		out += printArray(jb.ownshipArray, "Ownship");
-		out += ",\n";
-		out += printArray(jb.alertsArray, "Alerts");
-		out += ",\n";
-		out += printArray(jb.metricsArray, "Metrics");
-		out += ",\n";
-		out += printArray(jb.trkArray, "Heading Bands");
-		out += ",\n";
-		out += printArray(jb.gsArray, "Horizontal Speed Bands");
-		out += ",\n";
-		out += printArray(jb.vsArray, "Vertical Speed Bands");
-		out += ",\n";
-		out += printArray(jb.altArray, "Altitude Bands");
-		out += ",\n";
-		out += printArray(jb.resTrkArray, "Horizontal Direction Resolution");
-		out += ",\n";
-		out += printArray(jb.resGsArray, "Horizontal Speed Resolution");
-		out += ",";
-		out += printArray(jb.resVsArray, "Vertical Speed Resolution");
-		out += ",\n";
-		out += printArray(jb.resAltArray, "Altitude Resolution");
-		out += ",\n";
-
-		out += printArray(jb.contoursArray, "Contours");
-		out += ",\n";
-		out += printArray(jb.hazardZonesArray, "Hazard Zones");
-		out += ",\n";
-
-		out += "\"Monitors\": []\n";
-		out += "}";
+		profileStop(DAAProfiler.BANDS);
+		profileStart(DAAProfiler.SERIALIZATION);
+		out.raw(jsonStats).raw(",\n");
+
+		printArray(out, jb.ownshipArray, "Ownship");
+		out.raw(",\n");
+		printArray(out, jb.alertsArray, "Alerts");
+		out.raw(",\n");
+		printArray(out, jb.metricsArray, "Metrics");
+		out.raw(",\n");
+		printArray(out, jb.trkArray, "Heading Bands");
+		out.raw(",\n");
+		printArray(out, jb.gsArray, "Horizontal Speed Bands");
+		out.raw(",\n");
+		printArray(out, jb.vsArray, "Vertical Speed Bands");
+		out.raw(",\n");
+		printArray(out, jb.altArray, "Altitude Bands");
+		out.raw(",\n");
+		printArray(out, jb.resTrkArray, "Horizontal Direction Resolution");
+		out.raw(",\n");
+		printArray(out, jb.resGsArray, "Horizontal Speed Resolution");
+		out.raw(',');
+		printArray(out, jb.resVsArray, "Vertical Speed Resolution");
+		out.raw(",\n");
+		printArray(out, jb.resAltArray, "Altitude Resolution");
+		out.raw(",\n");
+
+		printArray(out, jb.contoursArray, "Contours");
+		out.raw(",\n");
+		printArray(out, jb.hazardZonesArray, "Hazard Zones");
+		out.raw(",\n");
+
+		String prioritization = walker.jsonPrioritization();
+		if (prioritization != null) {
+			out.key("Prioritization").raw(prioritization).raw(",\n");
+		}
+		out.raw("\"Monitors\": []\n");
+		out.raw('}');
 
-		return out;
+		String res = out.toString();
+		profileStop(DAAProfiler.SERIALIZATION);
+		return res;
 	}
 
 	/**
@@ -918,44 +1450,43 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 		log("Computing lla...");
 		// re-use the logic of daa2json
 		DAA2Json daa2json = new DAA2Json(daa);
-		String llaString = "\t\"lla\": {\n"; // position array, grouped by aircraft type
-		String daaString = "\t\"daa\": [\n"; // position array, as in the original daa file
-		String stepsString = "\t\"steps\": [ "; // time array
+		StringBuilder lla = new StringBuilder(1024).append("\t\"lla\": {\n"); // position array, grouped by aircraft type
+		StringBuilder daaData = new StringBuilder(1024).append("\t\"daa\": [\n"); // position array, as in the original daa file
 
 		double time = walker.getTime();
-		stepsString += "\"" + f.FmPrecision(time, precision16) + "\""; // time at step i in seconds
-		llaString += "\t\t\"" + f.FmPrecision(time, precision16) + "\": {\n"; // time at step i
+		String step = DAAFormatter.format(time, precision16); // time at step i in seconds
+		lla.append("\t\t\"").append(step).append("\": {\n");
 		// print ownship state
 		TrafficState ownship = daa.getOwnshipState();
-		llaString += "\t\t\t\"ownship\": " + daa2json.printLLA(ownship, ownship) + ",\n";
-		llaString += "\t\t\t\"traffic\": [\n";
+		daa2json.appendLLA(lla.append("\t\t\t\"ownship\": "), ownship, ownship).append(",\n");
+		lla.append("\t\t\t\"traffic\": [\n");
 		// print traffic state
 		int nTraffic = 0;
 		for (int idx = 0; idx <= daa.lastTrafficIndex(); idx++) {
 			TrafficState traffic = daa.getAircraftStateAt(idx);
-			daaString += "\t\t" + daa2json.printDAA(ownship, traffic, time);
+			daa2json.appendDAA(daaData.append("\t\t"), ownship, traffic, time);
 			if (idx < daa.lastTrafficIndex()) {
-				daaString += ",\n";
+				daaData.append(",\n");
 			}
 			if (traffic.getId() != ownship.getId()) {
 				nTraffic++;
-				llaString += "\t\t\t\t" + daa2json.printLLA(ownship, traffic);
+				daa2json.appendLLA(lla.append("\t\t\t\t"), ownship, traffic);
 				if (nTraffic < daa.lastTrafficIndex()) {
-					llaString += ",\n";
+					lla.append(",\n");
 				}
 			}
 		}
-		llaString += "\n\t\t\t]\n\t\t}";
-		llaString += "\n\t";
-		stepsString += "]";
-
-		String out = "{\n\t\"scenarioName\": \"" + scenario + "\",\n";
-		out += "\t\"length\": " + 1 + ", \n";
-		out += daaString + "],\n";
-		out += llaString + "},\n";
-		out += stepsString + "\n";
-		out += "}";
-		return out;
+		lla.append("\n\t\t\t]\n\t\t}");
+		lla.append("\n\t");
+
+		StringBuilder out = new StringBuilder(daaData.length() + lla.length() + 128);
+		out.append("{\n\t\"scenarioName\": \"").append(scenario).append("\",\n");
+		out.append("\t\"length\": ").append(1).append(", \n");
+		out.append(daaData).append("],\n");
+		out.append(lla).append("},\n");
+		out.append("\t\"steps\": [ \"").append(step).append("\"]\n"); // time array
+		out.append("}");
+		return out.toString();
 	}
 	
 	/**
@@ -970,6 +1501,11 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 	 * Executes the command line. Returns true if the command has been executed successfully.
 	 */
 	boolean execCommandLine (String line) {
+		// any command other than queries can change the bands computed in session mode
+		if (!isMetaCommand(cmd_compute_bands, line) && !isMetaCommand(cmd_compute_lla, line) && !isMetaCommand(cmd_show_table, line)
+				&& !isMetaCommand(cmd_version, line) && !isMetaCommand(cmd_profiler, line)) {
+			synchronized (stateLock) { stateVersion++; }
+		}
 		if (isMetaCommand(cmd_reset, line)) {
 			// clear all data structures
 			reset();
@@ -982,7 +1518,7 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 		}
 		if (isMetaCommand(cmd_show_table, line)) {
 			// print table
-			log(toDAA());
+			synchronized (stateLock) { log(toDAA()); }
 			return true;
 		}
 		if (isCommand(cmd_config_folder, line)) {
@@ -1004,6 +1540,40 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 			log("loading config file " + daaConfig);
 			return true;
 		}
+		if (isCommand(cmd_sections, line)) {
+			// update the selected sections, unselected sections are not computed
+			String list = getArgs(cmd_sections, line);
+			if (selectSections(list)) {
+				log("sections " + list);
+				return true;
+			}
+			return false;
+		}
+		if (isCommand(cmd_traffic_filter, line)) {
+			// enable/disable traffic pre-filter
+			return setTrafficFilter(getArgs(cmd_traffic_filter, line));
+		}
+		if (isCommand(cmd_max_traffic, line)) {
+			// update max number of intruders
+			return setMaxTraffic(getArgs(cmd_max_traffic, line));
+		}
+		if (isCommand(cmd_session, line)) {
+			// enable/disable incremental session
+			return setSession(getArgs(cmd_session, line));
+		}
+		if (isCommand(cmd_send_queue, line)) {
+			// change capacity of the send queue
+			return setSendQueue(getArgs(cmd_send_queue, line));
+		}
+		if (isCommand(cmd_auto_bands, line)) {
+			// start/stop autonomous computation of bands
+			return setAutoBands(getArgs(cmd_auto_bands, line));
+		}
+		if (isCommand(cmd_simplify, line)) {
+			// update polygon simplification tolerance
+			setSimplifyTolerance(Double.parseDouble(getArgs(cmd_simplify, line)));
+			return true;
+		}
 		if (isCommand(cmd_precision, line)) {
 			// update precision
 			String prec = getArgs(cmd_precision, line);
@@ -1025,6 +1595,7 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 				knot = Double.parseDouble(match_knot.group(1));
 			}	
 			wind = "{ deg: " + deg + ", knot: " + knot + " }";
+			windChanged = true;
 			log("wind " + wind);
 			return true;
 		}
@@ -1036,6 +1607,7 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 				labels = data;
 				// update time col
 				time_col = indexOfTime(labels);
+				updateStateTable();
 				log(toDAA());
 				return true;
 			}
@@ -1046,6 +1618,7 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 			if (data != null && data != "") {
 				// update units
 				units = data;
+				updateStateTable();
 				log(toDAA());
 				return true;
 			}
@@ -1053,6 +1626,7 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 		if (isCommand(cmd_ownship_data, line)) {
 			// update ownship information
 			ownship = getArgs(cmd_ownship_data, line);
+			ownshipRecord = stateTable.parse(ownship);
 			// log(line);
 			if (VERBOSE_TRAFFIC_LOG) { log(toDAA()); }
 			return true;
@@ -1077,6 +1651,7 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 				if (info.length > 0) {
 					String id = info[0];
 					traffic.put(id, data);
+					trafficRecords.put(id, stateTable.parse(data));
 					if (VERBOSE_TRAFFIC_LOG) { log(toDAA()); }
 					return true;
 				}
@@ -1087,6 +1662,15 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 			// compute bands
 			return compute_bands();
 		}
+		if (isMetaCommand(cmd_profiler_on, line)) {
+			PROFILER_ENABLED = true;
+			log("profiler on");
+			return true;
+		}
+		if (isMetaCommand(cmd_profiler, line)) {
+			log(profiler != null ? profiler.printCollectedData() : "[DAAProfiler] No data collected");
+			return true;
+		}
 		if (isMetaCommand(cmd_compute_lla, line)) {
 			// compute bands
 			return compute_lla();
@@ -1109,6 +1693,17 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 		log("Error: Unrecognized command '" + line + "'");
 		return false;
 	}
+	/**
+	 * Utility function, parses again ownship and traffic data after a change of labels or units
+	 */
+	void updateStateTable () {
+		stateTable = new DaaStateTable(labels, units);
+		ownshipRecord = stateTable.parse(ownship);
+		trafficRecords = new HashMap<String, DaaStateRecord>();
+		for (Map.Entry<String, String> entry : traffic.entrySet()) {
+			trafficRecords.put(entry.getKey(), stateTable.parse(entry.getValue()));
+		}
+	}
 	/**
 	 * Prints ownship and traffic information in daa format
 	 */
@@ -1128,6 +1723,11 @@ public class DAABandsREPLV2 extends DAABandsV2 {
      * Starts repl
      */
     void start () {
+		if (autoBandsRate != null) { setAutoBands(autoBandsRate); }
+		if (CONCURRENT) {
+			startConcurrent();
+			return;
+		}
         try {
             while (true) {
 				System.out.print(" >> ");
@@ -1140,14 +1740,110 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 				}
 				// else
 				log("executing " + line);
-				execCommandLine(line);
+				dispatch(line);
             }
         } catch (IllegalStateException | NoSuchElementException ex) {
             // System.err.println("bye!");
         } finally {
+			// scheduled cycles still in flight publish their bands before the publisher is closed
+			stopAutoBands();
+			if (publisher != null) { publisher.close(); }
 			log("bye!");
 		}
     }
+	/**
+	 * Executes a command line, ownship and traffic updates hold the state lock, all other commands hold the compute lock
+	 */
+	protected boolean dispatch (String line) {
+		if (isStateCommand(line)) {
+			synchronized (stateLock) { return execCommandLine(line); }
+		}
+		computeLock.lock();
+		try {
+			return execCommandLine(line);
+		} finally {
+			computeLock.unlock();
+		}
+	}
+	/**
+	 * Starts repl with separate ingest and compute threads.
+	 * The ingest thread (the caller) reads command lines and applies ownship and traffic updates as soon as they arrive, 
+	 * all other commands are queued to the compute thread, which executes them in order.
+	 * Consecutive compute-bands requests waiting in the queue are collapsed into a single computation over the latest data.
+	 * The prompt is printed as soon as a command has been accepted, not when the command has been executed.
+	 */
+	void startConcurrent () {
+		BlockingQueue<String> requests = new LinkedBlockingQueue<String>();
+		Thread computeThread = new Thread(() -> computeLoop(requests), "DAABandsREPLV2-compute");
+		computeThread.start();
+		try {
+			while (true) {
+				System.out.print(" >> ");
+				String line = scanner.nextLine();
+				if (isMetaCommand(cmd_quit, line)) {
+					log("closing repl...");
+					scanner.close();
+					break;
+				}
+				if (isStateCommand(line)) {
+					log("executing " + line);
+					dispatch(line);
+				} else {
+					requests.add(line);
+				}
+			}
+		} catch (IllegalStateException | NoSuchElementException ex) {
+			// System.err.println("bye!");
+		} finally {
+			requests.add(cmd_quit[0]);
+			try {
+				computeThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			stopAutoBands();
+			if (publisher != null) { publisher.close(); }
+			log("compute-bands: " + computeRequests + " requests, " + computeRuns + " computations");
+			log("bye!");
+		}
+	}
+	/**
+	 * Compute thread, executes queued commands and coalesces consecutive compute-bands requests
+	 */
+	protected void computeLoop (BlockingQueue<String> requests) {
+		try {
+			while (true) {
+				String line = requests.take();
+				if (isMetaCommand(cmd_quit, line)) { break; }
+				if (isMetaCommand(cmd_compute_bands, line)) {
+					int n = 1;
+					while (isMetaCommand(cmd_compute_bands, requests.peek())) {
+						requests.poll();
+						n++;
+					}
+					computeRequests += n;
+					computeRuns++;
+					if (n > 1) { log("coalescing " + n + " compute-bands requests"); }
+				}
+				log("executing " + line);
+				try {
+					dispatch(line);
+				} catch (RuntimeException e) {
+					// the compute thread must survive errors, otherwise queued commands would never be executed
+					System.err.println("** Error: " + e);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	/**
+	 * Returns true if the command line updates ownship or traffic data, these commands are executed by the ingest thread in concurrent mode
+	 */
+	protected boolean isStateCommand (String line) {
+		return isCommand(cmd_ownship_data, line) || isCommand(cmd_traffic_data, line) || isCommand(cmd_ownship_name, line)
+			|| isCommand(cmd_labels, line) || isCommand(cmd_units, line) || isMetaCommand(cmd_reset, line);
+	}
 	/**
 	 * Returns true if the command line is a command
 	 */
@@ -1177,6 +1873,24 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 					if (a + 1 < args.length) { setConfigFolder(args[++a]); }
 				} else if (isCliArg(cmd_daa_server, args[a])) {
 					if (a + 1 < args.length) { setServerAddressPort(args[++a]); }
+				} else if (isCliArg(cmd_sections, args[a])) {
+					if (a + 1 < args.length) { selectSections(args[++a]); }
+				} else if (isCliArg(cmd_traffic_filter, args[a])) {
+					if (a + 1 < args.length) { setTrafficFilter(args[++a]); }
+				} else if (isCliArg(cmd_max_traffic, args[a])) {
+					if (a + 1 < args.length) { setMaxTraffic(args[++a]); }
+				} else if (isCliArg(cmd_session, args[a])) {
+					if (a + 1 < args.length) { setSession(args[++a]); }
+				} else if (isCliArg(cmd_send_queue, args[a])) {
+					if (a + 1 < args.length) { setSendQueue(args[++a]); }
+				} else if (isCliArg(cmd_auto_bands, args[a])) {
+					if (a + 1 < args.length) { autoBandsRate = args[++a]; }
+				} else if (isCliArg(cmd_simplify, args[a])) {
+					if (a + 1 < args.length) { setSimplifyTolerance(Double.parseDouble(args[++a])); }
+				} else if (isCliArg(cmd_profiler_on, args[a])) {
+					PROFILER_ENABLED = true;
+				} else if (isCliArg(cmd_concurrent, args[a])) {
+					CONCURRENT = true;
 				}
 			}
 		}
@@ -1196,6 +1910,16 @@ public class DAABandsREPLV2 extends DAABandsV2 {
 		log("  configFolder <absolute-path-to-config-folder>\n\tSets the config folder");
 		log("  config <file.conf>\n\tSets the configuration file to be loaded <file.conf>");
 		log("  precision <n>\n\tSets the precision of output values");
+		log("  sections <section1,section2,...>\n\tSelects the sections computed by compute-bands, e.g., alerts,hd-bands (default: all)");
+		log("  profiler-on\n\tTurns on profiling of compute-bands");
+		log("  profiler\n\tPrints the per-phase timing stats (min, mean, p50, p90, p99, p99.9, max) collected by the profiler");
+		log("  simplify <meters>\n\tSimplifies contours and hazard zones, the simplified polygons deviate at most <meters> from the original ones (default: 0, no simplification)");
+		log("  traffic-filter <on|off>\n\tDrops traffic that cannot reach the alerting thresholds within the lookahead time before computing bands, using a spatial grid index and a conservative bound on the closure rate (default: off)");
+		log("  max-traffic <K> [tcpa|range|closure]\n\tLoads in Daidalus only the K most threatening intruders, ranked by time to horizontal CPA (default), range, or closure rate, the dropped intruders are reported in the Prioritization field of the bands; max-traffic off removes the bound (default: off)");
+		log("  session <on|off>\n\tKeeps one Daidalus session across compute-bands calls: configuration and wind are re-applied only when changed, and bands are recomputed only when ownship, traffic, or settings have changed (default: off)");
+		log("  send-queue <n>\n\tSets the max number of messages waiting to be sent to the DAA Server by the sender thread, the oldest messages of the same type (bands, lla) are dropped when the display cannot keep up; by default only the latest message of each type is kept, larger values also deliver intermediate messages; send-queue 0 writes messages synchronously (default: " + DAABandsPublisher.DEFAULT_CAPACITY + ")");
+		log("  concurrent (cli only)\n\tApplies ownship and traffic updates on an ingest thread and computes bands on a separate compute thread, consecutive compute-bands requests are collapsed into one computation over the latest data");
+		log("  auto-bands <N>hz\n\tComputes and sends bands autonomously N times per second, a cycle is skipped when the previous computation is still running, computations that end after their cycle are reported as missed deadlines; auto-bands off stops the computation (default: off)");
 		log("  wind <wind_info>\n\tSets wind vector information, a JSON object enclosed in double quotes \"{ deg: d, knot: m }\", where d and m are reals");
 		log("  ownship <ownship-data>\n\twhere data is in daa format");
 		log("  traffic <traffic-aircraft-data>\n\twhere data is in daa format");
@@ -37,13 +37,25 @@
    TERMINATION OF THIS AGREEMENT.
  **/
 
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileReader;
 import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import gov.nasa.larcfm.ACCoRD.Alerter;
 import gov.nasa.larcfm.ACCoRD.BandsRegion;
@@ -56,11 +68,8 @@ import gov.nasa.larcfm.Util.Units;
 import gov.nasa.larcfm.Util.Vect3;
 import gov.nasa.larcfm.Util.Position;
 import gov.nasa.larcfm.Util.LatLonAlt;
-import gov.nasa.larcfm.Util.Projection;
-import gov.nasa.larcfm.Util.EuclideanProjection;
-import gov.nasa.larcfm.ACCoRD.Detection3D;
+import gov.nasa.larcfm.Util.Interval;
 import gov.nasa.larcfm.ACCoRD.RecoveryInformation;
-import gov.nasa.larcfm.ACCoRD.WCV_tvar;
 
 import static gov.nasa.larcfm.ACCoRD.DaidalusParameters.VERSION;
 
@@ -114,6 +123,16 @@ class JsonBands {
 		monitorM3Array = new ArrayList<String>();
 		monitorM4Array = new ArrayList<String>();
 	}
+
+	/**
+	 * Returns the lists of records, in the same order as DAABandsV2.arrayChunks
+	 */
+	public List<List<String>> arrays () {
+		return Arrays.asList(ownshipArray, alertsArray, windVectorsArray, metricsArray, 
+			trkArray, gsArray, vsArray, altArray, 
+			resTrkArray, resGsArray, resVsArray, resAltArray, 
+			contoursArray, hazardZonesArray);
+	}
 }
 
 public class DAABandsV2 {
@@ -129,6 +148,51 @@ public class DAABandsV2 {
 	protected boolean PRINT_METRICS = true;
 	protected boolean PRINT_POLYGONS = true;
 
+	// when streaming is enabled, the records of each time step are written to the chunk files as soon as they are computed
+	// the combined output file is then assembled from the chunk files, so memory use does not grow with the length of the scenario
+	protected boolean STREAMING = false;
+
+	// number of worker threads used in parallel batch mode (1 = sequential processing)
+	// in parallel batch mode, the scenario timeline is split into segments, and each segment is processed by a worker with its own Daidalus object
+	protected int threads = 1;
+	// each segment starts warmup seconds before its first time step, so that hysteresis and persistence logic reach the same state as in a sequential run
+	protected double warmup = 60; // sec
+	// parallel batch mode, records of the time steps shared by consecutive segments, used to check that the warm-up window reached the state of the sequential run
+	protected List<String> overlap = null;
+	protected List<String> warmupRecords = null;
+
+	// corpus mode: directory or glob of .daa files processed on a pool of 'threads' workers, each worker has its own Daidalus object and output files
+	protected String corpus = null;
+	protected String outputFolder = null; // output folder used in corpus mode, default is the current folder
+	// sweep mode: the scenario is parsed once and evaluated against each configuration in 'sweep' (comma-separated list, folder, or glob of .conf files)
+	protected String sweep = null;
+	// number of time steps processed by walkFile
+	protected int nSteps = 0;
+	// when binary output is enabled, the results are also written to <output>.bin, see DAABinaryWriter for the format
+	protected boolean BINARY = false;
+	protected DAABinaryWriter binaryWriter = null;
+	// when delta output is enabled, records identical to the previous record of the same section (except for the time) 
+	// are replaced by a compact "unchanged" marker, see DAADeltaEncoder
+	protected boolean DELTA = false;
+	protected DAADeltaEncoder delta = null;
+	// when a cache folder is given, the outputs are stored in the cache and restored when the same scenario 
+	// is processed again with the same configuration and options, see DAAResultCache
+	protected String cacheFolder = null;
+	protected long cacheSizeMB = 1024; // size limit of the cache, in MB
+	protected boolean cacheStats = false;
+	protected DAAResultCache cache = null;
+	protected String cacheKey = null;
+	// when the tolerance is positive, contours and hazard zones are simplified before serialization, 
+	// the simplified polygons deviate at most 'simplifyTolerance' meters from the original ones, see DAAPolygonSimplifier
+	protected double simplifyTolerance = 0;
+	protected DAAPolygonSimplifier simplifier = null;
+	// when alerts-only mode is enabled, only the alerting logic is evaluated (no bands, resolutions, polygons or metrics) 
+	// and the output is a compact table with one row per time step and traffic aircraft, see walkAlerts
+	protected boolean ALERTS_ONLY = false;
+	protected static final String ALERTS_TABLE_EXT = ".alerts.csv";
+	// projection with origin in the ownship position, shared by all the inverse conversions of a time step
+	protected final DAAProjectionCache projection = new DAAProjectionCache();
+
 	// the following flag and offset are introduced to avoid a region 
 	// in the atlantic ocean where worldwind is unable to render maps at certain zoom levels
 	// (all rendering layers disappear in that region when the zoom level is below ~2.5NMI)
@@ -140,6 +204,7 @@ public class DAABandsV2 {
 	protected String ofname = null; // output file name
 	protected String ifname = null; // input file name
 	protected int    precision = 2; // Precision of printed outputs
+	protected String loadedConfig = null; // configuration file successfully loaded by loadConfig
 	protected String ownshipName = null; // ownship name
 
 	/* Units are loaded from configuration file */
@@ -182,6 +247,26 @@ public class DAABandsV2 {
 		".hd-res", ".vs-res", ".hs-res", ".alt-res",
 		".contours", ".hazardzones"
 	};
+	// chunk files that contain one record per time step, and the key used for each chunk in the combined output file
+	// the order of the entries is the order in which the arrays appear in the combined output file
+	protected static final String arrayChunks[][] = {
+		{ ".ownship", "Ownship" }, { ".alerts", "Alerts" }, { ".wind", "WindVectors" }, { ".metrics", "Metrics" },
+		{ ".hd-bands", "Heading Bands" }, { ".hs-bands", "Horizontal Speed Bands" }, { ".vs-bands", "Vertical Speed Bands" }, { ".alt-bands", "Altitude Bands" },
+		{ ".hd-res", "Horizontal Direction Resolution" }, { ".hs-res", "Horizontal Speed Resolution" }, { ".vs-res", "Vertical Speed Resolution" }, { ".alt-res", "Altitude Resolution" },
+		{ ".contours", "Contours" }, { ".hazardzones", "Hazard Zones" }
+	};
+	// sections of the output, the index of each section is the index of its chunk in arrayChunks, monitors come last
+	protected static final int OWNSHIP = 0, ALERTS = 1, WIND = 2, METRICS = 3, 
+		HD_BANDS = 4, HS_BANDS = 5, VS_BANDS = 6, ALT_BANDS = 7, 
+		HD_RES = 8, HS_RES = 9, VS_RES = 10, ALT_RES = 11, 
+		CONTOURS = 12, HAZARD_ZONES = 13, MONITORS = 14;
+	protected static final String MONITORS_SECTION = "monitors";
+	protected static final long ALL_SECTIONS = (1L << (MONITORS + 1)) - 1;
+	// selection mask, bit i is set if section i is selected. Unselected sections are not computed and their chunk files are not created
+	protected long sections = ALL_SECTIONS;
+	// temporary files holding the monitor results when streaming is enabled (monitor colors are known only at the end of the scenario)
+	protected static final String monitorChunks[] = { ".m1.tmp", ".m2.tmp", ".m3.tmp", ".m4.tmp" };
+	protected PrintWriter printWriterMonitorResults[] = null;
 
 	public boolean PROFILER_ENABLED = false;
 	protected DAAProfiler profiler = null;
@@ -213,6 +298,13 @@ public class DAABandsV2 {
 		return ifname;
 	}
 
+	/**
+	 * Returns the extension of the output file, which depends on the output mode
+	 */
+	public String getOutputExtension () {
+		return ALERTS_ONLY ? ALERTS_TABLE_EXT : ".json";
+	}
+
 	/**
 	 * Prints usage instructions
 	 */
@@ -232,7 +324,21 @@ public class DAABandsV2 {
 		System.out.println("  --ownship <tailnumber>\n\tOwnship name (tail number)");
 		System.out.println("  --list-monitors\n\tReturns the list of available monitors, in JSON format");
 		System.out.println("  --list-alerters <file.conf>\nReturns the list of alerters for a given configuration, in JSON format");
-		System.out.println("  --profiler-on\n\tTurns on profiling");
+		System.out.println("  --profiler-on\n\tTurns on profiling, per-phase timing histograms (read, bands, polygons, serialization, io) are written to <output>.profiler.log");
+		System.out.println("  --threads <n>\n\tSplit the scenario into <n> segments processed in parallel, the output is the same as the sequential run");
+		System.out.println("  --warmup <sec>\n\tWarm-up window used for hysteresis and persistence logic when processing segments in parallel (default: 60)");
+		System.out.println("  --corpus <folder|glob>\n\tProcess all .daa files in <folder> (or matching <glob>) on a pool of --threads workers, and print a summary table");
+		System.out.println("  --sweep <file1.conf,file2.conf,...|folder|glob>\n\tParse the scenario once and evaluate it against each configuration on a pool of --threads workers, outputs are written to <output-folder>/<config>/");
+		System.out.println("  --output-folder <folder>\n\tOutput folder used in corpus and sweep mode");
+		System.out.println("  --stream\n\tWrite the results of each time step as soon as they are computed, memory use does not grow with the length of the scenario");
+		System.out.println("  --sections <section1,section2,...>\n\tCompute and write only the given sections, e.g., alerts,hd-bands (default: all). Valid sections: " + String.join(",", getSectionNames()));
+		System.out.println("  --delta\n\tReplace records that did not change since the previous time step with an \"unchanged\" marker, use DAADeltaEncoder to expand the output");
+		System.out.println("  --simplify <meters>\n\tSimplify contours and hazard zones before writing them, the simplified polygons deviate at most <meters> from the original ones");
+		System.out.println("  --cache <folder>\n\tStore the output files in <folder>, and reuse them when the same scenario is processed again with the same configuration and options");
+		System.out.println("  --cache-size <MB>\n\tSize limit of the cache, least recently used entries are evicted when the limit is exceeded (default: 1024)");
+		System.out.println("  --cache-stats\n\tPrint entries, size, and hit rate of the cache given with --cache, and exit");
+		System.out.println("  --alerts-only\n\tEvaluate only the alerting logic, and write a table with the alert level of each traffic aircraft at each time step to <scenario>" + ALERTS_TABLE_EXT + ", also in corpus and sweep mode");
+		System.out.println("  --binary\n\tWrite also a binary file <output>.bin with the results of each time step, the file can be read with DAABinaryReader");
 		System.exit(0);
 	}
 
@@ -312,11 +418,36 @@ public class DAABandsV2 {
 	 * Utility function, prints each element in the list on 'out' as a separate line
 	 */
 	public static void printArray(PrintWriter out, List<String> info) {
+		if (out == null) { return; }
 		for (String str : info) {
 			out.println(str);
 		}
 	}
 
+	/**
+	 * Utility function, prints the lines of a chunk file on 'out' as a JSON array.
+	 * The output is identical to printArray(out, info, label) where info contains the lines of the chunk file.
+	 */
+	public static void printArray(PrintWriter out, File chunk, String label) {
+		out.println("\"" + label + "\": [");
+		try (BufferedReader reader = new BufferedReader(new FileReader(chunk))) {
+			boolean comma = false;
+			String str = reader.readLine();
+			while (str != null) {
+				if (comma) {
+					out.println(",");
+				} else {
+					comma = true;
+				}
+				out.print(str);
+				str = reader.readLine();
+			}
+		} catch (IOException e) {
+			System.err.println("** Error: " + e);
+		}
+		out.println("\n]");
+	}
+
 	public static void printMonitors (PrintWriter out, DAAMonitorsV2 monitors, List<List<String>> info) {
 		out.println("[ ");
 		int len = DAAMonitorsV2.getSize();
@@ -338,6 +469,30 @@ public class DAABandsV2 {
 		}
 		out.println(" ]");
 	}
+	/**
+	 * Utility function, same as printMonitors but the results of each monitor are read from the given chunk files
+	 */
+	public static void printMonitors (PrintWriter out, DAAMonitorsV2 monitors, File[] info) {
+		out.println("[ ");
+		int len = DAAMonitorsV2.getSize();
+		for (int i = 0; i < len; i++) {
+			int monitorID = i + 1;
+			String legend = DAAMonitorsV2.getLegend(monitorID);
+			String color = monitors.getColor(monitorID);
+			String label = DAAMonitorsV2.getLabel(monitorID);
+			out.print("{ \"id\": \"" + monitorID + "\", ");
+			out.print("\"name\": \"" + label + "\", ");
+			out.print("\"color\": \"" + color + "\", ");
+			out.print("\"legend\": " + legend + ",\n");
+			printArray(out, info[i], "results");
+			if (i < len - 1) {
+				out.println("}\n,");
+			} else {
+				out.println("} ");
+			}
+		}
+		out.println(" ]");
+	}
 
 	/**
 	 * Utility function, loads the configuration indicated in daaConfig
@@ -348,6 +503,7 @@ public class DAABandsV2 {
 				boolean paramLoaded = daa.loadFromFile(daaConfig);
 				if (paramLoaded && daa.numberOfAlerters() > 0) {
 					System.out.println("** Configuration file " + daaConfig + " loaded successfully!");
+					loadedConfig = daaConfig;
 					hs_units = daa.getUnitsOf("step_hs");
 					vs_units = daa.getUnitsOf("step_vs");
 					alt_units = daa.getUnitsOf("step_alt");
@@ -365,6 +521,12 @@ public class DAABandsV2 {
 		}
 		return false;
 	}
+	/**
+	 * Returns true if the configuration indicated in daaConfig has been loaded
+	 */
+	public boolean configLoaded () {
+		return daaConfig != null && daaConfig.equals(loadedConfig);
+	}
 	/**
 	 * Utility function, selects the alerter indicated in daaAlerter
 	 */
@@ -431,18 +593,19 @@ public class DAABandsV2 {
 	}
 
 	public String jsonHeader () {
-		String json = "";
-		json += "\"Info\": { \"language\": \"Java\", \"version\": \"" + getVersion() + "\""; 
-		json +=	", \"configuration\": \"" + getConfig()+ "\"";
-		if (daaAlerter != null) { json +=	", \"alerter\": \"" + daaAlerter + "\""; }
-		json += " },\n";
-		json += "\"Scenario\": \"" + scenario + "\",\n";
+		StringBuilder json = new StringBuilder(256);
+		json.append("\"Info\": { \"language\": \"Java\", \"version\": \"").append(getVersion()).append("\""); 
+		json.append(", \"configuration\": \"").append(getConfig()).append("\"");
+		if (daaAlerter != null) { json.append(", \"alerter\": \"").append(daaAlerter).append("\""); }
+		if (DELTA) { json.append(DAADeltaEncoder.INFO_FLAG); }
+		json.append(" },\n");
+		json.append("\"Scenario\": \"").append(scenario).append("\",\n");
 		Velocity wind = daa.getWindVelocityFrom();
-		json += "\"Wind\": { \"deg\": \"" + fmt(wind.compassAngle("deg")) + "\""; 
-		json += ", \"knot\": \"" + fmt(wind.groundSpeed("knot"))+"\"";
+		fmt(json.append("\"Wind\": { \"deg\": \""), wind.compassAngle("deg")).append("\""); 
+		fmt(json.append(", \"knot\": \""), wind.groundSpeed("knot")).append("\"");
 		//json += ", \"enabled\": \"" + wind.isZero() + "\"";
-		json += " },";
-		return json;
+		json.append(" },");
+		return json.toString();
 	}
 
 	public boolean isBelowLLAThreshold(TrafficState ownship, TrafficState intruder) {
@@ -450,8 +613,7 @@ public class DAABandsV2 {
 		Vect3 si = intruder.get_s(); // projected position of the intruder
 
 		Position po = ownship.getPosition(); // ownship position in lat lon
-		EuclideanProjection eprj = Projection.createProjection(po);
-		LatLonAlt lla = eprj.inverse(si);
+		LatLonAlt lla = projection.inverse(si, po);
 		Position px = Position.mkLatLonAlt(lla.lat(), lla.lon(), lla.alt());
 
 		return Math.abs(Units.to("deg", px.lat())) < latlonThreshold 
@@ -491,57 +653,126 @@ public class DAABandsV2 {
 	 * @param po Position of the ownship
 	 */
 	public LatLonAlt getLatLonAlt (Position pi, Position po) {
-		if (pi.isLatLon()) {
-			return pi.lla();
-		}
-		EuclideanProjection eprj = Projection.createProjection(po);
-		return eprj.inverse(pi.vect3());
+		return projection.inverse(pi, po);
 	}
 
 	public String printPolygon (List<Position> ply, Position po) {
-		String polygon = "";
+		DAAJsonWriter out = new DAAJsonWriter(64 + 80 * ply.size());
+		printPolygon(out, ply, po);
+		return out.toString();
+	}
+	/**
+	 * Utility function, appends a polygon to 'out'
+	 */
+	public void printPolygon (DAAJsonWriter out, List<Position> ply, Position po) {
+		out.raw('[');
 		boolean comma = false;
-		for (Position pi:ply) {
-			LatLonAlt lla = getLatLonAlt(pi, po);
-			String lat = llaFlag ? f.FmPrecision(Units.to("deg", lla.lat()) + latOffset, precision16)
-					: f.FmPrecision(Units.to("deg", lla.lat()), precision16);
-			String lon = llaFlag ? f.FmPrecision(Units.to("deg", lla.lon()) + lonOffset, precision16)
-					: f.FmPrecision(Units.to("deg", lla.lon()), precision16);
+		for (LatLonAlt lla : projection.inverse(ply, po)) {
 			if (comma) {
-				polygon += ", ";
+				out.raw(", ");
 			} else {
 				comma = true;
 			}
-			polygon += "{ \"lat\": \"" + lat;
-			polygon += "\", \"lon\": \"" + lon; 
-			polygon += "\", \"alt\": \"" + fmt(Units.to("ft", lla.alt()));
-			polygon += "\" }";
+			out.raw("{ \"lat\": ").quotedNumber(llaFlag ? Units.to("deg", lla.lat()) + latOffset : Units.to("deg", lla.lat()), precision16);
+			out.raw(", \"lon\": ").quotedNumber(llaFlag ? Units.to("deg", lla.lon()) + lonOffset : Units.to("deg", lla.lon()), precision16);
+			out.raw(", \"alt\": ").quotedNumber(Units.to("ft", lla.alt()), precision);
+			out.raw(" }");
 		}
-		polygon = "[" + polygon + "]";
-		return polygon;
+		out.raw(']');
 	}
 
 	public String printPolygons (List<List<Position>> polygons, Position po) {
-		String res = "";
+		DAAJsonWriter out = new DAAJsonWriter();
+		printPolygons(out, polygons, po);
+		return out.toString();
+	}
+	/**
+	 * Utility function, appends a list of polygons to 'out'
+	 */
+	public void printPolygons (DAAJsonWriter out, List<List<Position>> polygons, Position po) {
+		out.raw("[ ");
 		boolean comma = false;
 		for (List<Position> ply : polygons) {
 			if (comma) {
-				res += ", ";
+				out.raw(", ");
 			} else {
 				comma = true;
 			}
-			res += printPolygon(ply, po);
+			printPolygon(out, ply, po);
 		}
-		return "[ " + res + " ]";
+		out.raw(" ]");
+	}
+
+	/**
+	 * Utility function, simplifies the polygons if a simplification tolerance is set
+	 */
+	protected void simplifyPolygons (List<List<Position>> polygons, Position po) {
+		if (simplifyTolerance <= 0) { return; }
+		if (simplifier == null) { simplifier = new DAAPolygonSimplifier(simplifyTolerance); }
+		simplifier.simplify(polygons, po, projection);
+	}
+
+	// contours and hazard zones of the current time step, indexed by aircraft index, 
+	// computed on first use and shared by the json writer and the binary writer, cleared when a new snapshot is created
+	protected HashMap<Integer, List<List<Position>>> stepContours = new HashMap<Integer, List<List<Position>>>();
+	protected HashMap<Integer, List<List<Position>>> stepHazardZones = new HashMap<Integer, List<List<Position>>>();
+
+	/**
+	 * Utility function, returns the (simplified) contours of aircraft ac at the current time step
+	 */
+	protected List<List<Position>> contoursOf (int ac, Position po) {
+		List<List<Position>> polygons = stepContours.get(ac);
+		if (polygons == null) {
+			polygons = new ArrayList<List<Position>>();
+			profileStart(DAAProfiler.POLYGONS);
+			if (PRINT_POLYGONS) { daa.horizontalContours(polygons, ac); }
+			simplifyPolygons(polygons, po);
+			profileStop(DAAProfiler.POLYGONS);
+			stepContours.put(ac, polygons);
+		}
+		return polygons;
+	}
+
+	/**
+	 * Utility function, returns the (simplified) hazard zones of aircraft ac at the current time step, violation first and then conflict
+	 */
+	protected List<List<Position>> hazardZonesOf (int ac, Position po) {
+		List<List<Position>> polygons = stepHazardZones.get(ac);
+		if (polygons == null) {
+			profileStart(DAAProfiler.POLYGONS);
+			List<Position> ply_violation = new ArrayList<Position>();
+			List<Position> ply_conflict = new ArrayList<Position>();
+			if (PRINT_POLYGONS) {
+				daa.horizontalHazardZone(ply_violation, ac, true, false);
+				daa.horizontalHazardZone(ply_conflict, ac, false, false);
+			}
+			polygons = new ArrayList<List<Position>>();
+			polygons.add(ply_violation);
+			polygons.add(ply_conflict);
+			simplifyPolygons(polygons, po);
+			profileStop(DAAProfiler.POLYGONS);
+			stepHazardZones.put(ac, polygons);
+		}
+		return polygons;
+	}
+
+	/**
+	 * Utility function, prints the number of polygon vertices removed by the simplifier, if simplification is enabled
+	 */
+	protected void printSimplifierStats () {
+		if (simplifier != null) { System.out.println(simplifier.printStats()); }
 	}
 
 	public String fmt(double val) {
-		return f.FmPrecision(val,precision);
+		return DAAFormatter.format(val, precision);
+	}
+	public StringBuilder fmt(StringBuilder sb, double val) {
+		return DAAFormatter.append(sb, val, precision);
 	}
 
+	protected static final String internalunits[]  = {"m", "s", "rad", "m/s", "m/s^2", "rad/s"};
 	public static String getCompatibleInternalUnit(String unit) {
-		String internalunits[]  = {"m", "s", "rad", "m/s", "m/s^2", "rad/s"};
-		for (int i=0; i < 6; ++i) {
+		for (int i=0; i < internalunits.length; ++i) {
 			if (Units.isCompatible(unit,internalunits[i])) {
 				return internalunits[i];
 			}
@@ -550,401 +781,682 @@ public class DAABandsV2 {
 	}
 
 	public String jsonValUnits(String label, double val, String units) {
-		String json = "";
-		json += "\""+label+"\": { ";
-		json += "\"val\": \"" + fmt(Units.to(units,val)) + "\"";
-		json += ", \"units\": \"" + units + "\"";
+		DAAJsonWriter out = new DAAJsonWriter(128);
+		jsonValUnits(out, label, val, units);
+		return out.toString();
+	}
+	public void jsonValUnits(DAAJsonWriter out, String label, double val, String units) {
+		out.key(label).raw("{ ");
+		out.key("val").quotedNumber(Units.to(units,val), precision);
+		out.raw(", ").string("units", units);
 		if (Units.getFactor(units) != 1.0) {
-			json += ", \"internal\": \"" + fmt(val) + "\"";
+			out.raw(", ").key("internal").quotedNumber(val, precision);
 			String internalunit = getCompatibleInternalUnit(units);
 			if (!internalunit.isEmpty()) {
-				json += ", \"internal_units\": \"" + internalunit + "\"";
+				out.raw(", ").string("internal_units", internalunit);
 			}
 		}
-		json += " }";
-		return json;
+		out.raw(" }");
 	}
 
 	public String jsonValueRegion(String label, double val, String units, BandsRegion region) {
-		String json = "\""+label+"\": {";
-		json += jsonValUnits("valunit",val,units);
-		json += ", "+jsonString("region",region.toString());
-		json += " }";
-		return json;
+		DAAJsonWriter out = new DAAJsonWriter(160);
+		jsonValueRegion(out, label, val, units, region);
+		return out.toString();
+	}
+	public void jsonValueRegion(DAAJsonWriter out, String label, double val, String units, BandsRegion region) {
+		out.key(label).raw('{');
+		jsonValUnits(out, "valunit", val, units);
+		out.raw(", ").string("region", region.toString());
+		out.raw(" }");
 	}
 
 	public String jsonVect3(String label, Vect3 v) {
-		String json = "";
-		json += "\""+label+"\": { ";
-		json += "\"x\": \"" + fmt(v.x) + "\"";
-		json += ", \"y\": \"" + fmt(v.y) + "\"";
-		json += ", \"z\": \"" + fmt(v.z) + "\"";
-		json += " }";
-		return json;
+		DAAJsonWriter out = new DAAJsonWriter(128);
+		jsonVect3(out, label, v);
+		return out.toString();
+	}
+	public void jsonVect3(DAAJsonWriter out, String label, Vect3 v) {
+		out.key(label).raw("{ ");
+		out.key("x").quotedNumber(v.x, precision);
+		out.raw(", ").key("y").quotedNumber(v.y, precision);
+		out.raw(", ").key("z").quotedNumber(v.z, precision);
+		out.raw(" }");
 	}
 
 	public String jsonAircraftState(TrafficState ac, boolean wind) {
+		DAAJsonWriter out = new DAAJsonWriter(1024);
+		jsonAircraftState(out, ac, wind);
+		return out.toString();
+	}
+	public void jsonAircraftState(DAAJsonWriter out, TrafficState ac, boolean wind) {
 		Velocity av = ac.getAirVelocity();
 		Velocity gv = ac.getGroundVelocity();
-		String json = "{ ";
-		json += "\"id\": \""+ ac.getId()+"\"";
-		json += ", "+jsonVect3("s",ac.get_s());
-		json += ", "+jsonVect3("v",ac.get_v());
-		json += ", "+jsonValUnits("altitude",ac.altitude(),alt_units);
-		json += ", "+jsonValUnits("track",gv.compassAngle(),hdir_units);
-		json += ", "+jsonValUnits("heading",ac.horizontalDirection(),hdir_units);
-		json += ", "+jsonValUnits("groundspeed",gv.gs(),hs_units);
-		json += ", "+jsonValUnits("airspeed",av.gs(),hs_units);
-		json += ", "+jsonValUnits("verticalspeed",ac.verticalSpeed(),vs_units);
-		json += ", \"wind\": "+wind;
-		json += " }";
-		return json;
+		out.raw("{ ");
+		out.string("id", ac.getId());
+		out.raw(", "); jsonVect3(out, "s", ac.get_s());
+		out.raw(", "); jsonVect3(out, "v", ac.get_v());
+		out.raw(", "); jsonValUnits(out, "altitude", ac.altitude(), alt_units);
+		out.raw(", "); jsonValUnits(out, "track", gv.compassAngle(), hdir_units);
+		out.raw(", "); jsonValUnits(out, "heading", ac.horizontalDirection(), hdir_units);
+		out.raw(", "); jsonValUnits(out, "groundspeed", gv.gs(), hs_units);
+		out.raw(", "); jsonValUnits(out, "airspeed", av.gs(), hs_units);
+		out.raw(", "); jsonValUnits(out, "verticalspeed", ac.verticalSpeed(), vs_units);
+		out.raw(", ").key("wind").raw(wind);
+		out.raw(" }");
 	}
 
 	public String jsonAircraftMetrics(int ac_idx) {
-		int alerter_idx = daa.alerterIndexBasedOnAlertingLogic(ac_idx);
-		Alerter alerter = daa.getAlerterAt(alerter_idx);
-		int corrective_level = daa.correctiveAlertLevel(alerter_idx);
-		Optional<Detection3D> d3d = alerter.getDetector(corrective_level);
-		Detection3D detector = d3d.get();
-		double taumod = (detector instanceof WCV_tvar) ? daa.modifiedTau(ac_idx,((WCV_tvar)detector).getDTHR()) : Double.NaN;
-		String json = "{ ";
-		json += "\"separation\": { "+jsonValUnits("horizontal",daa.currentHorizontalSeparation(ac_idx),hrec_units) + 
-				", "+jsonValUnits("vertical",daa.currentVerticalSeparation(ac_idx),vrec_units) + " }";
-		json += ", \"missdistance\": { "+jsonValUnits("horizontal",daa.predictedHorizontalMissDistance(ac_idx),hrec_units) + 
-				", "+jsonValUnits("vertical",daa.predictedVerticalMissDistance(ac_idx),vrec_units) + " }";
-		json += ", \"closurerate\": { "+jsonValUnits("horizontal",daa.horizontalClosureRate(ac_idx),hs_units) + 
-				", "+jsonValUnits("vertical",daa.verticalClosureRate(ac_idx),vs_units) + " }";
-		json += ", "+jsonValUnits("tcpa",daa.timeToHorizontalClosestPointOfApproach(ac_idx),time_units);
-		json += ", "+jsonValUnits("tcoa",daa.timeToCoAltitude(ac_idx),time_units);
-		json += ", "+jsonValUnits("taumod",taumod,time_units);
-		json += " }";
-		return json;
+		DAAJsonWriter out = new DAAJsonWriter(1024);
+		jsonAircraftMetrics(out, ac_idx);
+		return out.toString();
+	}
+	public void jsonAircraftMetrics(DAAJsonWriter out, int ac_idx) {
+		jsonAircraftMetrics(out, DAAStepSnapshot.metricsOf(daa, ac_idx));
+	}
+	/**
+	 * Appends the metrics computed by DAAStepSnapshot to 'out', the same values are written to the binary output file
+	 */
+	public void jsonAircraftMetrics(DAAJsonWriter out, double[] metrics) {
+		out.raw("{ ");
+		out.key("separation").raw("{ ");
+		jsonValUnits(out, "horizontal", metrics[DAAStepSnapshot.HORIZONTAL_SEPARATION], hrec_units); out.raw(", ");
+		jsonValUnits(out, "vertical", metrics[DAAStepSnapshot.VERTICAL_SEPARATION], vrec_units); out.raw(" }");
+		out.raw(", ").key("missdistance").raw("{ ");
+		jsonValUnits(out, "horizontal", metrics[DAAStepSnapshot.HORIZONTAL_MISS_DISTANCE], hrec_units); out.raw(", ");
+		jsonValUnits(out, "vertical", metrics[DAAStepSnapshot.VERTICAL_MISS_DISTANCE], vrec_units); out.raw(" }");
+		out.raw(", ").key("closurerate").raw("{ ");
+		jsonValUnits(out, "horizontal", metrics[DAAStepSnapshot.HORIZONTAL_CLOSURE_RATE], hs_units); out.raw(", ");
+		jsonValUnits(out, "vertical", metrics[DAAStepSnapshot.VERTICAL_CLOSURE_RATE], vs_units); out.raw(" }");
+		out.raw(", "); jsonValUnits(out, "tcpa", metrics[DAAStepSnapshot.TCPA], time_units);
+		out.raw(", "); jsonValUnits(out, "tcoa", metrics[DAAStepSnapshot.TCOA], time_units);
+		out.raw(", "); jsonValUnits(out, "taumod", metrics[DAAStepSnapshot.TAUMOD], time_units);
+		out.raw(" }");
+	}
+
+	/**
+	 * Utility function, appends the resolution record of one dimension (heading, horizontal speed, vertical speed, altitude) to 'out'
+	 */
+	protected void jsonResolution(DAAJsonWriter out, String time, boolean preferred, double res, double res_sec, 
+			BandsRegion region, BandsRegion region_sec, RecoveryInformation recoveryInfo, String units) {
+		boolean isConflict = !Double.isNaN(res);
+		boolean isRecovery = recoveryInfo.recoveryBandsComputed();
+		boolean isSaturated = recoveryInfo.recoveryBandsSaturated();
+		out.raw("{ \"time\": ").raw(time);
+		out.raw(", "); jsonValueRegion(out, "preferred_resolution", res, units, region);
+		out.raw(", "); jsonValueRegion(out, "other_resolution", res_sec, units, region_sec);
+		out.raw(", \"flags\": { \"conflict\": ").raw(isConflict).raw(", \"recovery\": ").raw(isRecovery)
+			.raw(", \"saturated\": ").raw(isSaturated).raw(", \"preferred\": ").raw(preferred).raw(" }");
+		out.raw(", \"recovery\": { \"time\": ").quotedNumber(recoveryInfo.timeToRecovery(), precision)
+			.raw(", \"nfactor\": \"").raw(recoveryInfo.nFactor());
+		out.raw("\", \"distance\": {"); jsonValUnits(out, "horizontal", recoveryInfo.recoveryHorizontalDistance(), hrec_units);
+		out.raw(", "); jsonValUnits(out, "vertical", recoveryInfo.recoveryVerticalDistance(), vrec_units); out.raw("}}");
+		out.raw(" }");
+	}
+
+	// reusable buffer for the records computed by jsonBands
+	protected DAAJsonWriter json = new DAAJsonWriter();
+	// results of the current time step, computed once by jsonBands and shared by the json writers, the binary writer and the monitors
+	protected DAAStepSnapshot snapshot = null;
+
+	/**
+	 * Utility function, returns the groups of results needed by the selected sections of the output
+	 */
+	protected int snapshotGroups () {
+		// metrics are shared by the metrics section and the binary output file
+		int metrics = PRINT_METRICS && (isSelected(METRICS) || binaryWriter != null) ? DAAStepSnapshot.METRICS : 0;
+		if (binaryWriter != null || (PRINT_METRICS && isSelected(MONITORS))) { return DAAStepSnapshot.ALL | metrics; }
+		int groups = metrics;
+		if (isSelected(OWNSHIP)) { groups |= DAAStepSnapshot.REGIONS; }
+		// sections of bands and resolutions are in the same order as the dimensions of the snapshot
+		for (int dim = 0; dim < DAAStepSnapshot.N_DIMENSIONS; dim++) {
+			if (isSelected(HD_BANDS + dim)) { groups |= DAAStepSnapshot.bands(dim); }
+			if (isSelected(HD_RES + dim)) { groups |= DAAStepSnapshot.resolutions(dim); }
+		}
+		if (isSelected(ALERTS)) { groups |= DAAStepSnapshot.ALERTS; }
+		return groups;
+	}
+
+	/**
+	 * Utility function, returns the snapshot of the current time step with the given groups of results.
+	 * The snapshot computed by jsonBands is reused when it belongs to the current time step and includes the groups.
+	 */
+	protected DAAStepSnapshot stepSnapshot (int groups) {
+		if (snapshot == null || snapshot.time != daa.getCurrentTime() || !snapshot.has(groups)) {
+			newSnapshot(groups);
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Utility function, computes a new snapshot of the current time step, the polygons of the previous snapshot are discarded
+	 */
+	protected DAAStepSnapshot newSnapshot (int groups) {
+		snapshot = new DAAStepSnapshot(daa, groups);
+		stepContours.clear();
+		stepHazardZones.clear();
+		return snapshot;
 	}
 
 	/**
 	 * Utility function, performs tha computation of bands polygons and metrics
 	 */
 	public String jsonBands (JsonBands jb) {
+		DAAJsonWriter out = json;
 
-		// ownship
-		TrafficState ownship = daa.getOwnshipState();
 		String time = fmt(daa.getCurrentTime());
-		String own = "{ \"time\": " + time; 
-		own += ", \"acstate\": " + jsonAircraftState(daa.getOwnshipState(), !daa.getWindVelocityTo().isZero());
-		BandsRegion currentTrkRegion = daa.regionOfHorizontalDirection(ownship.horizontalDirection()); 
-		own += ", "+jsonString("trk_region",currentTrkRegion.toString());
-		BandsRegion currentGsRegion = daa.regionOfHorizontalSpeed(ownship.horizontalSpeed()); 
-		own += ", "+jsonString("gs_region",currentGsRegion.toString());
-		BandsRegion currentVsRegion = daa.regionOfVerticalSpeed(ownship.verticalSpeed()); 
-		own += ", "+jsonString("vs_region",currentVsRegion.toString());
-		BandsRegion currentAltRegion = daa.regionOfAltitude(ownship.altitude()); 
-		own += ", "+jsonString("alt_region",currentAltRegion.toString());
-		own += " }";
-		jb.ownshipArray.add(own);
+		// bands, resolutions and alerts are computed once, and shared by all sections
+		DAAStepSnapshot step = newSnapshot(snapshotGroups());
+
+		// ownship
+		if (isSelected(OWNSHIP)) {
+			out.reset().raw("{ \"time\": ").raw(time);
+			out.raw(", \"acstate\": "); jsonAircraftState(out, daa.getOwnshipState(), !daa.getWindVelocityTo().isZero());
+			out.raw(", ").string("trk_region", step.horizontalDirection().currentRegion.toString());
+			out.raw(", ").string("gs_region", step.horizontalSpeed().currentRegion.toString());
+			out.raw(", ").string("vs_region", step.verticalSpeed().currentRegion.toString());
+			out.raw(", ").string("alt_region", step.altitude().currentRegion.toString());
+			out.raw(" }");
+			jb.ownshipArray.add(out.toString());
+		}
 
 		// wind vectors
-		Velocity wv = daa.getWindVelocityFrom();
-		String windVectors = "{ \"time\": " + time; 
-		windVectors += ", \"deg\": \"" + fmt(wv.compassAngle("deg")) + "\"";
-		windVectors += ", \"knot\": \"" + fmt(wv.groundSpeed("knot"))  + "\"";
-		windVectors += " }";
-		jb.windVectorsArray.add(windVectors);
+		if (isSelected(WIND)) {
+			Velocity wv = daa.getWindVelocityFrom();
+			out.reset().raw("{ \"time\": ").raw(time);
+			out.raw(", \"deg\": ").quotedNumber(wv.compassAngle("deg"), precision);
+			out.raw(", \"knot\": ").quotedNumber(wv.groundSpeed("knot"), precision);
+			out.raw(" }");
+			jb.windVectorsArray.add(out.toString());
+		}
 
 		// traffic alerts
-		String alerts = "{ \"time\": " + time + ", \"alerts\": [ ";
-		for (int ac = 1; ac <= daa.lastTrafficIndex(); ac++) {
-			int alerter_idx = daa.alerterIndexBasedOnAlertingLogic(ac);
-			Alerter alerter = daa.getAlerterAt(alerter_idx);
-			int alert_level = daa.alertLevel(ac);
-			BandsRegion alert_region = BandsRegion.UNKNOWN;
-			if (alert_level == 0) {
-				alert_region = BandsRegion.NONE;
-			} else {
-				alert_region = daa.regionOfAlertLevel(alerter_idx,alert_level);
+		if (isSelected(ALERTS)) {
+			out.reset().raw("{ \"time\": ").raw(time).raw(", \"alerts\": [ ");
+			for (int ac = 1; ac <= step.lastTrafficIndex; ac++) {
+				String ac_name = daa.getAircraftStateAt(ac).getId();
+				if (ac > 1) { out.raw(", "); }
+				out.raw("{ ").string("ac", ac_name)
+					.raw(", ").integer("alert_level", step.alertLevel(ac))
+					.raw(", ").string("alert_region", step.alertRegion(ac).toString())
+					.raw(", ").string("alerter", step.alerterId(ac))
+					.raw(", ").integer("alerter_idx", step.alerterIndex(ac))
+					.raw('}');
 			}
-			String ac_name = daa.getAircraftStateAt(ac).getId();
-			if (ac > 1) { alerts += ", "; }
-			alerts += "{ " + jsonString("ac",ac_name) 
-			+ ", " + jsonInt("alert_level",alert_level) 
-			+ ", " + jsonString("alert_region",alert_region.toString())
-			+ ", " + jsonString("alerter",alerter.getId())
-			+ ", " + jsonInt("alerter_idx",alerter_idx)
-			+ "}";
-		}
-		alerts += " ]}";
-		jb.alertsArray.add(alerts);
+			out.raw(" ]}");
+			jb.alertsArray.add(out.toString());
+		}
 
 		// Traffic aircraft
-		String traffic = "{ \"time\": " + time + ", \"aircraft\": [ ";
-		if (PRINT_METRICS) {
-			for (int ac = 1; ac <= daa.lastTrafficIndex(); ac++) {
-				if (ac > 1) { traffic += ", "; }
-				traffic += "{ \"acstate\": " + jsonAircraftState(daa.getAircraftStateAt(ac), !daa.getWindVelocityTo().isZero());
-				traffic += ", \"metrics\": " + jsonAircraftMetrics(ac);
-				traffic += " }";
+		if (isSelected(METRICS)) {
+			out.reset().raw("{ \"time\": ").raw(time).raw(", \"aircraft\": [ ");
+			if (PRINT_METRICS) {
+				for (int ac = 1; ac <= daa.lastTrafficIndex(); ac++) {
+					if (ac > 1) { out.raw(", "); }
+					out.raw("{ \"acstate\": "); jsonAircraftState(out, daa.getAircraftStateAt(ac), !daa.getWindVelocityTo().isZero());
+					out.raw(", \"metrics\": "); jsonAircraftMetrics(out, step.metrics(ac));
+					out.raw(" }");
+				}
 			}
+			out.raw(" ]}");
+			jb.metricsArray.add(out.toString());
 		}
-		traffic += " ]}";
-		jb.metricsArray.add(traffic);
 
 		// bands
-		String trkBands = "{ \"time\": " + time;
-		trkBands += ", \"bands\": [ ";
-		for (int i = 0; i < daa.horizontalDirectionBandsLength(); i++) {
-			trkBands += "{ \"range\": " + daa.horizontalDirectionIntervalAt(i, hdir_units);
-			trkBands += ", \"units\": \"" +  hdir_units + "\"";
-			trkBands += ", \"region\": \"" + daa.horizontalDirectionRegionAt(i) + "\" }";
-			if (i < daa.horizontalDirectionBandsLength() - 1) { trkBands += ", "; }
-		}
-		trkBands += " ]}";
-		jb.trkArray.add(trkBands);
-
-		String gsBands = "{ \"time\": " + time;
-		gsBands += ", \"bands\": [ ";
-		for (int i = 0; i < daa.horizontalSpeedBandsLength(); i++) {
-			gsBands += "{ \"range\": " + daa.horizontalSpeedIntervalAt(i, hs_units);
-			gsBands += ", \"units\": \"" + hs_units + "\"";
-			gsBands += ", \"region\": \"" + daa.horizontalSpeedRegionAt(i) + "\" }";
-			if (i < daa.horizontalSpeedBandsLength() - 1) { gsBands += ", "; }
-		}
-		gsBands += " ]}";
-		jb.gsArray.add(gsBands);
-
-		String vsBands = "{ \"time\": " + time;
-		vsBands += ", \"bands\": [ ";
-		for (int i = 0; i < daa.verticalSpeedBandsLength(); i++) {
-			vsBands += "{ \"range\": " + daa.verticalSpeedIntervalAt(i, vs_units);
-			vsBands += ", \"units\": \"" + vs_units + "\"";
-			vsBands += ", \"region\": \"" + daa.verticalSpeedRegionAt(i) + "\" }";
-			if (i < daa.verticalSpeedBandsLength() - 1) { vsBands += ", "; }
-		}
-		vsBands += " ]}";
-		jb.vsArray.add(vsBands);
-
-		String altBands = "{ \"time\": " + time;
-		altBands += ", \"bands\": [ ";
-		for (int i = 0; i < daa.altitudeBandsLength(); i++) {
-			altBands += "{ \"range\": " + daa.altitudeIntervalAt(i, alt_units);
-			altBands += ", \"units\": \"" + alt_units + "\"";
-			altBands += ", \"region\": \"" + daa.altitudeRegionAt(i) + "\" }";
-			if (i < daa.altitudeBandsLength() - 1) { altBands += ", "; }
-		}
-		altBands += " ]}";
-		jb.altArray.add(altBands);
+		if (isSelected(HD_BANDS)) {
+			out.reset().raw("{ \"time\": ").raw(time);
+			out.raw(", \"bands\": [ ");
+			DAAStepSnapshot.Dimension bands = step.horizontalDirection();
+			for (int i = 0; i < bands.bandsLength(); i++) {
+				out.raw("{ \"range\": ").raw(bands.intervalAt(i, hdir_units));
+				out.raw(", \"units\": ").quoted(hdir_units);
+				out.raw(", \"region\": \"").raw(bands.regionAt(i)).raw("\" }");
+				if (i < bands.bandsLength() - 1) { out.raw(", "); }
+			}
+			out.raw(" ]}");
+			jb.trkArray.add(out.toString());
+		}
+
+		if (isSelected(HS_BANDS)) {
+			out.reset().raw("{ \"time\": ").raw(time);
+			out.raw(", \"bands\": [ ");
+			DAAStepSnapshot.Dimension bands = step.horizontalSpeed();
+			for (int i = 0; i < bands.bandsLength(); i++) {
+				out.raw("{ \"range\": ").raw(bands.intervalAt(i, hs_units));
+				out.raw(", \"units\": ").quoted(hs_units);
+				out.raw(", \"region\": \"").raw(bands.regionAt(i)).raw("\" }");
+				if (i < bands.bandsLength() - 1) { out.raw(", "); }
+			}
+			out.raw(" ]}");
+			jb.gsArray.add(out.toString());
+		}
+
+		if (isSelected(VS_BANDS)) {
+			out.reset().raw("{ \"time\": ").raw(time);
+			out.raw(", \"bands\": [ ");
+			DAAStepSnapshot.Dimension bands = step.verticalSpeed();
+			for (int i = 0; i < bands.bandsLength(); i++) {
+				out.raw("{ \"range\": ").raw(bands.intervalAt(i, vs_units));
+				out.raw(", \"units\": ").quoted(vs_units);
+				out.raw(", \"region\": \"").raw(bands.regionAt(i)).raw("\" }");
+				if (i < bands.bandsLength() - 1) { out.raw(", "); }
+			}
+			out.raw(" ]}");
+			jb.vsArray.add(out.toString());
+		}
+
+		if (isSelected(ALT_BANDS)) {
+			out.reset().raw("{ \"time\": ").raw(time);
+			out.raw(", \"bands\": [ ");
+			DAAStepSnapshot.Dimension bands = step.altitude();
+			for (int i = 0; i < bands.bandsLength(); i++) {
+				out.raw("{ \"range\": ").raw(bands.intervalAt(i, alt_units));
+				out.raw(", \"units\": ").quoted(alt_units);
+				out.raw(", \"region\": \"").raw(bands.regionAt(i)).raw("\" }");
+				if (i < bands.bandsLength() - 1) { out.raw(", "); }
+			}
+			out.raw(" ]}");
+			jb.altArray.add(out.toString());
+		}
 
 		// resolutions
-		String trkResolution = "{ \"time\": " + time;
-		boolean preferredTrk = daa.preferredHorizontalDirectionRightOrLeft();
-		double resTrk = daa.horizontalDirectionResolution(preferredTrk);
-		double resTrk_sec = daa.horizontalDirectionResolution(!preferredTrk);
-		BandsRegion resTrkRegion = daa.regionOfHorizontalDirection(resTrk); 
-		BandsRegion resTrkRegion_sec = daa.regionOfHorizontalDirection(resTrk_sec); 
-		boolean isConflict = !Double.isNaN(resTrk);
-		RecoveryInformation recoveryInfo = daa.horizontalDirectionRecoveryInformation();
-		boolean isRecovery = recoveryInfo.recoveryBandsComputed();
-		boolean isSaturated = recoveryInfo.recoveryBandsSaturated();
-		String timeToRecovery = fmt(recoveryInfo.timeToRecovery());
-		String nFactor = f.Fmi(recoveryInfo.nFactor());
-		trkResolution += ", "+jsonValueRegion("preferred_resolution",resTrk,hdir_units,resTrkRegion);
-		trkResolution += ", "+jsonValueRegion("other_resolution",resTrk_sec,hdir_units,resTrkRegion_sec);
-		trkResolution += ", \"flags\": { \"conflict\": " + isConflict + ", \"recovery\": " + isRecovery + ", \"saturated\": " + isSaturated + ", \"preferred\": " + preferredTrk + " }"; 
-		trkResolution += ", \"recovery\": { \"time\": \"" + timeToRecovery + "\", \"nfactor\": \"" + nFactor;
-		trkResolution += "\", \"distance\": {"+jsonValUnits("horizontal",recoveryInfo.recoveryHorizontalDistance(),hrec_units); 
-		trkResolution += ", "+jsonValUnits("vertical",recoveryInfo.recoveryVerticalDistance(),vrec_units)+"}}"; 
-		trkResolution += " }";
-		jb.resTrkArray.add(trkResolution);
-
-		String gsResolution = "{ \"time\": " + time;
-		boolean preferredGs = daa.preferredHorizontalSpeedUpOrDown();
-		double resGs = daa.horizontalSpeedResolution(preferredGs);
-		double resGs_sec = daa.horizontalSpeedResolution(!preferredGs);
-		BandsRegion resGsRegion = daa.regionOfHorizontalSpeed(resGs); // we want to use internal units here, to minimize round-off errors
-		BandsRegion resGsRegion_sec = daa.regionOfHorizontalSpeed(resGs_sec); // we want to use internal units here, to minimize round-off errors
-		isConflict = !Double.isNaN(resGs);
-		recoveryInfo = daa.horizontalSpeedRecoveryInformation();
-		isRecovery = recoveryInfo.recoveryBandsComputed();
-		isSaturated = recoveryInfo.recoveryBandsSaturated();
-		timeToRecovery = fmt(recoveryInfo.timeToRecovery());
-		nFactor = f.Fmi(recoveryInfo.nFactor());
-		gsResolution += ", "+jsonValueRegion("preferred_resolution",resGs,hs_units,resGsRegion);
-		gsResolution += ", "+jsonValueRegion("other_resolution",resGs_sec,hs_units,resGsRegion_sec);
-		gsResolution += ", \"flags\": { \"conflict\": " + isConflict + ", \"recovery\": " + isRecovery + ", \"saturated\": " + isSaturated + ", \"preferred\": " + preferredGs + " }"; 
-		gsResolution += ", \"recovery\": { \"time\": \"" + timeToRecovery + "\", \"nfactor\": \"" + nFactor;
-		gsResolution += "\", \"distance\": {"+jsonValUnits("horizontal",recoveryInfo.recoveryHorizontalDistance(),hrec_units); 
-		gsResolution += ", "+jsonValUnits("vertical",recoveryInfo.recoveryVerticalDistance(),vrec_units)+"}}"; 
-		gsResolution += " }";
-		jb.resGsArray.add(gsResolution);
-
-		String vsResolution = "{ \"time\": " + time;
-		boolean preferredVs = daa.preferredVerticalSpeedUpOrDown();
-		double resVs = daa.verticalSpeedResolution(preferredVs);
-		double resVs_sec = daa.verticalSpeedResolution(!preferredVs);
-		BandsRegion resVsRegion = daa.regionOfVerticalSpeed(resVs); // we want to use internal units here, to minimize round-off errors
-		BandsRegion resVsRegion_sec = daa.regionOfVerticalSpeed(resVs_sec); // we want to use internal units here, to minimize round-off errors
-		isConflict = !Double.isNaN(resVs);
-		recoveryInfo = daa.verticalSpeedRecoveryInformation();
-		isRecovery = recoveryInfo.recoveryBandsComputed();
-		isSaturated = recoveryInfo.recoveryBandsSaturated();
-		timeToRecovery = fmt(recoveryInfo.timeToRecovery());
-		nFactor = f.Fmi(recoveryInfo.nFactor());
-		vsResolution += ", "+jsonValueRegion("preferred_resolution",resVs,vs_units,resVsRegion);
-		vsResolution += ", "+jsonValueRegion("other_resolution",resVs_sec,vs_units,resVsRegion_sec);
-		vsResolution += ", \"flags\": { \"conflict\": " + isConflict + ", \"recovery\": " + isRecovery + ", \"saturated\": " + isSaturated + ", \"preferred\": " + preferredVs + " }"; 
-		vsResolution += ", \"recovery\": { \"time\": \"" + timeToRecovery + "\", \"nfactor\": \"" + nFactor;
-		vsResolution += "\", \"distance\": {"+jsonValUnits("horizontal",recoveryInfo.recoveryHorizontalDistance(),hrec_units); 
-		vsResolution += ", "+jsonValUnits("vertical",recoveryInfo.recoveryVerticalDistance(),vrec_units)+"}}"; 
-		vsResolution += " }";
-		jb.resVsArray.add(vsResolution);
-
-		String altResolution = "{ \"time\": " + time;
-		boolean preferredAlt = daa.preferredAltitudeUpOrDown();
-		double resAlt = daa.altitudeResolution(preferredAlt);
-		double resAlt_sec = daa.altitudeResolution(!preferredAlt);
-		BandsRegion resAltRegion = daa.regionOfAltitude(resAlt); // we want to use internal units here, to minimize round-off errors
-		BandsRegion resAltRegion_sec = daa.regionOfAltitude(resAlt_sec); // we want to use internal units here, to minimize round-off errors
-		isConflict = !Double.isNaN(resAlt);
-		recoveryInfo = daa.altitudeRecoveryInformation();
-		isRecovery = recoveryInfo.recoveryBandsComputed();
-		isSaturated = recoveryInfo.recoveryBandsSaturated();
-		timeToRecovery = fmt(recoveryInfo.timeToRecovery());
-		nFactor = f.Fmi(recoveryInfo.nFactor());
-		altResolution += ", "+jsonValueRegion("preferred_resolution",resAlt,alt_units,resAltRegion);
-		altResolution += ", "+jsonValueRegion("other_resolution",resAlt_sec,alt_units,resAltRegion_sec);
-		altResolution += ", \"flags\": { \"conflict\": " + isConflict + ", \"recovery\": " + isRecovery + ", \"saturated\": " + isSaturated + ", \"preferred\": " + preferredAlt + " }"; 
-		altResolution += ", \"recovery\": { \"time\": \"" + timeToRecovery + "\", \"nfactor\": \"" + nFactor;
-		altResolution += "\", \"distance\": {"+jsonValUnits("horizontal",recoveryInfo.recoveryHorizontalDistance(),hrec_units); 
-		altResolution += ", "+jsonValUnits("vertical",recoveryInfo.recoveryVerticalDistance(),vrec_units)+"}}"; 
-		altResolution += " }";
-		jb.resAltArray.add(altResolution);
+		if (isSelected(HD_RES)) {
+			DAAStepSnapshot.Dimension res = step.horizontalDirection();
+			jsonResolution(out.reset(), time, res.preferred, res.resolution, res.resolution_sec, res.resolutionRegion, res.resolutionRegion_sec, 
+					res.recovery, hdir_units);
+			jb.resTrkArray.add(out.toString());
+		}
+
+		if (isSelected(HS_RES)) {
+			DAAStepSnapshot.Dimension res = step.horizontalSpeed();
+			jsonResolution(out.reset(), time, res.preferred, res.resolution, res.resolution_sec, res.resolutionRegion, res.resolutionRegion_sec, 
+					res.recovery, hs_units);
+			jb.resGsArray.add(out.toString());
+		}
+
+		if (isSelected(VS_RES)) {
+			DAAStepSnapshot.Dimension res = step.verticalSpeed();
+			jsonResolution(out.reset(), time, res.preferred, res.resolution, res.resolution_sec, res.resolutionRegion, res.resolutionRegion_sec, 
+					res.recovery, vs_units);
+			jb.resVsArray.add(out.toString());
+		}
+
+		if (isSelected(ALT_RES)) {
+			DAAStepSnapshot.Dimension res = step.altitude();
+			jsonResolution(out.reset(), time, res.preferred, res.resolution, res.resolution_sec, res.resolutionRegion, res.resolutionRegion_sec, 
+					res.recovery, alt_units);
+			jb.resAltArray.add(out.toString());
+		}
 
 		// Contours and hazard zones are lists of polygons, and polygons are list of points.
 		Position po = daa.getAircraftStateAt(0).getPosition();
-		String contours =  "{ \"time\": " + time;
-		contours += ",  \"data\": [ ";
-		for (int ac = 1; ac <= daa.lastTrafficIndex(); ac++) {
-			String ac_name = daa.getAircraftStateAt(ac).getId();
-			List<List<Position>> polygons = new ArrayList<List<Position>>();
-			if (PRINT_POLYGONS) { daa.horizontalContours(polygons, ac); }
-			contours += "{ \"ac\": \"" + ac_name + "\", ";
-			contours +=	"  \"polygons\": " + printPolygons(polygons, po) + "}";
-			if (ac < daa.lastTrafficIndex()) {
-				contours += ", ";
+		if (isSelected(CONTOURS)) {
+			out.reset().raw("{ \"time\": ").raw(time);
+			out.raw(",  \"data\": [ ");
+			for (int ac = 1; ac <= daa.lastTrafficIndex(); ac++) {
+				String ac_name = daa.getAircraftStateAt(ac).getId();
+				List<List<Position>> polygons = contoursOf(ac, po);
+				profileStart(DAAProfiler.SERIALIZATION);
+				out.raw("{ \"ac\": ").quoted(ac_name).raw(", ");
+				out.raw("  \"polygons\": "); printPolygons(out, polygons, po); out.raw('}');
+				profileStop(DAAProfiler.SERIALIZATION);
+				if (ac < daa.lastTrafficIndex()) {
+					out.raw(", ");
+				}
 			}
+			out.raw(" ]}");
+			jb.contoursArray.add(out.toString());
 		}
-		contours += " ]}";
-		jb.contoursArray.add(contours);
-
-		String hazardZones =  "{ \"time\": " + time;
-		hazardZones += ",  \"data\": [ ";
-		for (int ac = 1; ac <= daa.lastTrafficIndex(); ac++) {
-			String ac_name = daa.getAircraftStateAt(ac).getId();
 
-			List<Position> ply_violation = new ArrayList<Position>();
-			List<Position> ply_conflict = new ArrayList<Position>();
-			if (PRINT_POLYGONS) {
-				daa.horizontalHazardZone(ply_violation, ac, true, false);
-				daa.horizontalHazardZone(ply_conflict, ac, false, false);
+		if (isSelected(HAZARD_ZONES)) {
+			out.reset().raw("{ \"time\": ").raw(time);
+			out.raw(",  \"data\": [ ");
+			for (int ac = 1; ac <= daa.lastTrafficIndex(); ac++) {
+				String ac_name = daa.getAircraftStateAt(ac).getId();
+				List<List<Position>> polygons = hazardZonesOf(ac, po);
+				profileStart(DAAProfiler.SERIALIZATION);
+				out.raw("{ \"ac\": ").quoted(ac_name).raw(',');
+				out.raw("  \"polygons\": "); printPolygons(out, polygons, po); out.raw('}');
+				profileStop(DAAProfiler.SERIALIZATION);
+				if (ac < daa.lastTrafficIndex()) {
+					out.raw(", ");
+				}
 			}
-			List<List<Position>> polygons = new ArrayList<List<Position>>();
-			polygons.add(ply_violation);
-			polygons.add(ply_conflict);
+			out.raw(" ]}");
+			jb.hazardZonesArray.add(out.toString());
+		}
+
+		if (PRINT_METRICS && isSelected(MONITORS)) {
+			// monitors
+			jb.monitors.check(step);
+			jb.monitorM1Array.add(out.reset().raw("{ \"time\": ").raw(time).raw(", ").raw(jb.monitors.m1()).raw(" }").toString());
+			jb.monitorM2Array.add(out.reset().raw("{ \"time\": ").raw(time).raw(", ").raw(jb.monitors.m2()).raw(" }").toString());
+			jb.monitorM3Array.add(out.reset().raw("{ \"time\": ").raw(time).raw(", ").raw(jb.monitors.m3()).raw(" }").toString());
+			jb.monitorM4Array.add(out.reset().raw("{ \"time\": ").raw(time).raw(", ").raw(jb.monitors.m4()).raw(" }").toString());
+		}
+
+		// parallel batch mode, keep the records before they are delta-encoded
+		if (overlap != null) { overlap.add(stepRecords(jb)); }
+
+		if (DELTA) {
+			profileStart(DAAProfiler.SERIALIZATION);
+			deltaEncode(jb);
+			profileStop(DAAProfiler.SERIALIZATION);
+		}
+		// config
+		out.reset().raw("\"hs\": { \"min\": ").number(daa.getMinHorizontalSpeed(hs_units), precision)
+			.raw(", \"max\": ").number(daa.getMaxHorizontalSpeed(hs_units), precision)
+			.raw(", \"units\": \"").raw(hs_units).raw("\" },\n")
+			.raw("\"vs\": { \"min\": ").number(daa.getMinVerticalSpeed(vs_units), precision)
+			.raw(", \"max\": ").number(daa.getMaxVerticalSpeed(vs_units), precision)
+			.raw(", \"units\": \"").raw(vs_units).raw("\" },\n")
+			.raw("\"alt\": { \"min\": ").number(daa.getMinAltitude(alt_units), precision)
+			.raw(", \"max\": ").number(daa.getMaxAltitude(alt_units), precision)
+			.raw(", \"units\": \"").raw(alt_units).raw("\" },\n")
+			.raw("\"MostSevereAlertLevel\": \"").raw(f.Fmi(daa.mostSevereAlertLevel(1))).raw("\"");
+		return out.toString();
+	}
+
+	/**
+	 * Utility function, returns the records just computed by jsonBands, one per line
+	 */
+	protected static String stepRecords (JsonBands jb) {
+		StringBuilder sb = new StringBuilder();
+		for (List<String> list : jb.arrays()) {
+			if (!list.isEmpty()) { sb.append(list.get(list.size() - 1)).append('\n'); }
+		}
+		return sb.toString();
+	}
 
-			hazardZones += "{ \"ac\": \"" + ac_name + "\",";
-			hazardZones +=	"  \"polygons\": " + printPolygons(polygons, po) + "}";
-			if (ac < daa.lastTrafficIndex()) {
-				hazardZones += ", ";
+	/**
+	 * Utility function, replaces the records just computed by jsonBands with the delta-encoded records
+	 */
+	protected void deltaEncode (JsonBands jb) {
+		if (delta == null) { delta = new DAADeltaEncoder(arrayChunks.length); }
+		List<List<String>> arrays = jb.arrays();
+		for (int i = 0; i < arrays.size(); i++) {
+			List<String> list = arrays.get(i);
+			if (!list.isEmpty()) {
+				int last = list.size() - 1;
+				list.set(last, delta.encode(i, list.get(last)));
 			}
 		}
-		hazardZones += " ]}";
-		jb.hazardZonesArray.add(hazardZones);
+	}
 
-		if (PRINT_METRICS) {
-			// monitors
-			jb.monitors.check(daa);
-			String monitorM1 = "{ \"time\": " + time
-					+ ", " + jb.monitors.m1()
-					+ " }";
-			jb.monitorM1Array.add(monitorM1);
+	/**
+	 * Utility function, writes the results of the current time step to the binary output file, see DAABinaryWriter for the format
+	 */
+	public void writeBinaryStep (DAABinaryWriter out) {
+		try {
+			DAAStepSnapshot step = stepSnapshot(DAAStepSnapshot.ALL | (PRINT_METRICS ? DAAStepSnapshot.METRICS : 0));
+			out.beginStep(daa.getCurrentTime());
+			writeBinaryAircraft(out, daa.getOwnshipState());
+			for (int dim = 0; dim < DAAStepSnapshot.N_DIMENSIONS; dim++) {
+				out.putByte(step.dimension(dim).currentRegion.ordinal());
+			}
+			Velocity wv = daa.getWindVelocityFrom();
+			out.putDouble(wv.compassAngle()).putDouble(wv.gs());
+
+			// traffic: state, alerts, metrics
+			out.putInt(daa.lastTrafficIndex());
+			for (int ac = 1; ac <= daa.lastTrafficIndex(); ac++) {
+				writeBinaryAircraft(out, daa.getAircraftStateAt(ac));
+				int alerter_idx = step.alerterIndex(ac);
+				out.putInt(step.alertLevel(ac)).putByte(step.alertRegion(ac).ordinal()).putInt(alerter_idx);
+				// metrics are computed once per step by the snapshot, and shared with the metrics section of the json output
+				for (int m = 0; m < DAAStepSnapshot.N_METRICS; m++) {
+					out.putDouble(PRINT_METRICS ? step.metrics(ac)[m] : Double.NaN);
+				}
+			}
 
-			String monitorM2 = "{ \"time\": " + time
-					+ ", " + jb.monitors.m2()
-					+ " }";
-			jb.monitorM2Array.add(monitorM2);
+			// bands, in the order horizontal direction, horizontal speed, vertical speed, altitude
+			for (int dim = 0; dim < DAAStepSnapshot.N_DIMENSIONS; dim++) {
+				DAAStepSnapshot.Dimension bands = step.dimension(dim);
+				out.putInt(bands.bandsLength());
+				for (int i = 0; i < bands.bandsLength(); i++) {
+					Interval ii = bands.intervalAt(i);
+					out.putDouble(ii.low).putDouble(ii.up).putByte(bands.regionAt(i).ordinal());
+				}
+			}
 
-			String monitorM3 = "{ \"time\": " + time
-					+ ", " + jb.monitors.m3(daa)
-					+ " }";
-			jb.monitorM3Array.add(monitorM3);
+			// resolutions
+			for (int dim = 0; dim < DAAStepSnapshot.N_DIMENSIONS; dim++) {
+				DAAStepSnapshot.Dimension res = step.dimension(dim);
+				writeBinaryResolution(out, res.preferred, res.resolution, res.resolution_sec, res.resolutionRegion, 
+					res.resolutionRegion_sec, res.recovery);
+			}
 
-			String monitorM4 = "{ \"time\": " + time
-					+ ", " + jb.monitors.m4(daa)
-					+ " }";
-			jb.monitorM4Array.add(monitorM4);
+			// contours and hazard zones
+			Position po = daa.getAircraftStateAt(0).getPosition();
+			for (int ac = 1; ac <= daa.lastTrafficIndex(); ac++) {
+				writeBinaryPolygons(out, contoursOf(ac, po), po);
+			}
+			for (int ac = 1; ac <= daa.lastTrafficIndex(); ac++) {
+				writeBinaryPolygons(out, hazardZonesOf(ac, po), po);
+			}
+			out.endStep();
+		} catch (IOException e) {
+			System.err.println("** Error: " + e);
+		}
+	}
+	protected void writeBinaryAircraft (DAABinaryWriter out, TrafficState ac) throws IOException {
+		Position pos = ac.getPosition();
+		Velocity gv = ac.getGroundVelocity();
+		out.putString(ac.getId()).putBoolean(pos.isLatLon());
+		if (pos.isLatLon()) {
+			out.putDouble(pos.lat()).putDouble(pos.lon()).putDouble(pos.alt());
+		} else {
+			out.putDouble(pos.x()).putDouble(pos.y()).putDouble(pos.z());
+		}
+		out.putDouble(gv.x).putDouble(gv.y).putDouble(gv.z);
+		out.putDouble(gv.compassAngle()).putDouble(ac.horizontalDirection());
+		out.putDouble(gv.gs()).putDouble(ac.getAirVelocity().gs()).putDouble(ac.verticalSpeed());
+	}
+	protected void writeBinaryResolution (DAABinaryWriter out, boolean preferred, double res, double res_sec, 
+			BandsRegion region, BandsRegion region_sec, RecoveryInformation recoveryInfo) throws IOException {
+		int flags = (preferred ? DAABinaryWriter.PREFERRED : 0)
+			| (!Double.isNaN(res) ? DAABinaryWriter.CONFLICT : 0)
+			| (recoveryInfo.recoveryBandsComputed() ? DAABinaryWriter.RECOVERY : 0)
+			| (recoveryInfo.recoveryBandsSaturated() ? DAABinaryWriter.SATURATED : 0);
+		out.putByte(flags).putDouble(res).putDouble(res_sec).putByte(region.ordinal()).putByte(region_sec.ordinal());
+		out.putDouble(recoveryInfo.timeToRecovery()).putInt(recoveryInfo.nFactor());
+		out.putDouble(recoveryInfo.recoveryHorizontalDistance()).putDouble(recoveryInfo.recoveryVerticalDistance());
+	}
+	protected void writeBinaryPolygons (DAABinaryWriter out, List<List<Position>> polygons, Position po) throws IOException {
+		out.putInt(polygons.size());
+		for (List<Position> ply : polygons) {
+			out.putInt(ply.size());
+			for (LatLonAlt lla : projection.inverse(ply, po)) {
+				out.putDouble(llaFlag ? lla.lat() + Units.from("deg", latOffset) : lla.lat());
+				out.putDouble(llaFlag ? lla.lon() + Units.from("deg", lonOffset) : lla.lon());
+				out.putDouble(lla.alt());
+			}
 		}
+	}
 
-		// config
-		String stats = "\"hs\": { \"min\": " + fmt(daa.getMinHorizontalSpeed(hs_units)) 
-		+ ", \"max\": " + fmt(daa.getMaxHorizontalSpeed(hs_units)) 
-		+ ", \"units\": \"" + hs_units + "\" },\n"
-		+ "\"vs\": { \"min\": " + fmt(daa.getMinVerticalSpeed(vs_units))
-		+ ", \"max\": " + fmt(daa.getMaxVerticalSpeed(vs_units))
-		+ ", \"units\": \"" + vs_units + "\" },\n"
-		+ "\"alt\": { \"min\": " + fmt(daa.getMinAltitude(alt_units))
-		+ ", \"max\": " + fmt(daa.getMaxAltitude(alt_units))
-		+ ", \"units\": \"" + alt_units + "\" },\n"
-		+ "\"MostSevereAlertLevel\": \"" + f.Fmi(daa.mostSevereAlertLevel(1)) + "\"";
-		return stats;
-	}
-
-	public void walkFile () {
-		// sanity checks
+	/**
+	 * Utility function, checks that the input file is specified and can be read, exits otherwise
+	 */
+	protected boolean checkInputFile () {
 		if (ifname == "" || ifname == null) {
 			System.err.println("** Error: Please specify a daa file");
-			System.exit(1);
+			return false;
 		}
 		if (!inputFileReadable()) {
 			System.err.println("** Error: File " + getInputFileName() + " cannot be read");
-			System.exit(1);
+			return false;
 		}
+		return true;
+	}
 
-		// create output stream
-		createPrintWriter();
+	/**
+	 * Utility function, reads the next time step of the scenario in daa and applies alerter and wind settings
+	 */
+	protected void readStep (StateSequence steps) {
+		// read a line in the daa file
+		steps.readState(daa);
+		// set alerter, if any is specified
+		if (daaAlerter != null) { loadSelectedAlerter(); }
+		// set wind, if a constant wind is specified
+		if (windVelocity != null) { loadWindVelocity(); }
+	}
+
+	/**
+	 * Processes the input file and writes the output files.
+	 * Returns false if the input file cannot be read or the output files cannot be created.
+	 */
+	public boolean walkFile () {
+		// sanity checks
+		if (!checkInputFile()) { return false; }
+		if (restoreFromCache()) { return true; }
 
 		// create DaidalusFileWalker
 		DaidalusFileWalker walker = new DaidalusFileWalker(ifname);
 		if (ownshipName != null) { walker.setOwnship(ownshipName); }
 
-		// create json bands object
-		JsonBands jb = new JsonBands();
-		// create jsonStats string with the results
-		String jsonStats = "";
+		if (!walk(DAAScenario.sequence(walker))) { return false; }
+		storeInCache();
+		return true;
+	}
 
-		/* Processing the input file time step by time step and writing output file */
-		while (!walker.atEnd()) {
-			// read a line in the daa file
-			walker.readState(daa);
-			// set alerter, if any is specified
-			if (daaAlerter != null) { loadSelectedAlerter(); }
-			// set wind, if a constant wind is specified
-			if (windVelocity != null) { loadWindVelocity(); }
-			// start profiler
-			if (PROFILER_ENABLED) {
-				if (profiler == null) { profiler = new DAAProfiler("Profiling DAIDALUS v" + VERSION + " with " + scenario); }
-				profiler.start();
-			}
-			// compute the bands
-			jsonStats = jsonBands(jb);
-			// stop profiler
-			if (PROFILER_ENABLED) {
-				profiler.stop();
-			}
-		}
+	/**
+	 * Utility function, returns the settings that affect the output files, used together with the content of the input file as cache key
+	 */
+	protected String cacheSettings () {
+		return "version=" + VERSION
+			+ "\nscenario=" + scenario
+			+ "\nalerter=" + daaAlerter
+			+ "\nwind=" + wind
+			+ "\nprecision=" + precision
+			+ "\nownship=" + ownshipName
+			+ "\nsections=" + sections
+			+ "\nmetrics=" + PRINT_METRICS
+			+ "\npolygons=" + PRINT_POLYGONS
+			+ "\nlla=" + llaFlag
+			+ "\ndelta=" + DELTA
+			+ "\nbinary=" + BINARY
+			+ "\nsimplify=" + simplifyTolerance
+			+ "\nalertsOnly=" + ALERTS_ONLY
+			+ "\nparameters=" + daa.getParameterData().toString();
+	}
 
-		printWriter.println("{\n" + jsonHeader() + "\n" + jsonStats + ",");
-		printWriterInfo.println("{\n" + jsonHeader() + "\n" + jsonStats + "\n}");
+	/**
+	 * Utility function, returns the suffixes of the output files written by walk
+	 */
+	protected List<String> getOutputSuffixes () {
+		List<String> suffixes = new ArrayList<String>();
+		suffixes.add("");
+		if (ALERTS_ONLY) { return suffixes; }
+		suffixes.add(".files");
+		for (int i = 0; i < chunks.length; i++) {
+			if (isSelectedChunk(chunks[i])) { suffixes.add(chunks[i]); }
+		}
+		if (BINARY) { suffixes.add(".bin"); }
+		// index files come last, so they are never older than their chunk files when restored
+		for (int i = 0; i < arrayChunks.length; i++) {
+			if (isSelected(i)) { suffixes.add(arrayChunks[i][0] + DAAChunkIndex.EXT); }
+		}
+		return suffixes;
+	}
 
-		printArray(printWriter, jb.ownshipArray, "Ownship");
+	/**
+	 * Restores the output files from the cache, if the cache is enabled and contains the outputs for the current input and settings.
+	 * Returns true on a cache hit.
+	 */
+	protected boolean restoreFromCache () {
+		if (cache == null) { return false; }
+		try {
+			cacheKey = DAAResultCache.key(ifname, cacheSettings());
+		} catch (IOException e) {
+			System.err.println("** Error: " + e);
+			cacheKey = null;
+			return false;
+		}
+		Properties meta = cache.restore(cacheKey, ofname);
+		if (meta == null) { return false; }
+		nSteps = Integer.parseInt(meta.getProperty("steps", "0"));
+		System.out.println("Output files " + ofname + " restored from cache (key: " + cacheKey + ")");
+		return true;
+	}
+
+	/**
+	 * Stores the output files in the cache, if the cache is enabled. The cache key is computed by restoreFromCache.
+	 */
+	protected void storeInCache () {
+		if (cache == null || cacheKey == null) { return; }
+		Properties meta = new Properties();
+		meta.setProperty("steps", Integer.toString(nSteps));
+		meta.setProperty("input", ifname);
+		if (loadedConfig != null) { meta.setProperty("config", loadedConfig); }
+		cache.store(cacheKey, ofname, getOutputSuffixes(), meta);
+	}
+
+	/**
+	 * Processes the given sequence of time steps and writes the output files.
+	 * Returns false if the output files cannot be created.
+	 */
+	public boolean walk (StateSequence steps) {
+		if (ALERTS_ONLY) {
+			return walkAlerts(steps);
+		}
+		// create output stream
+		if (!createPrintWriter()) {
+			closePrintWriter();
+			return false;
+		}
+
+		// create json bands object
+		JsonBands jb = new JsonBands();
+		// create jsonStats string with the results
+		String jsonStats = "";
+		// create the temporary files for the monitor results
+		if (STREAMING && !createMonitorResultsWriter()) {
+			closePrintWriter();
+			return false;
+		}
+		if (delta != null) { delta.reset(); }
+		if (simplifier != null) { simplifier.reset(); }
+		nSteps = 0;
+
+		/* Processing the input file time step by time step and writing output file */
+		while (!steps.atEnd()) {
+			// start profiler
+			if (PROFILER_ENABLED) {
+				if (profiler == null) { profiler = new DAAProfiler("Profiling DAIDALUS v" + VERSION + " with " + scenario); }
+				profiler.start();
+			}
+			// read a line in the daa file, set alerter and wind
+			profileStart(DAAProfiler.READ);
+			readStep(steps);
+			profileStop(DAAProfiler.READ);
+			// compute the bands
+			profileStart(DAAProfiler.BANDS);
+			jsonStats = jsonBands(jb);
+			profileStop(DAAProfiler.BANDS);
+			// write the results of this time step
+			profileStart(DAAProfiler.IO);
+			if (STREAMING) { printChunks(jb); }
+			if (binaryWriter != null) { writeBinaryStep(binaryWriter); }
+			profileStop(DAAProfiler.IO);
+			// stop profiler
+			if (PROFILER_ENABLED) {
+				profiler.stop();
+			}
+			nSteps++;
+		}
+
+		if (STREAMING) {
+			printStreamedOutput(jsonStats, jb.monitors);
+			closePrintWriter();
+			printProfilerData();
+			printSimplifierStats();
+			return true;
+		}
+
+		printWriter.println("{\n" + jsonHeader() + "\n" + jsonStats + ",");
+		printWriterInfo.println("{\n" + jsonHeader() + "\n" + jsonStats + "\n}");
+
+		printArray(printWriter, jb.ownshipArray, "Ownship");
 		printArray(printWriterOwnship, jb.ownshipArray);
 		printWriter.println(",");
 
@@ -1001,24 +1513,882 @@ public class DAABandsV2 {
 		printWriter.println(",");
 
 		printWriter.println("\"Monitors\": ");
-		printWriterMonitors.println("{ \"Monitors\": ");
 		List<List<String>> info = new ArrayList<List<String>>();
 		info.add(jb.monitorM1Array);
 		info.add(jb.monitorM2Array);
 		info.add(jb.monitorM3Array);
 		info.add(jb.monitorM4Array);
 		printMonitors(printWriter, jb.monitors, info);
-		printMonitors(printWriterMonitors, jb.monitors, info);
-		printWriterMonitors.println("}");
+		if (printWriterMonitors != null) {
+			printWriterMonitors.println("{ \"Monitors\": ");
+			printMonitors(printWriterMonitors, jb.monitors, info);
+			printWriterMonitors.println("}");
+		}
 
 		printWriter.println("}");
 		closePrintWriter();
+		printProfilerData();
+		printSimplifierStats();
+		return true;
+	}
 
+	/**
+	 * Alerts-only mode: processes the given sequence of time steps evaluating only the alerting logic, 
+	 * and writes a table with one row per time step and traffic aircraft (time, ac, alerter_idx, alert_level, max_alert_level).
+	 * Bands, resolutions, polygons and metrics are not computed, which makes this mode suitable for 
+	 * alerting statistics over large sets of encounters.
+	 * Returns false if the output file cannot be created.
+	 */
+	public boolean walkAlerts (StateSequence steps) {
+		nSteps = 0;
+		int alerts = 0; // number of rows with a non-zero alert level
+		System.out.println("Creating output file " + ofname);
+		try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(ofname)))) {
+			out.println("# DAIDALUS v" + VERSION + ", scenario: " + scenario + ", configuration: " + getConfig());
+			out.println("time, ac, alerter_idx, alert_level, max_alert_level");
+			StringBuilder row = new StringBuilder();
+			while (!steps.atEnd()) {
+				if (PROFILER_ENABLED) {
+					if (profiler == null) { profiler = new DAAProfiler("Profiling DAIDALUS v" + VERSION + " with " + scenario + " (alerts only)"); }
+					profiler.start();
+				}
+				profileStart(DAAProfiler.READ);
+				readStep(steps);
+				profileStop(DAAProfiler.READ);
+				profileStart(DAAProfiler.BANDS);
+				String time = fmt(daa.getCurrentTime());
+				row.setLength(0);
+				for (int ac = 1; ac <= daa.lastTrafficIndex(); ac++) {
+					int alerter_idx = daa.alerterIndexBasedOnAlertingLogic(ac);
+					int alert_level = daa.alertLevel(ac);
+					if (alert_level > 0) { alerts++; }
+					row.append(time).append(", ").append(daa.getAircraftStateAt(ac).getId())
+						.append(", ").append(alerter_idx).append(", ").append(alert_level)
+						.append(", ").append(daa.mostSevereAlertLevel(alerter_idx)).append('\n');
+				}
+				profileStop(DAAProfiler.BANDS);
+				profileStart(DAAProfiler.IO);
+				out.print(row);
+				profileStop(DAAProfiler.IO);
+				if (PROFILER_ENABLED) { profiler.stop(); }
+				nSteps++;
+			}
+		} catch (IOException e) {
+			System.err.println("** Error: " + e);
+			return false;
+		}
+		System.out.println("Alerts-only mode: " + nSteps + " time steps, " + alerts + " alerts");
+		printProfilerData();
+		return true;
+	}
+
+	/**
+	 * Parallel batch mode: the scenario timeline is split into segments processed by a pool of workers.
+	 * Each worker has its own Daidalus object and starts 'warmup' seconds before its segment, 
+	 * the results computed during the warm-up window are discarded. 
+	 * The results of the warm-up window are compared with the results of the previous segment for the same time steps, 
+	 * segments whose results differ are processed again with a longer warm-up window, until the results are the same.
+	 * The segments are then merged in time order into the same chunk files and combined output file produced by walkFile.
+	 * Returns false if the input file cannot be read, or any of the segments could not be processed.
+	 */
+	public boolean walkFileParallel () {
+		// sanity checks
+		if (!checkInputFile()) { return false; }
+		if (restoreFromCache()) { return true; }
+
+		double[] times = readTimes();
+		// alerts-only mode is fast enough to be processed sequentially, use corpus mode to process many scenarios in parallel
+		int nSegments = ALERTS_ONLY ? 1 : Math.min(threads, times.length);
+		if (nSegments <= 1) {
+			DaidalusFileWalker walker = new DaidalusFileWalker(ifname);
+			if (ownshipName != null) { walker.setOwnship(ownshipName); }
+			if (!walk(DAAScenario.sequence(walker))) { return false; }
+			storeInCache();
+			return true;
+		}
+		double minWarmup = requiredWarmup(maxTimeStep(times));
+		if (warmup < minWarmup) {
+			System.err.println("** Warning: warm-up window (" + warmup + "s) is shorter than the stateful logic of the configuration, using " + minWarmup + "s");
+			warmup = minWarmup;
+		}
+		System.out.println("Processing " + times.length + " time steps in " + nSegments + " segments (warm-up: " + warmup + "s)");
+
+		// segment k is [firsts[k], firsts[k + 1]), its warm-up window starts at warmupFirsts[k]
+		// the last steps of segment k, from tails[k], are compared with the warm-up window of segment k + 1
+		int[] firsts = new int[nSegments + 1];
+		int[] warmupFirsts = new int[nSegments];
+		int[] tails = new int[nSegments];
+		for (int k = 0; k <= nSegments; k++) {
+			firsts[k] = (int) ((long) k * times.length / nSegments);
+		}
+		for (int k = 0; k < nSegments; k++) {
+			warmupFirsts[k] = warmupStart(times, firsts[k], warmup);
+		}
+		for (int k = 0; k < nSegments; k++) {
+			tails[k] = k + 1 < nSegments ? Math.max(firsts[k], warmupFirsts[k + 1]) : firsts[k + 1];
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(nSegments);
+		List<Future<String>> results = new ArrayList<Future<String>>();
+		DAABandsV2[] workers = new DAABandsV2[nSegments];
+		JsonBands[] segments = new JsonBands[nSegments];
+		for (int k = 0; k < nSegments; k++) {
+			final DAABandsV2 worker = createWorker(ofname + ".seg" + k);
+			final JsonBands jb = new JsonBands();
+			final int warmupFirst = warmupFirsts[k], first = firsts[k], last = firsts[k + 1], tail = tails[k];
+			workers[k] = worker;
+			segments[k] = jb;
+			results.add(pool.submit(() -> worker.walkSegment(warmupFirst, first, last, tail, jb)));
+		}
+		pool.shutdown();
+
+		// wait for the workers, results are collected in time order
+		String jsonStats = "";
+		try {
+			for (int k = 0; k < nSegments; k++) {
+				jsonStats = results.get(k).get();
+			}
+		} catch (Exception e) {
+			System.err.println("** Error: " + e);
+			pool.shutdownNow();
+			return false;
+		}
+
+		// segments that did not reach the state of the previous segment are processed again, doubling the warm-up window each time
+		// this terminates, at the latest when the warm-up window starts at the beginning of the scenario
+		for (int k = 1; k < nSegments; k++) {
+			int warmupFirst = warmupFirsts[k];
+			while (warmupFirst > 0 && !converged(workers[k - 1].overlap, workers[k].warmupRecords)) {
+				double window = 2 * (times[firsts[k]] - times[warmupFirst]);
+				warmupFirst = Math.min(warmupFirst - 1, warmupStart(times, firsts[k], window));
+				System.out.println("Segment " + k + " did not converge, processing it again with a warm-up window of " 
+					+ (times[firsts[k]] - times[warmupFirst]) + "s");
+				workers[k] = createWorker(ofname + ".seg" + k);
+				segments[k] = new JsonBands();
+				try {
+					String stats = workers[k].walkSegment(warmupFirst, firsts[k], firsts[k + 1], tails[k], segments[k]);
+					if (k == nSegments - 1) { jsonStats = stats; }
+				} catch (IOException e) {
+					System.err.println("** Error: " + e);
+					return false;
+				}
+			}
+		}
+
+		// merge the segments
+		if (!createPrintWriter() || !createMonitorResultsWriter()) {
+			closePrintWriter();
+			return false;
+		}
+		DAAMonitorsV2 monitors = new DAAMonitorsV2();
+		for (int k = 0; k < nSegments; k++) {
+			monitors.merge(segments[k].monitors);
+			appendSegment(workers[k].getOutputFileName());
+		}
+		// the header is computed using the settings of the last worker, which are the same for all workers
+		daa = workers[nSegments - 1].daa;
+		printStreamedOutput(jsonStats, monitors);
+		closePrintWriter();
+		nSteps = times.length;
+		storeInCache();
 		if (PROFILER_ENABLED) {
+			profiler = new DAAProfiler("Profiling DAIDALUS v" + VERSION + " with " + scenario + " (" + nSegments + " segments)");
+			for (int k = 0; k < nSegments; k++) {
+				if (workers[k].profiler != null) { profiler.merge(workers[k].profiler); }
+			}
+			printProfilerData();
+		}
+		if (simplifyTolerance > 0) {
+			simplifier = new DAAPolygonSimplifier(simplifyTolerance);
+			for (int k = 0; k < nSegments; k++) {
+				if (workers[k].simplifier != null) { simplifier.add(workers[k].simplifier); }
+			}
+			printSimplifierStats();
+		}
+		return true;
+	}
+
+	/**
+	 * Utility function, returns the shortest warm-up window for which the segments are expected to reproduce the results of a sequential run.
+	 * The window covers the stateful logic of DAIDALUS: hysteresis, persistence of preferred resolutions, recovery stability, 
+	 * alerting and early alerting times, plus the last N time steps used by the M of N alerting logic.
+	 */
+	protected double requiredWarmup (double maxTimeStep) {
+		double req = Math.max(Math.max(daa.getHysteresisTime(), daa.getPersistenceTime()), daa.getRecoveryStabilityTime());
+		for (int a = 1; a <= daa.numberOfAlerters(); a++) {
+			Alerter alerter = daa.getAlerterAt(a);
+			for (int level = 1; level <= alerter.mostSevereAlertLevel(); level++) {
+				req = Math.max(req, Math.max(daa.getAlertingTime(a, level), daa.getEarlyAlertingTime(a, level)));
+			}
+		}
+		return req + Math.max(1, daa.getAlertingParameterN()) * maxTimeStep;
+	}
+
+	/**
+	 * Utility function, returns the longest interval between consecutive time steps
+	 */
+	protected static double maxTimeStep (double[] times) {
+		double res = 0;
+		for (int i = 1; i < times.length; i++) {
+			res = Math.max(res, times[i] - times[i - 1]);
+		}
+		return res;
+	}
+
+	/**
+	 * Utility function, returns the first time step of a warm-up window of 'window' seconds that ends at time step 'first'
+	 */
+	protected static int warmupStart (double[] times, int first, double window) {
+		int start = first;
+		while (start > 0 && times[start - 1] >= times[first] - window) { start--; }
+		return start;
+	}
+
+	/**
+	 * Utility function, returns true if the last records of a segment are the same as the last records of the warm-up window of the next segment
+	 */
+	protected static boolean converged (List<String> tail, List<String> warmupRecords) {
+		if (tail == null || warmupRecords == null || tail.size() > warmupRecords.size()) { return false; }
+		int offset = warmupRecords.size() - tail.size();
+		for (int i = 0; i < tail.size(); i++) {
+			if (!tail.get(i).equals(warmupRecords.get(offset + i))) { return false; }
+		}
+		return true;
+	}
+
+	/**
+	 * Corpus mode: processes all scenarios in the corpus on a pool of workers, and prints a summary table.
+	 * Each scenario is processed with walkFile by a dedicated worker, using the settings of this object.
+	 * Returns the number of scenarios that could not be processed, 1 if the corpus does not contain any scenario.
+	 */
+	public int walkCorpus () {
+		List<String> files = listScenarios(corpus);
+		if (files.isEmpty()) {
+			System.err.println("** Error: No .daa file found in " + corpus);
+			return 1;
+		}
+		String folder = outputFolder != null ? outputFolder : Paths.get("").toAbsolutePath().toString();
+		new File(folder).mkdirs();
+		int poolSize = Math.max(1, Math.min(threads, files.size()));
+		System.out.println("Processing " + files.size() + " scenarios with " + poolSize + " workers");
+
+		ExecutorService pool = Executors.newFixedThreadPool(poolSize);
+		List<Future<CorpusResult>> results = new ArrayList<Future<CorpusResult>>();
+		long start = System.nanoTime();
+		for (String fname : files) {
+			results.add(pool.submit(() -> walkScenario(fname, folder)));
+		}
+		pool.shutdown();
+
+		List<CorpusResult> summary = new ArrayList<CorpusResult>();
+		for (int i = 0; i < results.size(); i++) {
+			try {
+				summary.add(results.get(i).get());
+			} catch (Exception e) {
+				CorpusResult res = new CorpusResult(files.get(i));
+				res.error = e.toString();
+				summary.add(res);
+			}
+		}
+		long total = System.nanoTime() - start;
+		System.out.println(printCorpusSummary(summary, total));
+
+		int failures = 0;
+		for (CorpusResult res : summary) {
+			if (res.error != null) { failures++; }
+		}
+		return failures;
+	}
+
+	/**
+	 * Utility function, processes a single scenario of the corpus with a dedicated worker
+	 */
+	protected CorpusResult walkScenario (String fname, String folder) {
+		CorpusResult res = new CorpusResult(fname);
+		String name = removeExtension(getFileName(fname));
+		DAABandsV2 worker = createWorker(Paths.get(folder, name + getOutputExtension()).toString());
+		worker.ifname = fname;
+		worker.scenario = name;
+		if (!worker.inputFileReadable()) {
+			res.error = "File cannot be read";
+			return res;
+		}
+		long start = System.nanoTime();
+		try {
+			if (!worker.walkFile()) { res.error = "Output files cannot be created"; }
+		} catch (Exception e) {
+			res.error = e.toString();
+		}
+		res.time = System.nanoTime() - start;
+		res.steps = worker.nSteps;
+		return res;
+	}
+
+	/**
+	 * Sweep mode: parses the scenario once, and evaluates it against each configuration in the sweep, on a pool of workers.
+	 * The outputs obtained with each configuration are written to a separate folder, named after the configuration.
+	 * Returns the number of configurations that could not be evaluated, 1 if the sweep does not contain any configuration.
+	 */
+	public int walkSweep () {
+		// sanity checks
+		if (!checkInputFile()) { return 1; }
+
+		List<String> configs = listConfigs(sweep);
+		if (configs.isEmpty()) {
+			System.err.println("** Error: No .conf file found in " + sweep);
+			return 1;
+		}
+		String folder = outputFolder != null ? outputFolder : Paths.get("").toAbsolutePath().toString();
+		long start = System.nanoTime();
+		DAAScenario sc = DAAScenario.read(ifname, ownshipName);
+		System.out.println("Scenario " + scenario + " parsed in " + f.FmPrecision((System.nanoTime() - start) / 1e6, 1) + "ms (" + sc.size() + " time steps)");
+		int poolSize = Math.max(1, Math.min(threads, configs.size()));
+		System.out.println("Evaluating " + configs.size() + " configurations with " + poolSize + " workers");
+
+		ExecutorService pool = Executors.newFixedThreadPool(poolSize);
+		List<Future<CorpusResult>> results = new ArrayList<Future<CorpusResult>>();
+		for (String config : configs) {
+			results.add(pool.submit(() -> walkConfig(sc, config, folder)));
+		}
+		pool.shutdown();
+
+		List<CorpusResult> summary = new ArrayList<CorpusResult>();
+		for (int i = 0; i < results.size(); i++) {
+			try {
+				summary.add(results.get(i).get());
+			} catch (Exception e) {
+				CorpusResult res = new CorpusResult(configs.get(i));
+				res.error = e.toString();
+				summary.add(res);
+			}
+		}
+		long total = System.nanoTime() - start;
+		System.out.println(printCorpusSummary(summary, total, "configuration"));
+
+		int failures = 0;
+		for (CorpusResult res : summary) {
+			if (res.error != null) { failures++; }
+		}
+		return failures;
+	}
+
+	/**
+	 * Utility function, evaluates the scenario with a dedicated worker that uses the given configuration
+	 */
+	protected CorpusResult walkConfig (DAAScenario sc, String config, String folder) {
+		CorpusResult res = new CorpusResult(config);
+		File dir = new File(folder, removeExtension(getFileName(config)));
+		dir.mkdirs();
+		DAABandsV2 worker = createWorker(new File(dir, scenario + getOutputExtension()).getPath(), config);
+		if (!worker.configLoaded()) {
+			res.error = "Configuration could not be loaded";
+			return res;
+		}
+		long start = System.nanoTime();
+		try {
+			if (!worker.restoreFromCache()) {
+				if (worker.walk(sc.sequence())) {
+					worker.storeInCache();
+				} else {
+					res.error = "Output files cannot be created";
+				}
+			}
+		} catch (Exception e) {
+			res.error = e.toString();
+		}
+		res.time = System.nanoTime() - start;
+		res.steps = worker.nSteps;
+		return res;
+	}
+
+	/**
+	 * Utility function, returns the list of configuration files in a sweep: a comma-separated list of files, a folder, or a glob pattern
+	 */
+	public static List<String> listConfigs (String sweep) {
+		if (sweep != null && sweep.contains(",")) {
+			List<String> res = new ArrayList<String>();
+			for (String config : sweep.split(",")) {
+				if (!config.trim().isEmpty()) { res.add(config.trim()); }
+			}
+			return res;
+		}
+		if (sweep != null && new File(sweep).isFile()) {
+			return Arrays.asList(sweep);
+		}
+		return listFiles(sweep, "*.conf");
+	}
+
+	/**
+	 * Utility function, returns the sorted list of .daa files in a folder, or the files matching a glob pattern
+	 */
+	public static List<String> listScenarios (String corpus) {
+		return listFiles(corpus, "*.daa");
+	}
+	/**
+	 * Utility function, returns the sorted list of files matching 'pattern' in a folder, or the files matching a glob pattern
+	 */
+	public static List<String> listFiles (String folder, String pattern) {
+		List<String> res = new ArrayList<String>();
+		if (folder == null) { return res; }
+		File dir = new File(folder);
+		PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+		if (!dir.isDirectory()) {
+			Path path = Paths.get(folder);
+			dir = path.getParent() != null ? path.getParent().toFile() : new File(".");
+			matcher = FileSystems.getDefault().getPathMatcher("glob:" + path.getFileName());
+		}
+		File[] files = dir.listFiles();
+		if (files != null) {
+			Arrays.sort(files);
+			for (File file : files) {
+				if (file.isFile() && matcher.matches(file.toPath().getFileName())) {
+					res.add(file.getPath());
+				}
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * Utility function, prints the summary table of corpus mode
+	 */
+	public static String printCorpusSummary (List<CorpusResult> summary, long total) {
+		return printCorpusSummary(summary, total, "scenario");
+	}
+	public static String printCorpusSummary (List<CorpusResult> summary, long total, String label) {
+		int width = label.length();
+		for (CorpusResult res : summary) {
+			width = Math.max(width, getFileName(res.fname).length());
+		}
+		String format = "%-" + width + "s  %8s  %12s  %12s  %s\n";
+		String table = String.format(format, label, "steps", "time [ms]", "steps/sec", "status");
+		int failures = 0;
+		int steps = 0;
+		for (CorpusResult res : summary) {
+			table += String.format(format, getFileName(res.fname), res.steps, 
+					f.FmPrecision(res.time / 1e6, 1), f.FmPrecision(res.getStepsPerSecond(), 1), 
+					res.error != null ? "FAILED (" + res.error + ")" : "ok");
+			if (res.error != null) { failures++; }
+			steps += res.steps;
+		}
+		table += "Runs: " + summary.size() + ", failures: " + failures + ", steps: " + steps 
+				+ ", total time: " + f.FmPrecision(total / 1e6, 1) + "ms\n";
+		return table;
+	}
+
+	/**
+	 * Utility function, returns the time of each time step in the scenario
+	 */
+	protected double[] readTimes () {
+		DaidalusFileWalker walker = new DaidalusFileWalker(ifname);
+		if (ownshipName != null) { walker.setOwnship(ownshipName); }
+		List<Double> times = new ArrayList<Double>();
+		while (!walker.atEnd()) {
+			times.add(walker.getTime());
+			walker.goNext();
+		}
+		double[] res = new double[times.size()];
+		for (int i = 0; i < res.length; i++) {
+			res[i] = times.get(i);
+		}
+		return res;
+	}
+
+	/**
+	 * Utility function, creates a worker with the same settings of this object, and the given configuration file. 
+	 * The worker writes its results to chunk files with prefix 'output'.
+	 */
+	protected DAABandsV2 createWorker (String output) {
+		return createWorker(output, daaConfig);
+	}
+	protected DAABandsV2 createWorker (String output, String config) {
+		DAABandsV2 worker = new DAABandsV2();
+		worker.daaConfig = config;
+		worker.daaAlerter = daaAlerter;
+		worker.scenario = scenario;
+		worker.ifname = ifname;
+		worker.ofname = output;
+		worker.precision = precision;
+		worker.ownshipName = ownshipName;
+		worker.wind = wind;
+		worker.llaFlag = llaFlag;
+		worker.PRINT_METRICS = PRINT_METRICS;
+		worker.PRINT_POLYGONS = PRINT_POLYGONS;
+		worker.STREAMING = true;
+		worker.BINARY = BINARY;
+		worker.DELTA = DELTA;
+		worker.sections = sections;
+		worker.warmup = warmup;
+		worker.PROFILER_ENABLED = PROFILER_ENABLED;
+		worker.cache = cache;
+		worker.simplifyTolerance = simplifyTolerance;
+		worker.ALERTS_ONLY = ALERTS_ONLY;
+		if (config != null) { worker.loadConfig(); }
+		worker.readWind();
+		return worker;
+	}
+
+	/**
+	 * Processes time steps [first, last) of the scenario, writing the results to the chunk files of this object.
+	 * Time steps [warmupFirst, first) are processed without writing any result, to initialize hysteresis and persistence logic.
+	 * The records of the warm-up window are kept in warmupRecords, the records of time steps [tail, last) are kept in overlap.
+	 * Returns the stats of the last time step, throws IOException if the chunk files of the segment cannot be created.
+	 */
+	protected String walkSegment (int warmupFirst, int first, int last, int tail, JsonBands jb) throws IOException {
+		DaidalusFileWalker walker = new DaidalusFileWalker(ifname);
+		if (ownshipName != null) { walker.setOwnship(ownshipName); }
+		walker.goToTimeStep(warmupFirst);
+		StateSequence steps = DAAScenario.sequence(walker);
+
+		// warm-up window, results are discarded
+		JsonBands discarded = new JsonBands();
+		overlap = new ArrayList<String>();
+		for (int i = warmupFirst; i < first && !steps.atEnd(); i++) {
+			readStep(steps);
+			jsonBands(discarded);
+			clearArrays(discarded);
+		}
+		warmupRecords = overlap;
+		overlap = null;
+
+		// segment, the first record of each section is written in full
+		if (delta != null) { delta.reset(); }
+		if (simplifier != null) { simplifier.reset(); }
+		if (!createSegmentWriters()) {
+			closeSegmentWriters();
+			throw new IOException("Output files " + ofname + " cannot be created");
+		}
+		String jsonStats = "";
+		for (int i = first; i < last && !steps.atEnd(); i++) {
+			if (i == tail) { overlap = new ArrayList<String>(); }
+			if (PROFILER_ENABLED) {
+				if (profiler == null) { profiler = new DAAProfiler(); }
+				profiler.start();
+			}
+			profileStart(DAAProfiler.READ);
+			readStep(steps);
+			profileStop(DAAProfiler.READ);
+			profileStart(DAAProfiler.BANDS);
+			jsonStats = jsonBands(jb);
+			profileStop(DAAProfiler.BANDS);
+			profileStart(DAAProfiler.IO);
+			printChunks(jb);
+			if (binaryWriter != null) { writeBinaryStep(binaryWriter); }
+			profileStop(DAAProfiler.IO);
+			if (PROFILER_ENABLED) { profiler.stop(); }
+		}
+		// nothing to compare when the next segment has no warm-up window
+		if (overlap == null) { overlap = new ArrayList<String>(); }
+		closeSegmentWriters();
+		return jsonStats;
+	}
+
+	/**
+	 * Utility function, creates the output streams used by a worker in parallel batch mode: array chunks and monitor results
+	 */
+	protected boolean createSegmentWriters () {
+		try {
+			for (int i = 0; i < arrayChunks.length; i++) {
+				if (!isSelected(i)) { continue; }
+				setChunkWriter(arrayChunks[i][0], new PrintWriter(new BufferedWriter(new FileWriter(ofname + arrayChunks[i][0]))));
+			}
+			if (BINARY) { createBinaryWriter(); }
+		} catch (Exception e) {
+			System.err.println("** Error: " + e);
+			return false;
+		}
+		return createMonitorResultsWriter();
+	}
+	/**
+	 * Utility function, closes the output streams used by a worker in parallel batch mode
+	 */
+	protected void closeSegmentWriters () {
+		for (int i = 0; i < arrayChunks.length; i++) {
+			PrintWriter out = getChunkWriter(arrayChunks[i][0]);
+			if (out != null) { out.close(); }
+		}
+		closeMonitorResultsWriter();
+		closeBinaryWriter();
+	}
+
+	/**
+	 * Utility function, appends the chunk files of a segment to the chunk files of this object, and removes the segment files
+	 */
+	protected void appendSegment (String prefix) {
+		for (int i = 0; i < arrayChunks.length; i++) {
+			if (!isSelected(i)) { continue; }
+			File segment = new File(prefix + arrayChunks[i][0]);
+			appendLines(getChunkWriter(arrayChunks[i][0]), segment);
+			segment.delete();
+		}
+		for (int i = 0; i < monitorChunks.length; i++) {
+			File segment = new File(prefix + monitorChunks[i]);
+			appendLines(printWriterMonitorResults[i], segment);
+			segment.delete();
+		}
+		if (binaryWriter != null) {
+			File segment = new File(prefix + ".bin");
+			try {
+				binaryWriter.appendSteps(segment.getPath());
+			} catch (IOException e) {
+				System.err.println("** Error: " + e);
+			}
+			segment.delete();
+		}
+	}
+
+	/**
+	 * Utility function, copies the lines of a file on 'out'
+	 */
+	public static void appendLines (PrintWriter out, File file) {
+		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+			String str = reader.readLine();
+			while (str != null) {
+				out.println(str);
+				str = reader.readLine();
+			}
+		} catch (IOException e) {
+			System.err.println("** Error: " + e);
+		}
+	}
+
+	/**
+	 * Utility function, clears the lists in jb
+	 */
+	protected static void clearArrays (JsonBands jb) {
+		jb.ownshipArray.clear();
+		jb.alertsArray.clear();
+		jb.windVectorsArray.clear();
+		jb.metricsArray.clear();
+		jb.trkArray.clear();
+		jb.gsArray.clear();
+		jb.vsArray.clear();
+		jb.altArray.clear();
+		jb.resTrkArray.clear();
+		jb.resGsArray.clear();
+		jb.resVsArray.clear();
+		jb.resAltArray.clear();
+		jb.contoursArray.clear();
+		jb.hazardZonesArray.clear();
+		jb.monitorM1Array.clear();
+		jb.monitorM2Array.clear();
+		jb.monitorM3Array.clear();
+		jb.monitorM4Array.clear();
+	}
+
+	/**
+	 * Utility functions, start and stop a phase of the current time step, if the profiler is enabled
+	 */
+	protected void profileStart (int phase) {
+		if (PROFILER_ENABLED && profiler != null) { profiler.startPhase(phase); }
+	}
+	protected void profileStop (int phase) {
+		if (PROFILER_ENABLED && profiler != null) { profiler.stopPhase(phase); }
+	}
+
+	/**
+	 * Utility function, writes the profiler data, if the profiler is enabled
+	 */
+	protected void printProfilerData () {
+		if (PROFILER_ENABLED && profiler != null) {
 			String profilerOutputFile = ofname + ".profiler.log";
 			System.out.println("[PROFILER] Writing profiler output file " + profilerOutputFile);
 			boolean success = profiler.printCollectedDataToFile(profilerOutputFile);
 			System.out.println(success);
+			System.out.print(profiler.printCollectedData());
+		}
+	}
+
+	/**
+	 * Utility function, writes the records of the current time step to the chunk files and clears the lists in jb.
+	 * This keeps the memory footprint of jb constant, regardless of the length of the scenario.
+	 */
+	protected void printChunks (JsonBands jb) {
+		printArray(printWriterOwnship, jb.ownshipArray);
+		printArray(printWriterAlerts, jb.alertsArray);
+		printArray(printWriterWind, jb.windVectorsArray);
+		printArray(printWriterMetrics, jb.metricsArray);
+		printArray(printWriterHdBands, jb.trkArray);
+		printArray(printWriterHsBands, jb.gsArray);
+		printArray(printWriterVsBands, jb.vsArray);
+		printArray(printWriterAltBands, jb.altArray);
+		printArray(printWriterHdRes, jb.resTrkArray);
+		printArray(printWriterHsRes, jb.resGsArray);
+		printArray(printWriterVsRes, jb.resVsArray);
+		printArray(printWriterAltRes, jb.resAltArray);
+		printArray(printWriterContours, jb.contoursArray);
+		printArray(printWriterHazardZones, jb.hazardZonesArray);
+		printArray(printWriterMonitorResults[0], jb.monitorM1Array);
+		printArray(printWriterMonitorResults[1], jb.monitorM2Array);
+		printArray(printWriterMonitorResults[2], jb.monitorM3Array);
+		printArray(printWriterMonitorResults[3], jb.monitorM4Array);
+		clearArrays(jb);
+	}
+
+	/**
+	 * Utility function, writes .info, .monitors, and the combined output file once all time steps have been written to the chunk files.
+	 * The combined output file is assembled by reading back the chunk files, one line at a time.
+	 */
+	protected void printStreamedOutput (String jsonStats, DAAMonitorsV2 monitors) {
+		printWriterInfo.println("{\n" + jsonHeader() + "\n" + jsonStats + "\n}");
+
+		File[] monitorFiles = closeMonitorResultsWriter();
+		if (printWriterMonitors != null) {
+			printWriterMonitors.println("{ \"Monitors\": ");
+			printMonitors(printWriterMonitors, monitors, monitorFiles);
+			printWriterMonitors.println("}");
+		}
+
+		printWriter.println("{\n" + jsonHeader() + "\n" + jsonStats + ",");
+		for (int i = 0; i < arrayChunks.length; i++) {
+			if (isSelected(i)) {
+				getChunkWriter(arrayChunks[i][0]).flush();
+				printArray(printWriter, new File(ofname + arrayChunks[i][0]), arrayChunks[i][1]);
+			} else {
+				// unselected sections are empty arrays in the combined output file
+				printArray(printWriter, new ArrayList<String>(), arrayChunks[i][1]);
+			}
+			printWriter.println(",");
+		}
+		printWriter.println("\"Monitors\": ");
+		printMonitors(printWriter, monitors, monitorFiles);
+		printWriter.println("}");
+
+		for (int i = 0; i < monitorFiles.length; i++) {
+			monitorFiles[i].delete();
+		}
+	}
+
+	/**
+	 * Utility function, creates the temporary files for the monitor results
+	 */
+	protected boolean createMonitorResultsWriter () {
+		try {
+			printWriterMonitorResults = new PrintWriter[monitorChunks.length];
+			for (int i = 0; i < monitorChunks.length; i++) {
+				printWriterMonitorResults[i] = new PrintWriter(new BufferedWriter(new FileWriter(ofname + monitorChunks[i])));
+			}
+		} catch (Exception e) {
+			System.err.println("** Error: " + e);
+			return false;
+		}
+		return true;
+	}
+	/**
+	 * Utility function, closes the temporary files for the monitor results and returns the list of files
+	 */
+	protected File[] closeMonitorResultsWriter () {
+		File[] files = new File[monitorChunks.length];
+		for (int i = 0; i < monitorChunks.length; i++) {
+			if (printWriterMonitorResults != null && printWriterMonitorResults[i] != null) {
+				printWriterMonitorResults[i].close();
+			}
+			files[i] = new File(ofname + monitorChunks[i]);
+		}
+		printWriterMonitorResults = null;
+		return files;
+	}
+
+	/**
+	 * Returns true if the given section is selected
+	 */
+	public boolean isSelected (int section) {
+		return (sections & (1L << section)) != 0;
+	}
+	/**
+	 * Returns true if the chunk file with the given extension belongs to a selected section (.info is always selected)
+	 */
+	public boolean isSelectedChunk (String chunk) {
+		if (chunk.equals(".monitors")) { return isSelected(MONITORS); }
+		for (int i = 0; i < arrayChunks.length; i++) {
+			if (arrayChunks[i][0].equals(chunk)) { return isSelected(i); }
+		}
+		return true;
+	}
+	/**
+	 * Returns the names of the sections, which are the extensions of the chunk files without the leading dot, and monitors
+	 */
+	public static String[] getSectionNames () {
+		String[] names = new String[MONITORS + 1];
+		for (int i = 0; i < arrayChunks.length; i++) { names[i] = arrayChunks[i][0].substring(1); }
+		names[MONITORS] = MONITORS_SECTION;
+		return names;
+	}
+	/**
+	 * Selects the sections in the given comma-separated list, e.g., "alerts,hd-bands", or all sections if the list is "all".
+	 * Returns false and leaves the selection unchanged if the list contains an unknown section.
+	 */
+	public boolean selectSections (String list) {
+		if (list == null || list.trim().equalsIgnoreCase("all")) {
+			sections = ALL_SECTIONS;
+			return true;
+		}
+		String[] names = getSectionNames();
+		long mask = 0;
+		for (String item : list.split(",")) {
+			String name = item.trim();
+			if (name.startsWith(".")) { name = name.substring(1); }
+			if (name.isEmpty()) { continue; }
+			int idx = Arrays.asList(names).indexOf(name);
+			if (idx < 0) {
+				System.err.println("** Error: Unknown section " + name + " (valid sections: " + String.join(",", names) + ")");
+				return false;
+			}
+			mask |= 1L << idx;
+		}
+		sections = mask;
+		return true;
+	}
+
+	/**
+	 * Utility function, returns the output stream of a chunk file, null if the chunk is not recognized
+	 */
+	protected PrintWriter getChunkWriter (String chunk) {
+		switch (chunk) {
+			case ".info": { return printWriterInfo; }
+			case ".ownship": { return printWriterOwnship; }
+			case ".alerts": { return printWriterAlerts; }
+			case ".wind": { return printWriterWind; }
+			case ".metrics": { return printWriterMetrics; }
+			case ".monitors": { return printWriterMonitors; }
+			case ".hd-bands": { return printWriterHdBands; }
+			case ".vs-bands": { return printWriterVsBands; }
+			case ".hs-bands": { return printWriterHsBands; }
+			case ".alt-bands": { return printWriterAltBands; }
+			case ".hd-res": { return printWriterHdRes; }
+			case ".vs-res": { return printWriterVsRes; }
+			case ".hs-res": { return printWriterHsRes; }
+			case ".alt-res": { return printWriterAltRes; }
+			case ".contours": { return printWriterContours; }
+			case ".hazardzones": { return printWriterHazardZones; }
+			default: { return null; }
+		}
+	}
+	/**
+	 * Utility function, sets the output stream of a chunk file
+	 */
+	protected void setChunkWriter (String chunk, PrintWriter out) {
+		switch (chunk) {
+			case ".info": { printWriterInfo = out; break; }
+			case ".ownship": { printWriterOwnship = out; break; }
+			case ".alerts": { printWriterAlerts = out; break; }
+			case ".wind": { printWriterWind = out; break; }
+			case ".metrics": { printWriterMetrics = out; break; }
+			case ".monitors": { printWriterMonitors = out; break; }
+			case ".hd-bands": { printWriterHdBands = out; break; }
+			case ".vs-bands": { printWriterVsBands = out; break; }
+			case ".hs-bands": { printWriterHsBands = out; break; }
+			case ".alt-bands": { printWriterAltBands = out; break; }
+			case ".hd-res": { printWriterHdRes = out; break; }
+			case ".vs-res": { printWriterVsRes = out; break; }
+			case ".hs-res": { printWriterHsRes = out; break; }
+			case ".alt-res": { printWriterAltRes = out; break; }
+			case ".contours": { printWriterContours = out; break; }
+			case ".hazardzones": { printWriterHazardZones = out; break; }
+			default: {
+				System.out.println("[DAABandsV2] Warning: unrecognized chunk " + chunk);
+				break;
+			}
 		}
 	}
 
@@ -1067,6 +2437,8 @@ public class DAABandsV2 {
 				if (a + 1 < args.length) { daaConfig = args[++a]; }
 			} else if (a < args.length - 1 && (args[a].startsWith("--alerter") || args[a].startsWith("-alerter") || args[a].equals("-a"))) {
 				if (a + 1 < args.length) { daaAlerter = args[++a]; }
+			} else if (a < args.length - 1 && (args[a].startsWith("--output-folder") || args[a].startsWith("-output-folder"))) {
+				if (a + 1 < args.length) { outputFolder = args[++a]; }
 			} else if (a < args.length - 1 && (args[a].startsWith("--out") || args[a].startsWith("-out") || args[a].equals("-o"))) {
 				if (a + 1 < args.length) { ofname = args[++a]; }
 			} else if (a < args.length - 1 && (args[a].startsWith("--ownship") || args[a].startsWith("-ownship"))) {
@@ -1075,6 +2447,32 @@ public class DAABandsV2 {
 				if (a + 1 < args.length) { wind = args[++a]; }
 			} else if (a < args.length - 1 && (args[a].startsWith("--profiler-on") || args[a].startsWith("-profiler-on"))) {
 				PROFILER_ENABLED = true;
+			} else if (a < args.length - 1 && (args[a].startsWith("--sections") || args[a].startsWith("-sections"))) {
+				if (!selectSections(args[++a])) { System.exit(1); }
+			} else if (args[a].equals("--delta") || args[a].equals("-delta")) {
+				DELTA = true;
+			} else if (args[a].equals("--binary") || args[a].equals("-binary")) {
+				BINARY = true;
+			} else if (a < args.length - 1 && (args[a].equals("--cache") || args[a].equals("-cache"))) {
+				cacheFolder = args[++a];
+			} else if (a < args.length - 1 && (args[a].startsWith("--cache-size") || args[a].startsWith("-cache-size"))) {
+				cacheSizeMB = Long.parseLong(args[++a]);
+			} else if (args[a].startsWith("--cache-stats") || args[a].startsWith("-cache-stats")) {
+				cacheStats = true;
+			} else if (a < args.length - 1 && (args[a].startsWith("--simplify") || args[a].startsWith("-simplify"))) {
+				simplifyTolerance = Double.parseDouble(args[++a]);
+			} else if (args[a].startsWith("--alerts-only") || args[a].startsWith("-alerts-only")) {
+				ALERTS_ONLY = true;
+			} else if (args[a].equals("--stream") || args[a].equals("-stream")) {
+				STREAMING = true;
+			} else if (a < args.length - 1 && (args[a].startsWith("--threads") || args[a].startsWith("-threads"))) {
+				if (a + 1 < args.length) { threads = Integer.parseInt(args[++a]); }
+			} else if (a < args.length - 1 && (args[a].startsWith("--warmup") || args[a].startsWith("-warmup"))) {
+				if (a + 1 < args.length) { warmup = Double.parseDouble(args[++a]); }
+			} else if (a < args.length - 1 && (args[a].startsWith("--corpus") || args[a].startsWith("-corpus"))) {
+				if (a + 1 < args.length) { corpus = args[++a]; }
+			} else if (a < args.length - 1 && (args[a].startsWith("--sweep") || args[a].startsWith("-sweep"))) {
+				if (a + 1 < args.length) { sweep = args[++a]; }
 			} else if (args[a].startsWith("-")) {
 				System.err.println("** Warning: Invalid option (" + args[a] + ")");
 			} else {
@@ -1083,7 +2481,17 @@ public class DAABandsV2 {
 		}
 		scenario = removeExtension(getFileName(ifname));
 		if (ofname == null) {
-			ofname = scenario + ".json";
+			ofname = scenario + getOutputExtension();
+		}
+		if (cacheFolder != null) {
+			cache = new DAAResultCache(cacheFolder, cacheSizeMB * 1024 * 1024);
+			if (cacheStats) {
+				System.out.println(cache.printStats());
+				System.exit(0);
+			}
+		} else if (cacheStats) {
+			System.err.println("** Error: --cache-stats requires --cache <folder>");
+			System.exit(1);
 		}
 		return this;
 	}
@@ -1108,7 +2516,11 @@ public class DAABandsV2 {
 			System.out.println("Creating output file " + ofname + ".files");
 			printWriterFiles = new PrintWriter(new BufferedWriter(new FileWriter(ofname + ".files")),true);
 			printWriterFiles.println("[");
+			boolean comma = false;
 			for (int i = 0; i < chunks.length; i++) {
+				if (!isSelectedChunk(chunks[i])) { continue; }
+				if (comma) { printWriterFiles.println(","); }
+				comma = true;
 				String fname = ofname + chunks[i];
 				File f = new File(fname);
 				System.out.println("Creating output file " + fname);
@@ -1198,9 +2610,9 @@ public class DAABandsV2 {
 						break;
 					}
 				}
-				if (i < chunks.length - 1) { printWriterFiles.println(","); }
 			}
 			printWriterFiles.println("]");
+			if (BINARY) { createBinaryWriter(); }
 		} catch (Exception e) {
 			System.err.println("** Error: " + e);
 			return false;
@@ -1213,27 +2625,62 @@ public class DAABandsV2 {
 	public boolean closePrintWriter () {
 		if (printWriter != null) {
 			printWriter.close();
-			printWriterFiles.close();
-			printWriterInfo.close();
-			printWriterOwnship.close();
-			printWriterAlerts.close();
-			printWriterWind.close();
-			printWriterMetrics.close();
-			printWriterAltBands.close();
-			printWriterVsBands.close();
-			printWriterHsBands.close();
-			printWriterHdBands.close();
-			printWriterAltRes.close();
-			printWriterVsRes.close();
-			printWriterHsRes.close();
-			printWriterHdRes.close();
-			printWriterContours.close();
-			printWriterHazardZones.close();
+			if (printWriterFiles != null) { printWriterFiles.close(); }
+			for (int i = 0; i < chunks.length; i++) {
+				// chunk files of unselected sections are not created
+				PrintWriter out = getChunkWriter(chunks[i]);
+				if (out != null) {
+					out.close();
+					setChunkWriter(chunks[i], null);
+				}
+			}
+			closeBinaryWriter();
+			writeIndexFiles();
 			return true;
 		}
 		return false;
 	}
 
+	/**
+	 * Utility function, writes the time index <chunk>.idx of each chunk file that contains one record per time step
+	 * The index can be used to fetch the records of a given time without scanning the chunk file, see DAAChunkIndex
+	 */
+	protected void writeIndexFiles () {
+		for (int i = 0; i < arrayChunks.length; i++) {
+			if (!isSelected(i)) { continue; }
+			try {
+				DAAChunkIndex.build(ofname + arrayChunks[i][0]);
+			} catch (IOException e) {
+				System.err.println("** Error: " + e);
+			}
+		}
+	}
+
+	/**
+	 * Utility function, creates the binary output file <output>.bin
+	 */
+	protected void createBinaryWriter () throws IOException {
+		String fname = ofname + ".bin";
+		System.out.println("Creating output file " + fname);
+		String[] regions = new String[BandsRegion.values().length];
+		for (int i = 0; i < regions.length; i++) { regions[i] = BandsRegion.values()[i].toString(); }
+		binaryWriter = new DAABinaryWriter(fname, scenario, getConfigFileName(), 
+			llaFlag ? latOffset : 0, llaFlag ? lonOffset : 0, regions);
+	}
+	/**
+	 * Utility function, closes the binary output file, if any
+	 */
+	protected void closeBinaryWriter () {
+		if (binaryWriter != null) {
+			try {
+				binaryWriter.close();
+			} catch (IOException e) {
+				System.err.println("** Error: " + e);
+			}
+			binaryWriter = null;
+		}
+	}
+
 	public static void main(String[] args) {
 		DAABandsV2 daaBands = new DAABandsV2();
 		daaBands.parseCliArgs(args);
@@ -1242,7 +2689,17 @@ public class DAABandsV2 {
 		System.out.println(daaBands.printConfig()); // useful for debugging purposes
 		Velocity wind = daaBands.readWind();
 		if (wind != null) { System.out.println("Using constant wind vector: " + wind); }
-		daaBands.walkFile();
+		if (daaBands.corpus != null) {
+			int failures = daaBands.walkCorpus();
+			System.exit(failures > 0 ? 1 : 0);
+		} else if (daaBands.sweep != null) {
+			int failures = daaBands.walkSweep();
+			System.exit(failures > 0 ? 1 : 0);
+		} else if (daaBands.threads > 1) {
+			if (!daaBands.walkFileParallel()) { System.exit(1); }
+		} else {
+			if (!daaBands.walkFile()) { System.exit(1); }
+		}
 	}
 
 }
@@ -0,0 +1,418 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Random-access reader for the binary bands format written by DAABinaryWriter.
+ * The file is memory-mapped in overlapping windows, so files larger than 2GB can be read, 
+ * and any time step can be decoded in constant time using the index at the end of the file.
+ * Values are in internal units (m, rad, m/s, s). Reads are thread-safe.
+ * Usage: java DAABinaryReader <file.bin> [step]
+ */
+public class DAABinaryReader implements Closeable {
+
+	/**
+	 * State of an aircraft at a time step
+	 */
+	public static class Aircraft {
+		public String id;
+		public boolean latlon; // true if position is lat (rad), lon (rad), alt (m), false if position is x, y, z (m)
+		public double[] position = new double[3];
+		public double[] velocity = new double[3];
+		public double track, heading, groundspeed, airspeed, verticalspeed;
+	}
+
+	/**
+	 * Traffic aircraft: state, alert and metrics
+	 */
+	public static class Traffic extends Aircraft {
+		public static final String[] METRICS = {
+			"horizontal separation", "vertical separation", "horizontal miss distance", "vertical miss distance",
+			"horizontal closure rate", "vertical closure rate", "tcpa", "tcoa", "taumod"
+		};
+		public int alertLevel;
+		public String alertRegion;
+		public int alerterIndex;
+		public double[] metrics = new double[METRICS.length];
+	}
+
+	/**
+	 * Band interval, in internal units
+	 */
+	public static class Band {
+		public double low, high;
+		public String region;
+	}
+
+	/**
+	 * Resolution and recovery information of one dimension
+	 */
+	public static class Resolution {
+		public boolean preferred, conflict, recovery, saturated;
+		public double preferredResolution, otherResolution;
+		public String preferredRegion, otherRegion;
+		public double timeToRecovery;
+		public int nFactor;
+		public double recoveryHorizontalDistance, recoveryVerticalDistance;
+	}
+
+	/**
+	 * Results of a time step
+	 */
+	public static class Step {
+		public double time;
+		public Aircraft ownship;
+		public String trkRegion, gsRegion, vsRegion, altRegion; // regions of the current ownship state
+		public double windFrom, windSpeed;
+		public List<Traffic> traffic = new ArrayList<Traffic>();
+		public Band[] trkBands, gsBands, vsBands, altBands;
+		public Resolution trkResolution, gsResolution, vsResolution, altResolution;
+		// contours[i] and hazardZones[i] are the polygons of traffic i, each polygon is a list of lat, lon, alt triples
+		public double[][][] contours, hazardZones;
+	}
+
+	public static final int DEFAULT_WINDOW = 1 << 29; // 512MB
+	// header after MAGIC and VERSION: scenario, config, offsets, up to 255 region names
+	protected static final int MAX_HEADER_SIZE = (2 + 255) * (2 + 0xFFFF) + 2 * 8 + 1;
+
+	protected final String fname;
+	protected RandomAccessFile file;
+	protected FileChannel channel;
+	protected long size;
+	// window k maps [k * window, k * window + 2 * window), so any record no longer than window is contained in a single window
+	protected final int window;
+	protected ByteBuffer[] windows;
+	protected String scenario;
+	protected String config;
+	protected double latOffset, lonOffset;
+	protected String[] regions;
+	protected int nSteps;
+	protected long indexOffset;
+
+	/**
+	 * Opens the file, reads header and index
+	 */
+	public DAABinaryReader (String fname) throws IOException {
+		this(fname, DEFAULT_WINDOW);
+	}
+	/**
+	 * Opens the file with the given window size (bytes), reads header and index
+	 */
+	public DAABinaryReader (String fname, int window) throws IOException {
+		this.fname = fname;
+		this.window = Math.max(DAABinaryWriter.FOOTER_SIZE, Math.min(window, Integer.MAX_VALUE / 2));
+		file = new RandomAccessFile(fname, "r");
+		channel = file.getChannel();
+		size = file.length();
+		windows = new ByteBuffer[(int) ((size + this.window - 1) / this.window)];
+		try {
+			if (size < 8 + DAABinaryWriter.FOOTER_SIZE) {
+				throw new IOException(fname + " is not a valid binary bands file");
+			}
+			long footer = size - DAABinaryWriter.FOOTER_SIZE;
+			if (getInt(0) != DAABinaryWriter.MAGIC || getInt(footer + 12) != DAABinaryWriter.MAGIC) {
+				throw new IOException(fname + " is not a valid binary bands file");
+			}
+			if (getInt(4) != DAABinaryWriter.VERSION) {
+				throw new IOException(fname + " has unsupported version " + getInt(4));
+			}
+			indexOffset = getLong(footer);
+			nSteps = getInt(footer + 8);
+			if (nSteps < 0 || indexOffset < 8 || indexOffset + 16L * nSteps != footer) {
+				throw new IOException(fname + " has a corrupted index");
+			}
+			ByteBuffer in = slice(8, Math.min(indexOffset - 8, MAX_HEADER_SIZE));
+			scenario = getString(in);
+			config = getString(in);
+			latOffset = in.getDouble();
+			lonOffset = in.getDouble();
+			regions = new String[in.get() & 0xFF];
+			for (int i = 0; i < regions.length; i++) { regions[i] = getString(in); }
+		} catch (UncheckedIOException e) {
+			file.close();
+			throw e.getCause();
+		} catch (IOException | RuntimeException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	public String getFileName () { return fname; }
+	public String getScenario () { return scenario; }
+	public String getConfig () { return config; }
+	public double getLatOffset () { return latOffset; }
+	public double getLonOffset () { return lonOffset; }
+
+	/**
+	 * Number of time steps in the file
+	 */
+	public int size () {
+		return nSteps;
+	}
+
+	/**
+	 * Time of step i, read from the index
+	 */
+	public double getTime (int i) {
+		checkIndex(i);
+		return getDouble(indexOffset + 8L * nSteps + 8L * i);
+	}
+
+	/**
+	 * Raw bytes of the record of step i, excluding the length prefix
+	 */
+	public ByteBuffer getRecord (int i) {
+		checkIndex(i);
+		long start = offset(i);
+		int length = getInt(start);
+		long end = i + 1 < nSteps ? offset(i + 1) : indexOffset;
+		if (length < 0 || start + 4 + length != end) {
+			throw new IllegalStateException(fname + ": corrupted record " + i + " (length " + length + ", offset " + start + ")");
+		}
+		return slice(start + 4, length);
+	}
+
+	/**
+	 * Decodes step i
+	 */
+	public Step getStep (int i) {
+		ByteBuffer in = getRecord(i);
+		Step step = new Step();
+		step.time = in.getDouble();
+		step.ownship = getAircraft(in, new Aircraft());
+		step.trkRegion = getRegion(in);
+		step.gsRegion = getRegion(in);
+		step.vsRegion = getRegion(in);
+		step.altRegion = getRegion(in);
+		step.windFrom = in.getDouble();
+		step.windSpeed = in.getDouble();
+		int nTraffic = in.getInt();
+		for (int k = 0; k < nTraffic; k++) {
+			Traffic ac = getAircraft(in, new Traffic());
+			ac.alertLevel = in.getInt();
+			ac.alertRegion = getRegion(in);
+			ac.alerterIndex = in.getInt();
+			for (int m = 0; m < ac.metrics.length; m++) { ac.metrics[m] = in.getDouble(); }
+			step.traffic.add(ac);
+		}
+		step.trkBands = getBands(in);
+		step.gsBands = getBands(in);
+		step.vsBands = getBands(in);
+		step.altBands = getBands(in);
+		step.trkResolution = getResolution(in);
+		step.gsResolution = getResolution(in);
+		step.vsResolution = getResolution(in);
+		step.altResolution = getResolution(in);
+		step.contours = new double[nTraffic][][];
+		for (int k = 0; k < nTraffic; k++) { step.contours[k] = getPolygons(in); }
+		step.hazardZones = new double[nTraffic][][];
+		for (int k = 0; k < nTraffic; k++) { step.hazardZones[k] = getPolygons(in); }
+		return step;
+	}
+
+	@Override
+	public void close () throws IOException {
+		file.close();
+	}
+
+	/**
+	 * Utility functions for accessing the file by absolute position
+	 */
+	protected long offset (int i) {
+		return getLong(indexOffset + 8L * i);
+	}
+	protected int getInt (long pos) {
+		return slice(pos, 4).getInt(0);
+	}
+	protected long getLong (long pos) {
+		return slice(pos, 8).getLong(0);
+	}
+	protected double getDouble (long pos) {
+		return slice(pos, 8).getDouble(0);
+	}
+	/**
+	 * Returns a little-endian buffer with the n bytes at position pos. 
+	 * The buffer is a view of the mapped window containing the bytes, or a copy if n is larger than the window size.
+	 */
+	protected ByteBuffer slice (long pos, long n) {
+		if (pos < 0 || n < 0 || pos + n > size) {
+			throw new IndexOutOfBoundsException(fname + ": [" + pos + ", " + (pos + n) + ") is out of range [0, " + size + ")");
+		}
+		try {
+			if (n > window) {
+				ByteBuffer res = ByteBuffer.allocate((int) n);
+				while (res.hasRemaining()) {
+					if (channel.read(res, pos + res.position()) < 0) { throw new IOException("Unexpected end of file " + fname); }
+				}
+				res.flip();
+				return res.order(ByteOrder.LITTLE_ENDIAN);
+			}
+			int k = (int) (pos / window);
+			ByteBuffer in = window(k).duplicate();
+			int start = (int) (pos - (long) k * window);
+			in.position(start).limit(start + (int) n);
+			return in.slice().order(ByteOrder.LITTLE_ENDIAN);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	/**
+	 * Maps window k on first use
+	 */
+	protected synchronized ByteBuffer window (int k) throws IOException {
+		if (windows[k] == null) {
+			long start = (long) k * window;
+			windows[k] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, 2L * window));
+		}
+		return windows[k];
+	}
+
+	/**
+	 * Utility functions for decoding the records
+	 */
+	protected void checkIndex (int i) {
+		if (i < 0 || i >= nSteps) {
+			throw new IndexOutOfBoundsException("Step " + i + " out of range [0, " + nSteps + ")");
+		}
+	}
+	protected static String getString (ByteBuffer in) {
+		int len = in.getShort() & 0xFFFF;
+		byte[] bytes = new byte[len];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	protected String getRegion (ByteBuffer in) {
+		int idx = in.get() & 0xFF;
+		return idx < regions.length ? regions[idx] : "UNKNOWN";
+	}
+	protected <T extends Aircraft> T getAircraft (ByteBuffer in, T ac) {
+		ac.id = getString(in);
+		ac.latlon = in.get() != 0;
+		for (int k = 0; k < 3; k++) { ac.position[k] = in.getDouble(); }
+		for (int k = 0; k < 3; k++) { ac.velocity[k] = in.getDouble(); }
+		ac.track = in.getDouble();
+		ac.heading = in.getDouble();
+		ac.groundspeed = in.getDouble();
+		ac.airspeed = in.getDouble();
+		ac.verticalspeed = in.getDouble();
+		return ac;
+	}
+	protected Band[] getBands (ByteBuffer in) {
+		Band[] bands = new Band[in.getInt()];
+		for (int k = 0; k < bands.length; k++) {
+			bands[k] = new Band();
+			bands[k].low = in.getDouble();
+			bands[k].high = in.getDouble();
+			bands[k].region = getRegion(in);
+		}
+		return bands;
+	}
+	protected Resolution getResolution (ByteBuffer in) {
+		Resolution res = new Resolution();
+		byte flags = in.get();
+		res.preferred = (flags & DAABinaryWriter.PREFERRED) != 0;
+		res.conflict = (flags & DAABinaryWriter.CONFLICT) != 0;
+		res.recovery = (flags & DAABinaryWriter.RECOVERY) != 0;
+		res.saturated = (flags & DAABinaryWriter.SATURATED) != 0;
+		res.preferredResolution = in.getDouble();
+		res.otherResolution = in.getDouble();
+		res.preferredRegion = getRegion(in);
+		res.otherRegion = getRegion(in);
+		res.timeToRecovery = in.getDouble();
+		res.nFactor = in.getInt();
+		res.recoveryHorizontalDistance = in.getDouble();
+		res.recoveryVerticalDistance = in.getDouble();
+		return res;
+	}
+	protected static double[][] getPolygons (ByteBuffer in) {
+		double[][] polygons = new double[in.getInt()][];
+		for (int k = 0; k < polygons.length; k++) {
+			polygons[k] = new double[3 * in.getInt()];
+			for (int j = 0; j < polygons[k].length; j++) { polygons[k][j] = in.getDouble(); }
+		}
+		return polygons;
+	}
+
+	/**
+	 * Utility function, prints a summary of a step
+	 */
+	public static String printStep (Step step) {
+		String res = "time: " + step.time + " s\n";
+		res += "ownship: " + step.ownship.id + " track: " + Math.toDegrees(step.ownship.track) + " deg, groundspeed: " + step.ownship.groundspeed + " m/s"
+			+ ", regions: " + step.trkRegion + " " + step.gsRegion + " " + step.vsRegion + " " + step.altRegion + "\n";
+		for (int k = 0; k < step.traffic.size(); k++) {
+			Traffic ac = step.traffic.get(k);
+			res += "traffic: " + ac.id + " alert level: " + ac.alertLevel + " (" + ac.alertRegion + "), contours: " 
+				+ step.contours[k].length + " polygons, hazard zones: " + step.hazardZones[k].length + " polygons\n";
+		}
+		res += "bands (trk/gs/vs/alt): " + step.trkBands.length + "/" + step.gsBands.length + "/" + step.vsBands.length + "/" + step.altBands.length + "\n";
+		res += "resolutions (trk/gs/vs/alt): " + step.trkResolution.preferredResolution + "/" + step.gsResolution.preferredResolution 
+			+ "/" + step.vsResolution.preferredResolution + "/" + step.altResolution.preferredResolution + "\n";
+		return res;
+	}
+
+	public static void main (String[] args) {
+		if (args.length < 1) {
+			System.out.println("Usage: java DAABinaryReader <file.bin> [step]");
+			return;
+		}
+		try (DAABinaryReader reader = new DAABinaryReader(args[0])) {
+			System.out.println("Scenario: " + reader.getScenario() + ", config: " + reader.getConfig() + ", steps: " + reader.size());
+			if (reader.size() > 0) {
+				System.out.println("Time range: [" + reader.getTime(0) + ", " + reader.getTime(reader.size() - 1) + "] s");
+			}
+			if (args.length > 1) {
+				System.out.print(printStep(reader.getStep(Integer.parseInt(args[1]))));
+			}
+		} catch (IOException e) {
+			System.err.println("** Error: " + e);
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,251 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writer for the binary bands format, an alternative to the JSON chunk files for re-analysis of long runs.
+ * All values are little-endian and in internal units (m, rad, m/s, s), regions are indices in the region table of the header. 
+ * A file is made of a header, one length-prefixed record per time step, and an index with the offset and time of each step.
+ * Records can be skipped using their length, so the file can still be scanned sequentially if the index is missing, e.g., when the writer was interrupted.
+ * <pre>
+ * header:     int MAGIC, int VERSION, string scenario, string config, double latOffset, double lonOffset (deg),
+ *             byte nRegions, string[nRegions] region names
+ * record:     int length (bytes of the step, excluding the length itself), step
+ * step:       double time, aircraft ownship, byte[4] ownship regions (trk, gs, vs, alt), double wind from (rad), double wind speed,
+ *             int nTraffic, traffic[nTraffic],
+ *             bands trk, bands gs, bands vs, bands alt,
+ *             resolution trk, resolution gs, resolution vs, resolution alt,
+ *             polygons[nTraffic] contours, polygons[nTraffic] hazard zones
+ * aircraft:   string id, byte latlon, double[3] position (lat, lon, alt or x, y, z), double[3] velocity (vx, vy, vz),
+ *             double track, double heading, double groundspeed, double airspeed, double verticalspeed
+ * traffic:    aircraft, int alert level, byte alert region, int alerter index, double[9] metrics (NaN when metrics are disabled): 
+ *             horizontal/vertical separation, horizontal/vertical miss distance, horizontal/vertical closure rate, tcpa, tcoa, taumod
+ * bands:      int n, n x (double low, double high, byte region)
+ * resolution: byte flags (1=preferred, 2=conflict, 4=recovery, 8=saturated), double preferred, double other, 
+ *             byte preferred region, byte other region, double time to recovery, int nfactor, 
+ *             double recovery horizontal distance, double recovery vertical distance
+ * polygons:   int n, n x (int npoints, npoints x (double lat, double lon, double alt)), lat/lon in rad
+ * string:     short length, UTF-8 bytes (truncated at 65535 bytes, on a code point boundary)
+ * index:      long[nSteps] record offsets, double[nSteps] step times
+ * footer:     long index offset, int nSteps, int MAGIC
+ * </pre>
+ * As in the JSON output, polygon vertices are shifted by latOffset and lonOffset, which are 0 when the LLA offset is not used.
+ * The file can be read with DAABinaryReader.
+ */
+public class DAABinaryWriter implements Closeable {
+	public static final int MAGIC = 0x42414144; // "DAAB"
+	public static final int VERSION = 2;
+	public static final int FOOTER_SIZE = 16;
+	public static final byte PREFERRED = 1;
+	public static final byte CONFLICT = 2;
+	public static final byte RECOVERY = 4;
+	public static final byte SATURATED = 8;
+
+	protected FileChannel channel;
+	protected ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+	protected long position = 0; // file position of the start of the buffer
+	protected long[] offsets = new long[1024];
+	protected double[] times = new double[1024];
+	protected int nSteps = 0;
+	protected long recordStart = -1; // file position of the length of the current record, -1 if no record is open
+
+	/**
+	 * Creates the file and writes the header
+	 */
+	public DAABinaryWriter (String fname, String scenario, String config, double latOffset, double lonOffset, String[] regions) throws IOException {
+		channel = new FileOutputStream(fname).getChannel();
+		putInt(MAGIC).putInt(VERSION);
+		putString(scenario).putString(config);
+		putDouble(latOffset).putDouble(lonOffset);
+		putByte(regions.length);
+		for (String region: regions) { putString(region); }
+		flush();
+	}
+
+	/**
+	 * Starts the record of a time step, the length of the record is written by endStep
+	 */
+	public DAABinaryWriter beginStep (double time) throws IOException {
+		addIndexEntry(position + buffer.position(), time);
+		ensure(4);
+		recordStart = position + buffer.position();
+		buffer.putInt(0); // placeholder for the length
+		return putDouble(time);
+	}
+
+	/**
+	 * Ends the record of a time step, and writes its length
+	 */
+	public void endStep () throws IOException {
+		long length = position + buffer.position() - recordStart - 4;
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("Record of step " + (nSteps - 1) + " is too large (" + length + " bytes)");
+		}
+		if (recordStart >= position) {
+			// the length is still in the buffer
+			buffer.putInt((int) (recordStart - position), (int) length);
+		} else {
+			// the record was larger than the buffer, part of it was already flushed
+			ByteBuffer len = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, (int) length);
+			long pos = recordStart;
+			while (len.hasRemaining()) { pos += channel.write(len, pos); }
+		}
+		recordStart = -1;
+		if (buffer.position() > buffer.capacity() / 2) { flush(); }
+	}
+
+	/**
+	 * Appends a step record copied from another file with the same header, e.g., a segment written by a worker
+	 */
+	public void appendStep (double time, ByteBuffer record) throws IOException {
+		addIndexEntry(position + buffer.position(), time);
+		putInt(record.remaining());
+		flush();
+		ByteBuffer src = record.duplicate();
+		while (src.hasRemaining()) { position += channel.write(src); }
+	}
+
+	/**
+	 * Appends all steps of the given file, which must have been written with the same settings
+	 */
+	public void appendSteps (String fname) throws IOException {
+		try (DAABinaryReader reader = new DAABinaryReader(fname)) {
+			for (int i = 0; i < reader.size(); i++) {
+				appendStep(reader.getTime(i), reader.getRecord(i));
+			}
+		}
+	}
+
+	/**
+	 * Number of steps written so far
+	 */
+	public int size () {
+		return nSteps;
+	}
+
+	public DAABinaryWriter putByte (int val) throws IOException {
+		ensure(1);
+		buffer.put((byte) val);
+		return this;
+	}
+	public DAABinaryWriter putBoolean (boolean val) throws IOException {
+		return putByte(val ? 1 : 0);
+	}
+	public DAABinaryWriter putInt (int val) throws IOException {
+		ensure(4);
+		buffer.putInt(val);
+		return this;
+	}
+	public DAABinaryWriter putLong (long val) throws IOException {
+		ensure(8);
+		buffer.putLong(val);
+		return this;
+	}
+	public DAABinaryWriter putDouble (double val) throws IOException {
+		ensure(8);
+		buffer.putDouble(val);
+		return this;
+	}
+	public DAABinaryWriter putString (String str) throws IOException {
+		byte[] bytes = (str != null ? str : "").getBytes(StandardCharsets.UTF_8);
+		int len = Math.min(bytes.length, 0xFFFF);
+		// do not split a multi-byte character: move back to the first byte of the character (continuation bytes are 10xxxxxx)
+		while (len < bytes.length && len > 0 && (bytes[len] & 0xC0) == 0x80) { len--; }
+		ensure(2 + len);
+		buffer.putShort((short) len);
+		buffer.put(bytes, 0, len);
+		return this;
+	}
+
+	/**
+	 * Utility function, adds the offset and time of a new record to the index
+	 */
+	protected void addIndexEntry (long offset, double time) {
+		if (nSteps == offsets.length) {
+			offsets = Arrays.copyOf(offsets, 2 * nSteps);
+			times = Arrays.copyOf(times, 2 * nSteps);
+		}
+		offsets[nSteps] = offset;
+		times[nSteps] = time;
+		nSteps++;
+	}
+
+	/**
+	 * Utility function, makes room for n bytes in the buffer
+	 */
+	protected void ensure (int n) throws IOException {
+		if (buffer.remaining() >= n) { return; }
+		flush();
+		if (buffer.remaining() < n) {
+			buffer = ByteBuffer.allocate(Math.max(2 * buffer.capacity(), n)).order(ByteOrder.LITTLE_ENDIAN);
+		}
+	}
+
+	/**
+	 * Utility function, writes the content of the buffer to the file
+	 */
+	protected void flush () throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) { position += channel.write(buffer); }
+		buffer.clear();
+	}
+
+	/**
+	 * Writes the index and the footer, and closes the file
+	 */
+	@Override
+	public void close () throws IOException {
+		if (channel == null) { return; }
+		long indexOffset = position + buffer.position();
+		for (int i = 0; i < nSteps; i++) { putLong(offsets[i]); }
+		for (int i = 0; i < nSteps; i++) { putDouble(times[i]); }
+		putLong(indexOffset).putInt(nSteps).putInt(MAGIC);
+		flush();
+		channel.close();
+		channel = null;
+	}
+}
@@ -0,0 +1,323 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Time index of a chunk file written by DAABandsV2 (.ownship, .hd-bands, .contours, ...), 
+ * and random-access reader that fetches the records of a time or time range without scanning the chunk file.
+ * The index is stored in a sidecar file <chunk>.idx, little-endian:
+ * <pre>
+ * header: int MAGIC, int VERSION, int n
+ * entry:  n x (double time, long offset, int length), offset and length in bytes of the record in the chunk file
+ * </pre>
+ * Chunk files contain one record per line, each record starts with { "time": T, entries are sorted by time.
+ * Usage: java DAAChunkIndex <chunk file> [time [to]]
+ */
+public class DAAChunkIndex implements Closeable {
+	public static final int MAGIC = 0x49414144; // "DAAI"
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 12;
+	public static final int ENTRY_SIZE = 20;
+	public static final String EXT = ".idx";
+
+	protected final String chunk;
+	protected double[] times;
+	protected long[] offsets;
+	protected int[] lengths;
+	protected int size = 0;
+	protected RandomAccessFile file = null;
+
+	protected DAAChunkIndex (String chunk) {
+		this.chunk = chunk;
+		times = new double[1024];
+		offsets = new long[1024];
+		lengths = new int[1024];
+	}
+
+	/**
+	 * Scans the chunk file and writes its index to <chunk>.idx
+	 */
+	public static DAAChunkIndex build (String chunk) throws IOException {
+		DAAChunkIndex index = scan(chunk);
+		index.write(chunk + EXT);
+		return index;
+	}
+
+	/**
+	 * Opens the chunk file for reading, using the index in <chunk>.idx. 
+	 * If the index is missing or older than the chunk file, the chunk file is scanned to rebuild the index in memory.
+	 */
+	public static DAAChunkIndex open (String chunk) throws IOException {
+		File idx = new File(chunk + EXT);
+		DAAChunkIndex index = idx.exists() && idx.lastModified() >= new File(chunk).lastModified() ? 
+			read(chunk, idx.getPath()) : scan(chunk);
+		index.file = new RandomAccessFile(chunk, "r");
+		return index;
+	}
+
+	/**
+	 * Number of records in the chunk file
+	 */
+	public int size () {
+		return size;
+	}
+
+	/**
+	 * Time of record i
+	 */
+	public double getTime (int i) {
+		return times[i];
+	}
+
+	/**
+	 * Index of the last record with time <= the given time, -1 if the given time precedes the first record
+	 */
+	public int indexOf (double time) {
+		int i = Arrays.binarySearch(times, 0, size, time);
+		if (i >= 0) {
+			// in the unlikely case of duplicate times, the last record is returned
+			while (i + 1 < size && times[i + 1] == time) { i++; }
+			return i;
+		}
+		return -i - 2;
+	}
+
+	/**
+	 * Returns record i
+	 */
+	public String getRecord (int i) throws IOException {
+		return read(offsets[i], lengths[i]);
+	}
+
+	/**
+	 * Returns the record for the given time, i.e., the last record with time <= the given time, or null if there is no such record
+	 */
+	public String getRecord (double time) throws IOException {
+		int i = indexOf(time);
+		return i >= 0 ? getRecord(i) : null;
+	}
+
+	/**
+	 * Returns the records with time in [from, to], the records are read from the chunk file with a single read
+	 */
+	public List<String> getRecords (double from, double to) throws IOException {
+		List<String> res = new ArrayList<String>();
+		int first = indexOf(from);
+		if (first < 0 || times[first] < from) { first++; }
+		int last = indexOf(to);
+		if (first > last) { return res; }
+		long start = offsets[first];
+		long end = offsets[last] + lengths[last];
+		if (end - start > Integer.MAX_VALUE) {
+			for (int i = first; i <= last; i++) { res.add(getRecord(i)); }
+			return res;
+		}
+		byte[] bytes = new byte[(int) (end - start)];
+		synchronized (this) {
+			file.seek(start);
+			file.readFully(bytes);
+		}
+		for (int i = first; i <= last; i++) {
+			res.add(new String(bytes, (int) (offsets[i] - start), lengths[i], StandardCharsets.UTF_8));
+		}
+		return res;
+	}
+
+	@Override
+	public void close () throws IOException {
+		if (file != null) { file.close(); }
+	}
+
+	/**
+	 * Utility function, reads 'length' bytes at 'offset' in the chunk file
+	 */
+	protected synchronized String read (long offset, int length) throws IOException {
+		byte[] bytes = new byte[length];
+		file.seek(offset);
+		file.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Utility function, adds an entry to the index
+	 */
+	protected void add (double time, long offset, int length) {
+		if (size == times.length) {
+			times = Arrays.copyOf(times, 2 * size);
+			offsets = Arrays.copyOf(offsets, 2 * size);
+			lengths = Arrays.copyOf(lengths, 2 * size);
+		}
+		times[size] = time;
+		offsets[size] = offset;
+		lengths[size] = length;
+		size++;
+	}
+
+	/**
+	 * Utility function, builds the index by scanning the lines of the chunk file
+	 */
+	protected static DAAChunkIndex scan (String chunk) throws IOException {
+		DAAChunkIndex index = new DAAChunkIndex(chunk);
+		try (InputStream in = new FileInputStream(chunk)) {
+			byte[] buffer = new byte[1 << 16];
+			byte[] line = new byte[256]; // only the beginning of each line is retained, to parse the time
+			int len = 0; // length of the current line
+			byte last = 0; // last byte of the current line
+			long offset = 0; // offset of the current line
+			long pos = 0; // offset of buffer[0]
+			int n = in.read(buffer);
+			while (n > 0) {
+				for (int k = 0; k < n; k++) {
+					byte c = buffer[k];
+					if (c == '\n') {
+						int rlen = len > 0 && last == '\r' ? len - 1 : len;
+						if (rlen > 0) { index.add(parseTime(line, Math.min(rlen, line.length)), offset, rlen); }
+						offset = pos + k + 1;
+						len = 0;
+					} else {
+						if (len < line.length) { line[len] = c; }
+						last = c;
+						len++;
+					}
+				}
+				pos += n;
+				n = in.read(buffer);
+			}
+			if (len > 0) { index.add(parseTime(line, Math.min(len, line.length)), offset, len); }
+		}
+		return index;
+	}
+
+	/**
+	 * Utility function, parses the time at the beginning of a record, i.e., { "time": T, ...
+	 */
+	protected static double parseTime (byte[] line, int len) {
+		String str = new String(line, 0, len, StandardCharsets.UTF_8);
+		int start = str.indexOf("\"time\":");
+		if (start < 0) { return Double.NaN; }
+		start += 7;
+		while (start < str.length() && (str.charAt(start) == ' ' || str.charAt(start) == '"')) { start++; }
+		int end = start;
+		while (end < str.length() && ",}\" ".indexOf(str.charAt(end)) < 0) { end++; }
+		try {
+			return Double.parseDouble(str.substring(start, end));
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Utility function, writes the index to file 'fname'
+	 */
+	protected void write (String fname) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + ENTRY_SIZE * size).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(size);
+		for (int i = 0; i < size; i++) {
+			buffer.putDouble(times[i]).putLong(offsets[i]).putInt(lengths[i]);
+		}
+		try (BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(fname))) {
+			out.write(buffer.array());
+		}
+	}
+
+	/**
+	 * Utility function, reads the index from file 'fname'
+	 */
+	protected static DAAChunkIndex read (String chunk, String fname) throws IOException {
+		byte[] bytes;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fname)))) {
+			bytes = new byte[(int) new File(fname).length()];
+			in.readFully(bytes);
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		if (bytes.length < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+			throw new IOException(fname + " is not a valid index file");
+		}
+		int n = buffer.getInt();
+		if (bytes.length < HEADER_SIZE + (long) ENTRY_SIZE * n) {
+			throw new IOException(fname + " is truncated");
+		}
+		DAAChunkIndex index = new DAAChunkIndex(chunk);
+		index.times = new double[Math.max(n, 1)];
+		index.offsets = new long[Math.max(n, 1)];
+		index.lengths = new int[Math.max(n, 1)];
+		for (int i = 0; i < n; i++) {
+			index.add(buffer.getDouble(), buffer.getLong(), buffer.getInt());
+		}
+		return index;
+	}
+
+	public static void main (String[] args) {
+		if (args.length < 1) {
+			System.out.println("Usage: java DAAChunkIndex <chunk file> [time [to]]");
+			return;
+		}
+		try (DAAChunkIndex index = open(args[0])) {
+			if (args.length == 1) {
+				System.out.println(args[0] + ": " + index.size() + " records" 
+					+ (index.size() > 0 ? ", time range [" + index.getTime(0) + ", " + index.getTime(index.size() - 1) + "]" : ""));
+			} else if (args.length == 2) {
+				System.out.println(index.getRecord(Double.parseDouble(args[1])));
+			} else {
+				for (String str : index.getRecords(Double.parseDouble(args[1]), Double.parseDouble(args[2]))) {
+					System.out.println(str);
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("** Error: " + e);
+			System.exit(1);
+		}
+	}
+}
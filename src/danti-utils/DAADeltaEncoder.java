@@ -0,0 +1,156 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Delta encoding of the records produced by DAABandsV2, used when the delta output mode is enabled.
+ * Each record has the form { "time": T, <body> }. When the body of a record is identical to the body of the previous 
+ * full record of the same section, the record is replaced by the marker { "time": T, "unchanged": S }, 
+ * where S is the time of the full record. The Info object in the header is marked with "delta": true.
+ * The expander restores the original output, byte for byte, from a delta-encoded output file or chunk file.
+ * Usage: java DAADeltaEncoder <delta file> [<output file>]
+ */
+public class DAADeltaEncoder {
+	public static final String PREFIX = "{ \"time\": ";
+	public static final String MARKER = ", \"unchanged\": ";
+	public static final String INFO_FLAG = ", \"delta\": true";
+
+	protected final String[] bodies; // body of the last full record of each section
+	protected final String[] times; // time of the last full record of each section
+
+	/**
+	 * Creates an encoder for the given number of sections
+	 */
+	public DAADeltaEncoder (int nSections) {
+		bodies = new String[nSections];
+		times = new String[nSections];
+	}
+
+	/**
+	 * Forgets the previous records, the next record of each section is emitted in full
+	 */
+	public void reset () {
+		for (int i = 0; i < bodies.length; i++) {
+			bodies[i] = null;
+			times[i] = null;
+		}
+	}
+
+	/**
+	 * Returns the record, or the unchanged marker if the body of the record is the same as the previous full record of the section
+	 */
+	public String encode (int section, String record) {
+		int sep = bodyStart(record);
+		if (sep < 0) { return record; }
+		if (bodies[section] != null && record.regionMatches(sep, bodies[section], 0, bodies[section].length()) 
+				&& record.length() - sep == bodies[section].length()) {
+			return record.substring(0, sep) + MARKER + times[section] + " }";
+		}
+		bodies[section] = record.substring(sep);
+		times[section] = record.substring(PREFIX.length(), sep);
+		return record;
+	}
+
+	/**
+	 * Utility function, returns the index of the first character after the time, -1 if the record does not start with a time
+	 */
+	protected static int bodyStart (String record) {
+		if (!record.startsWith(PREFIX)) { return -1; }
+		int sep = record.indexOf(',', PREFIX.length());
+		return sep;
+	}
+
+	/**
+	 * Expands a delta-encoded file. Works with the combined output file and with chunk files.
+	 * The state is reset at the beginning of each array, so each array is expanded independently.
+	 */
+	public static void expand (BufferedReader in, PrintWriter out) throws IOException {
+		String body = null;
+		String str = in.readLine();
+		while (str != null) {
+			if (str.endsWith("[")) {
+				body = null;
+			} else if (str.startsWith("\"Info\": {") && str.contains(INFO_FLAG)) {
+				str = str.replace(INFO_FLAG, "");
+			} else {
+				int sep = bodyStart(str);
+				if (sep >= 0) {
+					if (str.startsWith(MARKER, sep)) {
+						boolean comma = str.endsWith(",");
+						if (body == null) {
+							throw new IOException("Unchanged marker without a previous full record: " + str);
+						}
+						str = str.substring(0, sep) + body + (comma ? "," : "");
+					} else {
+						body = str.endsWith(",") ? str.substring(sep, str.length() - 1) : str.substring(sep);
+					}
+				}
+			}
+			out.println(str);
+			str = in.readLine();
+		}
+	}
+	public static void expand (String ifname, String ofname) throws IOException {
+		try (BufferedReader in = new BufferedReader(new FileReader(ifname));
+				PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(ofname)))) {
+			expand(in, out);
+		}
+	}
+
+	public static void main (String[] args) {
+		if (args.length < 1) {
+			System.out.println("Usage: java DAADeltaEncoder <delta file> [<output file>]");
+			return;
+		}
+		String ofname = args.length > 1 ? args[1] : args[0] + ".expanded";
+		try {
+			expand(args[0], ofname);
+			System.out.println("Expanded file: " + ofname);
+		} catch (IOException e) {
+			System.err.println("** Error: " + e);
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,241 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+import java.io.IOException;
+import java.util.Random;
+
+import gov.nasa.larcfm.Util.f;
+
+/**
+ * Fixed-precision formatter for the numbers printed by DAABandsV2, DAABandsREPLV2 and DAA2Json.
+ * Values are written directly into a StringBuilder or Appendable, and the output is the same as f.FmPrecision(val, precision).
+ * Numbers are printed from a long when the scaled value is small enough to be rounded exactly
+ * (this covers times, speeds, altitudes at the usual precisions), and from the shortest decimal 
+ * representation of the double when precision is 16 (this covers lat/lon). 
+ * All other cases, and values close to a rounding tie, are delegated to f.FmPrecision.
+ * The first time a precision is used, the fast paths are checked against f.FmPrecision on a few probe values;
+ * if the results differ, all values with that precision are delegated to f.FmPrecision.
+ */
+public final class DAAFormatter {
+	protected static final int MAX_PRECISION = 16;
+	// largest scaled value printed from a long, the rounding error of val * 10^precision stays well below 2^-8
+	protected static final double MAX_SCALED = 0x1p43;
+	// values whose fractional part is closer than this to 0.5 are delegated to f.FmPrecision
+	protected static final double TIE_MARGIN = 0x1p-8;
+	protected static final long[] POW10 = new long[MAX_PRECISION + 1];
+	static {
+		POW10[0] = 1;
+		for (int i = 1; i < POW10.length; i++) { POW10[i] = POW10[i - 1] * 10; }
+	}
+	// 0 = not checked yet, 1 = fast paths enabled, 2 = delegate to f.FmPrecision
+	protected static final byte[] status = new byte[MAX_PRECISION + 1];
+	protected static final double[] probes = { 
+		0, 3, 0.1, 1.5, -2.3, 37.1, 123.456, -97.76543211, 1234.5678, 0.000123, 39.95678901234567, -75.2
+	};
+
+	// per-thread buffer used by format and by append on an Appendable, so only the result string is allocated
+	protected static final ThreadLocal<StringBuilder> scratch = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
+	private DAAFormatter () { }
+
+	/**
+	 * Returns val formatted with the given precision, same as f.FmPrecision(val, precision)
+	 */
+	public static String format (double val, int precision) {
+		if (!enabled(precision)) { return f.FmPrecision(val, precision); }
+		StringBuilder sb = scratch.get();
+		sb.setLength(0);
+		if (!appendFast(sb, val, precision)) { return f.FmPrecision(val, precision); }
+		return sb.toString();
+	}
+
+	/**
+	 * Appends val formatted with the given precision to sb, same as sb.append(f.FmPrecision(val, precision))
+	 */
+	public static StringBuilder append (StringBuilder sb, double val, int precision) {
+		if (!enabled(precision) || !appendFast(sb, val, precision)) {
+			sb.append(f.FmPrecision(val, precision));
+		}
+		return sb;
+	}
+
+	/**
+	 * Appends val formatted with the given precision to out, same as out.append(f.FmPrecision(val, precision))
+	 */
+	public static <T extends Appendable> T append (T out, double val, int precision) throws IOException {
+		if (out instanceof StringBuilder) {
+			append((StringBuilder) out, val, precision);
+			return out;
+		}
+		StringBuilder sb = scratch.get();
+		sb.setLength(0);
+		out.append(append(sb, val, precision));
+		return out;
+	}
+
+	/**
+	 * Returns true if the fast paths can be used for the given precision
+	 */
+	protected static boolean enabled (int precision) {
+		if (precision < 0 || precision > MAX_PRECISION) { return false; }
+		if (status[precision] == 0) {
+			boolean ok = true;
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < probes.length && ok; i++) {
+				sb.setLength(0);
+				ok = !appendFast(sb, probes[i], precision) || sb.toString().equals(f.FmPrecision(probes[i], precision));
+			}
+			status[precision] = ok ? (byte) 1 : (byte) 2;
+		}
+		return status[precision] == 1;
+	}
+
+	/**
+	 * Appends val to sb and returns true, or returns false without modifying sb when the value needs to be delegated
+	 */
+	protected static boolean appendFast (StringBuilder sb, double val, int precision) {
+		if (Double.isNaN(val) || Double.isInfinite(val)) { return false; }
+		double abs = Math.abs(val);
+		if (precision < MAX_PRECISION) {
+			double scaled = abs * POW10[precision];
+			if (scaled < MAX_SCALED) {
+				return appendScaled(sb, val, scaled, precision);
+			}
+			return false;
+		}
+		return appendShortest(sb, val, precision);
+	}
+
+	/**
+	 * Rounds the scaled value half-up and prints it as a long
+	 */
+	protected static boolean appendScaled (StringBuilder sb, double val, double scaled, int precision) {
+		double floor = Math.floor(scaled);
+		double frac = scaled - floor;
+		if (Math.abs(frac - 0.5) < TIE_MARGIN) { return false; }
+		long digits = (long) floor + (frac > 0.5 ? 1 : 0);
+		if (Double.doubleToRawLongBits(val) < 0) {
+			// negative values that round to zero are printed with or without sign depending on the formatter
+			if (digits == 0) { return false; }
+			sb.append('-');
+		}
+		long ip = digits / POW10[precision];
+		sb.append(ip);
+		if (precision > 0) {
+			sb.append('.');
+			long fp = digits - ip * POW10[precision];
+			for (int i = precision - 1; i > 0 && fp < POW10[i]; i--) { sb.append('0'); }
+			sb.append(fp);
+		}
+		return true;
+	}
+
+	/**
+	 * Prints the shortest decimal representation of val, padded with zeros up to the given precision.
+	 * Values that need rounding, or are printed in scientific notation, are delegated.
+	 */
+	protected static boolean appendShortest (StringBuilder sb, double val, int precision) {
+		if (val == 0 && Double.doubleToRawLongBits(val) < 0) { return false; }
+		String str = Double.toString(val);
+		if (str.indexOf('E') >= 0) { return false; }
+		int dot = str.indexOf('.');
+		int nfrac = str.length() - dot - 1;
+		if (nfrac > precision) { return false; }
+		sb.append(str);
+		for (int i = nfrac; i < precision; i++) { sb.append('0'); }
+		return true;
+	}
+
+	/**
+	 * Checks the output of DAAFormatter against f.FmPrecision on random values, 
+	 * and compares the time taken by the two formatters.
+	 * Usage: java DAAFormatter [-n <number of values>] [-precision <p>]
+	 */
+	public static void main (String[] args) {
+		int n = 1000000;
+		int[] precisions = { 0, 2, 4, 6, 10, 16 };
+		for (int a = 0; a < args.length; a++) {
+			if (args[a].startsWith("-n") && a + 1 < args.length) {
+				n = Integer.parseInt(args[++a]);
+			} else if (args[a].startsWith("-prec") && a + 1 < args.length) {
+				precisions = new int[] { Integer.parseInt(args[++a]) };
+			}
+		}
+		Random rnd = new Random(0);
+		double[] values = new double[n];
+		for (int i = 0; i < n; i++) {
+			switch (i % 4) {
+				case 0: values[i] = rnd.nextDouble() * 360 - 180; break; // lat/lon, angles
+				case 1: values[i] = rnd.nextDouble() * 50000; break; // altitudes
+				case 2: values[i] = rnd.nextGaussian() * 500; break; // speeds, vertical rates
+				default: values[i] = Math.round(rnd.nextDouble() * 1e4) / 100.0; break; // times and values with few digits
+			}
+		}
+		int errors = 0;
+		for (int precision : precisions) {
+			StringBuilder sb = new StringBuilder(64);
+			for (int i = 0; i < n; i++) {
+				sb.setLength(0);
+				String expected = f.FmPrecision(values[i], precision);
+				String actual = append(sb, values[i], precision).toString();
+				if (!expected.equals(actual)) {
+					if (errors++ < 10) {
+						System.out.println("** Mismatch: " + values[i] + " precision " + precision 
+							+ " expected " + expected + " actual " + actual);
+					}
+				}
+			}
+			long len = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < n; i++) { len += f.FmPrecision(values[i], precision).length(); }
+			long tf = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				sb.setLength(0);
+				len += append(sb, values[i], precision).length();
+			}
+			long td = System.nanoTime() - start;
+			System.out.println("precision " + precision + (enabled(precision) ? "" : " (delegated)") 
+				+ ": f.FmPrecision " + f.FmPrecision(tf / (double) n, 1) + "ns/value"
+				+ ", DAAFormatter " + f.FmPrecision(td / (double) n, 1) + "ns/value"
+				+ ", speedup " + f.FmPrecision(tf / (double) Math.max(td, 1), 1) + "x"
+				+ (len < 0 ? "" : ""));
+		}
+		System.out.println(errors == 0 ? "All values match f.FmPrecision" : "** " + errors + " mismatches");
+	}
+}
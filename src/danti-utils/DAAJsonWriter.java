@@ -0,0 +1,163 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.io.PrintWriter;
+
+import gov.nasa.larcfm.Util.f;
+
+/**
+ * Streaming JSON writer used by DAABandsV2 to build output records.
+ * Text is appended to a single buffer that is reused across records and time steps, 
+ * which avoids the quadratic copying of repeated string concatenation.
+ * The writer does not add any whitespace: callers are responsible for the exact layout of the records.
+ * Instances are not thread-safe, each worker should use its own writer.
+ */
+public class DAAJsonWriter {
+	protected StringBuilder buffer;
+
+	/**
+	 * Constructors
+	 */
+	public DAAJsonWriter () { this(4096); }
+	public DAAJsonWriter (int capacity) {
+		buffer = new StringBuilder(capacity);
+	}
+
+	/**
+	 * Clears the buffer, the allocated memory is retained
+	 */
+	public DAAJsonWriter reset () {
+		buffer.setLength(0);
+		return this;
+	}
+
+	/**
+	 * Appends text as is
+	 */
+	public DAAJsonWriter raw (String str) {
+		buffer.append(str);
+		return this;
+	}
+	public DAAJsonWriter raw (char c) {
+		buffer.append(c);
+		return this;
+	}
+	public DAAJsonWriter raw (boolean b) {
+		buffer.append(b);
+		return this;
+	}
+	public DAAJsonWriter raw (Object obj) {
+		buffer.append(obj);
+		return this;
+	}
+	public DAAJsonWriter raw (int i) {
+		buffer.append(f.Fmi(i));
+		return this;
+	}
+
+	/**
+	 * Appends a key, i.e., "label": 
+	 */
+	public DAAJsonWriter key (String label) {
+		buffer.append('"').append(label).append("\": ");
+		return this;
+	}
+
+	/**
+	 * Appends a string enclosed in double quotes
+	 */
+	public DAAJsonWriter quoted (String str) {
+		buffer.append('"').append(str).append('"');
+		return this;
+	}
+
+	/**
+	 * Appends a key and a string value, i.e., "label": "str"
+	 */
+	public DAAJsonWriter string (String label, String str) {
+		return key(label).quoted(str);
+	}
+
+	/**
+	 * Appends a key and an integer value, i.e., "label": val
+	 */
+	public DAAJsonWriter integer (String label, int val) {
+		return key(label).raw(val);
+	}
+
+	/**
+	 * Appends a number with the given precision, same as f.FmPrecision(val, precision)
+	 */
+	public DAAJsonWriter number (double val, int precision) {
+		DAAFormatter.append(buffer, val, precision);
+		return this;
+	}
+
+	/**
+	 * Appends a number with the given precision, enclosed in double quotes
+	 */
+	public DAAJsonWriter quotedNumber (double val, int precision) {
+		buffer.append('"');
+		number(val, precision);
+		buffer.append('"');
+		return this;
+	}
+
+	/**
+	 * Number of characters in the buffer
+	 */
+	public int length () {
+		return buffer.length();
+	}
+
+	/**
+	 * Writes the content of the buffer on 'out', without creating intermediate strings
+	 */
+	public void writeTo (PrintWriter out) {
+		out.append(buffer);
+	}
+
+	/**
+	 * Returns the content of the buffer
+	 */
+	@Override
+	public String toString () {
+		return buffer.toString();
+	}
+}
@@ -69,107 +69,28 @@ public class DAAMonitorsV2 {
 
 	protected int monitorColor[];
 
-	// preferred resolutions
-	protected double resolutionTrk;
-	protected BandsRegion regionTrk;
-	protected double resolutionGs;
-	protected BandsRegion regionGs;
-	protected double resolutionVs;
-	protected BandsRegion regionVs;
-	protected double resolutionAlt;
-	protected BandsRegion regionAlt;
-
-	// other resolutions
-	protected double resolutionTrk_other;
-	protected BandsRegion regionTrk_other;
-	protected double resolutionGs_other;
-	protected BandsRegion regionGs_other;
-	protected double resolutionVs_other;
-	protected BandsRegion regionVs_other;
-	protected double resolutionAlt_other;
-	protected BandsRegion regionAlt_other;
-
-	// current regions
-	protected BandsRegion currentRegionTrk;
-	protected BandsRegion currentRegionGs;
-	protected BandsRegion currentRegionVs;
-	protected BandsRegion currentRegionAlt;
+	// results of the current time step
+	protected DAAStepSnapshot snapshot;
 
 	protected DAAMonitorsV2 () {
 		monitorColor = new int[]{ -1, -1, -1, -1 };
-		
-		resolutionTrk = Double.NaN;
-		regionTrk = BandsRegion.UNKNOWN;
-		resolutionGs = Double.NaN;
-		regionGs = BandsRegion.UNKNOWN;
-		resolutionVs = Double.NaN;
-		regionVs = BandsRegion.UNKNOWN;
-		resolutionAlt = Double.NaN;
-		regionAlt = BandsRegion.UNKNOWN;
-
-		resolutionTrk_other = Double.NaN;
-		regionTrk_other = BandsRegion.UNKNOWN;
-		resolutionGs_other = Double.NaN;
-		regionGs_other = BandsRegion.UNKNOWN;
-		resolutionVs_other = Double.NaN;
-		regionVs_other = BandsRegion.UNKNOWN;
-		resolutionAlt_other = Double.NaN;
-		regionAlt_other = BandsRegion.UNKNOWN;
-
-		currentRegionTrk = BandsRegion.UNKNOWN;
-		currentRegionGs = BandsRegion.UNKNOWN;
-		currentRegionVs = BandsRegion.UNKNOWN;
-		currentRegionAlt = BandsRegion.UNKNOWN;
+		snapshot = null;
 	}
 
 	static int getSize() {
 		return N_MONITORS;
 	}
 
-	void check (Daidalus daa) {
-		computeResolutions(daa);
-		computeCurrentRegions(daa);
-	} 
-
-	protected void computeResolutions (Daidalus daa) {
-		boolean preferredTrk = daa.preferredHorizontalDirectionRightOrLeft();
-		resolutionTrk = daa.horizontalDirectionResolution(preferredTrk);
-		regionTrk = daa.regionOfHorizontalDirection(resolutionTrk);
-		resolutionTrk_other = daa.horizontalDirectionResolution(!preferredTrk);
-		regionTrk_other = daa.regionOfHorizontalDirection(resolutionTrk_other);
-
-		boolean preferredGs = daa.preferredHorizontalSpeedUpOrDown();
-		resolutionGs = daa.horizontalSpeedResolution(preferredGs);
-		regionGs = daa.regionOfHorizontalSpeed(resolutionGs);
-		resolutionGs_other = daa.horizontalSpeedResolution(!preferredGs);
-		regionGs_other = daa.regionOfHorizontalSpeed(resolutionGs_other);
-
-		boolean preferredVs = daa.preferredVerticalSpeedUpOrDown();
-		resolutionVs = daa.verticalSpeedResolution(preferredVs);
-		regionVs = daa.regionOfVerticalSpeed(resolutionVs);
-		resolutionVs_other = daa.verticalSpeedResolution(!preferredVs);
-		regionVs_other = daa.regionOfVerticalSpeed(resolutionVs_other);
-
-		boolean preferredAlt = daa.preferredAltitudeUpOrDown();
-		resolutionAlt = daa.altitudeResolution(preferredAlt);
-		regionAlt = daa.regionOfAltitude(resolutionAlt);
-		resolutionAlt_other = daa.altitudeResolution(!preferredAlt);
-		regionAlt_other = daa.regionOfAltitude(resolutionAlt_other);
+	/**
+	 * Checks the results of the current time step, the snapshot needs to include bands, resolutions and alerts
+	 */
+	void check (DAAStepSnapshot snapshot) {
+		this.snapshot = snapshot;
 	}
 
-	protected void computeCurrentRegions (Daidalus daa) {
-		double heading = daa.getOwnshipState().horizontalDirection();
-		currentRegionTrk = daa.regionOfHorizontalDirection(heading);
-
-		double hspeed = daa.getOwnshipState().horizontalSpeed();
-		currentRegionGs = daa.regionOfHorizontalSpeed(hspeed);
-
-		double vspeed = daa.getOwnshipState().verticalSpeed();
-		currentRegionVs = daa.regionOfVerticalSpeed(vspeed);
-
-		double alt = daa.getOwnshipState().altitude();
-		currentRegionAlt = daa.regionOfAltitude(alt);
-	}
+	void check (Daidalus daa) {
+		check(new DAAStepSnapshot(daa, DAAStepSnapshot.ALL));
+	} 
 
 	protected static String color2string (int color) {
 		switch (color) {
@@ -180,6 +101,16 @@ public class DAAMonitorsV2 {
 		}
 	}
 
+	/**
+	 * Merges the colors of another monitor into this monitor, the most severe color is retained.
+	 * Used to combine the results of segments processed in parallel.
+	 */
+	void merge (DAAMonitorsV2 monitors) {
+		for (int i = 0; i < N_MONITORS; i++) {
+			if (monitorColor[i] < monitors.monitorColor[i]) { monitorColor[i] = monitors.monitorColor[i]; }
+		}
+	}
+
 	String getColor (int monitorID) { // monitor ID starts from 1
 		int index = monitorID - 1;
 		if (index < N_MONITORS) {
@@ -219,15 +150,19 @@ public class DAAMonitorsV2 {
 
 	String m1 () {
 		int monitorIndex = 0;
-		int hr = checkM1(resolutionTrk, regionTrk);
-		int hsr = checkM1(resolutionGs, regionGs);
-		int vsr = checkM1(resolutionVs, regionVs);
-		int ar = checkM1(resolutionAlt, regionAlt);
-
-		int hr_other = checkM1(resolutionTrk_other, regionTrk_other);
-		int hsr_other = checkM1(resolutionGs_other, regionGs_other);
-		int vsr_other = checkM1(resolutionVs_other, regionVs_other);
-		int ar_other = checkM1(resolutionAlt_other, regionAlt_other);
+		DAAStepSnapshot.Dimension trk = snapshot.horizontalDirection();
+		DAAStepSnapshot.Dimension gs = snapshot.horizontalSpeed();
+		DAAStepSnapshot.Dimension vs = snapshot.verticalSpeed();
+		DAAStepSnapshot.Dimension alt = snapshot.altitude();
+		int hr = checkM1(trk.resolution, trk.resolutionRegion);
+		int hsr = checkM1(gs.resolution, gs.resolutionRegion);
+		int vsr = checkM1(vs.resolution, vs.resolutionRegion);
+		int ar = checkM1(alt.resolution, alt.resolutionRegion);
+
+		int hr_other = checkM1(trk.resolution_sec, trk.resolutionRegion_sec);
+		int hsr_other = checkM1(gs.resolution_sec, gs.resolutionRegion_sec);
+		int vsr_other = checkM1(vs.resolution_sec, vs.resolutionRegion_sec);
+		int ar_other = checkM1(alt.resolution_sec, alt.resolutionRegion_sec);
 
 		int max_color = Math.max(hr, Math.max(hsr, Math.max(vsr, Math.max(ar, Math.max(hr_other, Math.max(hsr_other, Math.max(vsr_other, ar_other)))))));
 		if (monitorColor[monitorIndex] < max_color) { monitorColor[monitorIndex] = max_color; }
@@ -248,7 +183,7 @@ public class DAAMonitorsV2 {
 	 */
 	protected int checkM2_preferred (double resolution, BandsRegion region) {
 		if (region != BandsRegion.RECOVERY) {
-			boolean exists_resolution_not_NaN = !Double.isNaN(resolutionTrk) || !Double.isNaN(resolutionGs) || !Double.isNaN(resolutionVs);// || !Double.isNaN(resolutionAlt); M2 does not apply to altitude
+			boolean exists_resolution_not_NaN = !Double.isNaN(snapshot.horizontalDirection().resolution) || !Double.isNaN(snapshot.horizontalSpeed().resolution) || !Double.isNaN(snapshot.verticalSpeed().resolution);// || !Double.isNaN(snapshot.altitude().resolution); M2 does not apply to altitude
 			if (Double.isNaN(resolution) && exists_resolution_not_NaN) {
 				return YELLOW;
 			}
@@ -258,7 +193,7 @@ public class DAAMonitorsV2 {
 
 	protected int checkM2_other (double resolution_, BandsRegion region) {
 		if (region != BandsRegion.RECOVERY) {
-			boolean exists_resolution_not_NaN = !Double.isNaN(resolutionTrk_other) || !Double.isNaN(resolutionGs_other) || !Double.isNaN(resolutionVs_other);// || !Double.isNaN(resolutionAlt_other); M2 does not apply to altitude
+			boolean exists_resolution_not_NaN = !Double.isNaN(snapshot.horizontalDirection().resolution_sec) || !Double.isNaN(snapshot.horizontalSpeed().resolution_sec) || !Double.isNaN(snapshot.verticalSpeed().resolution_sec);// || !Double.isNaN(snapshot.altitude().resolution_sec); M2 does not apply to altitude
 			if (Double.isNaN(resolution_) && exists_resolution_not_NaN) {
 				return YELLOW;
 			}
@@ -280,15 +215,18 @@ public class DAAMonitorsV2 {
 
 	String m2 () {
 		int monitorIndex = 1;
-		int hr = checkM2_preferred(resolutionTrk, currentRegionTrk);
-		int hsr = checkM2_preferred(resolutionGs, currentRegionGs);
-		int vsr = checkM2_preferred(resolutionVs, currentRegionVs);
-		int ar = GREEN; //checkM2_preferred(resolutionAlt, currentRegionAlt); M2 does not apply to altitude
-
-		int hr_other = checkM2_other(resolutionTrk_other, currentRegionTrk);
-		int hsr_other = checkM2_other(resolutionGs_other, currentRegionGs);
-		int vsr_other = checkM2_other(resolutionVs_other, currentRegionVs);
-		int ar_other = GREEN; //checkM2_other(resolutionAlt_other, currentRegionAlt); M2 does not apply to altitude
+		DAAStepSnapshot.Dimension trk = snapshot.horizontalDirection();
+		DAAStepSnapshot.Dimension gs = snapshot.horizontalSpeed();
+		DAAStepSnapshot.Dimension vs = snapshot.verticalSpeed();
+		int hr = checkM2_preferred(trk.resolution, trk.currentRegion);
+		int hsr = checkM2_preferred(gs.resolution, gs.currentRegion);
+		int vsr = checkM2_preferred(vs.resolution, vs.currentRegion);
+		int ar = GREEN; //checkM2_preferred(alt.resolution, alt.currentRegion); M2 does not apply to altitude
+
+		int hr_other = checkM2_other(trk.resolution_sec, trk.currentRegion);
+		int hsr_other = checkM2_other(gs.resolution_sec, gs.currentRegion);
+		int vsr_other = checkM2_other(vs.resolution_sec, vs.currentRegion);
+		int ar_other = GREEN; //checkM2_other(alt.resolution_sec, alt.currentRegion); M2 does not apply to altitude
 
 		int max_color = Math.max(hr, Math.max(hsr, Math.max(vsr, Math.max(ar, Math.max(hr_other, Math.max(hsr_other, Math.max(vsr_other, ar_other)))))));
 		if (monitorColor[monitorIndex] < max_color) { monitorColor[monitorIndex] = max_color; }
@@ -309,10 +247,10 @@ public class DAAMonitorsV2 {
 	 * - Traffic aircraft has a non-zero alert and the region of the current value (heading, speed) is UNKNOWN (red monitor)
 	 *   Color order is NONE < FAR < MID < NEAR < RECOVERY. 
 	 */
-	protected int checkM3 (Daidalus daa, BandsRegion currentRegion) {
-		for (int ac = 1; ac <= daa.lastTrafficIndex(); ac++) {
-			int alert = daa.alertLevel(ac);
-			int threshold = daa.getCorrectiveRegion().orderOfConflictRegion();
+	protected int checkM3 (BandsRegion currentRegion) {
+		int threshold = snapshot.correctiveRegionOrder;
+		for (int ac = 1; ac <= snapshot.lastTrafficIndex; ac++) {
+			int alert = snapshot.alertLevel(ac);
 			if (alert > threshold) {
 				if (currentRegion == BandsRegion.UNKNOWN) {
 					return RED;
@@ -340,11 +278,11 @@ public class DAAMonitorsV2 {
 		return "M3: Band(current value) ≥ Alert(traffic)";
 	}
 
-	String m3 (Daidalus daa) {
+	String m3 () {
 		int monitorIndex = 2;
-		int hb = checkM3(daa,currentRegionTrk);
-		int hsb = checkM3(daa,currentRegionGs);
-		int vsb = checkM3(daa,currentRegionVs);
+		int hb = checkM3(snapshot.horizontalDirection().currentRegion);
+		int hsb = checkM3(snapshot.horizontalSpeed().currentRegion);
+		int vsb = checkM3(snapshot.verticalSpeed().currentRegion);
 		int ab = GREEN;//checkM3(currentRegionAlt); // M2 does not apply to altitude
 
 		int max_color = Math.max(hb, Math.max(hsb, Math.max(vsb, ab)));
@@ -364,60 +302,8 @@ public class DAAMonitorsV2 {
 	 * Monitor 4: NONE and RECOVERY
 	 * NONE and RECOVERY appear in the same list of bands (yellow monitor)
 	 */
-	protected int checkM4Trk (Daidalus daa) {
-		boolean none = false;
-		boolean recovery = false;
-		for (int i = 0; i < daa.horizontalDirectionBandsLength(); i++) {
-			BandsRegion b = daa.horizontalDirectionRegionAt(i);
-			if (b == BandsRegion.NONE) {
-				none = true;
-			} else if (b == BandsRegion.RECOVERY) {
-				recovery = true;
-			}
-		}
-		return (none && recovery) ? YELLOW : GREEN;
-	}
-
-	protected int checkM4Hs (Daidalus daa) {
-		boolean none = false;
-		boolean recovery = false;
-		for (int i = 0; i < daa.horizontalSpeedBandsLength(); i++) {
-			BandsRegion b = daa.horizontalSpeedRegionAt(i);
-			if (b == BandsRegion.NONE) {
-				none = true;
-			} else if (b == BandsRegion.RECOVERY) {
-				recovery = true;
-			}
-		}
-		return (none && recovery) ? YELLOW : GREEN;
-	}
-
-	protected int checkM4Vs (Daidalus daa) {
-		boolean none = false;
-		boolean recovery = false;
-		for (int i = 0; i < daa.verticalSpeedBandsLength(); i++) {
-			BandsRegion b = daa.verticalSpeedRegionAt(i);
-			if (b == BandsRegion.NONE) {
-				none = true;
-			} else if (b == BandsRegion.RECOVERY) {
-				recovery = true;
-			}
-		}
-		return (none && recovery) ? YELLOW : GREEN;
-	}
-
-	protected int checkM4Alt (Daidalus daa) {
-		boolean none = false;
-		boolean recovery = false;
-		for (int i = 0; i < daa.altitudeBandsLength(); i++) {
-			BandsRegion b = daa.altitudeRegionAt(i);
-			if (b == BandsRegion.NONE) {
-				none = true;
-			} else if (b == BandsRegion.RECOVERY) {
-				recovery = true;
-			}
-		}
-		return (none && recovery) ? YELLOW : GREEN;
+	protected int checkM4 (DAAStepSnapshot.Dimension bands) {
+		return bands.hasNoneAndRecovery() ? YELLOW : GREEN;
 	}
 
 	protected static String legendM4 () {
@@ -432,12 +318,12 @@ public class DAAMonitorsV2 {
 		return "M4: It is never the case that NONE and RECOVERY appear in the same list of bands";
 	}
 
-	String m4 (Daidalus daa) {
+	String m4 () {
 		int monitorIndex = 3;
-		int hb = checkM4Trk(daa);
-		int hsb = checkM4Hs(daa);
-		int vsb = checkM4Vs(daa);
-		int ab = checkM4Alt(daa);
+		int hb = checkM4(snapshot.horizontalDirection());
+		int hsb = checkM4(snapshot.horizontalSpeed());
+		int vsb = checkM4(snapshot.verticalSpeed());
+		int ab = checkM4(snapshot.altitude());
 
 		int max_color = Math.max(hb, Math.max(hsb, Math.max(vsb, ab)));
 		if (monitorColor[monitorIndex] < max_color) { monitorColor[monitorIndex] = max_color; }
@@ -0,0 +1,199 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gov.nasa.larcfm.Util.EuclideanProjection;
+import gov.nasa.larcfm.Util.Position;
+import gov.nasa.larcfm.Util.Vect3;
+
+/**
+ * Douglas-Peucker simplification of the horizontal polygons computed by DAIDALUS (contours and hazard zones).
+ * Polygons are closed rings: vertices are removed only if the simplified ring stays within 'tolerance' meters 
+ * of every removed vertex, in the horizontal plane. The vertices that are kept are the original Position objects.
+ * The simplifier counts input and removed vertices, to report the size reduction at the end of a scenario.
+ */
+public class DAAPolygonSimplifier {
+	protected final double tolerance; // maximum horizontal deviation, in meters
+	protected long vertices = 0; // total number of input vertices
+	protected long removed = 0; // total number of removed vertices
+
+	public DAAPolygonSimplifier (double tolerance) {
+		this.tolerance = tolerance;
+	}
+
+	public double getTolerance () {
+		return tolerance;
+	}
+
+	/**
+	 * Simplifies each polygon in the list, the list is updated in place. 
+	 * Lat/lon positions are projected using 'po' as projection point.
+	 */
+	public void simplify (List<List<Position>> polygons, Position po) {
+		simplify(polygons, po, new DAAProjectionCache());
+	}
+	/**
+	 * Same as simplify(polygons, po), the projection is obtained from the given projection cache
+	 */
+	public void simplify (List<List<Position>> polygons, Position po, DAAProjectionCache projection) {
+		EuclideanProjection eprj = null;
+		for (int i = 0; i < polygons.size(); i++) {
+			List<Position> ply = polygons.get(i);
+			if (eprj == null && ply.size() > 3 && ply.get(0).isLatLon()) { eprj = projection.get(po); }
+			polygons.set(i, simplify(ply, eprj));
+		}
+	}
+
+	/**
+	 * Returns the simplified polygon. eprj is used to project lat/lon positions, and can be null for euclidean positions.
+	 */
+	public List<Position> simplify (List<Position> ply, EuclideanProjection eprj) {
+		int n = ply.size();
+		vertices += n;
+		if (n <= 3 || tolerance <= 0) { return ply; }
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			Position pi = ply.get(i);
+			Vect3 v = pi.isLatLon() ? eprj.project(pi) : pi.vect3();
+			x[i] = v.x;
+			y[i] = v.y;
+		}
+		// the ring is split at vertex 0 and at the vertex farthest from it, each half is simplified as an open chain
+		int far = 0;
+		double max = -1;
+		for (int i = 1; i < n; i++) {
+			double d = (x[i] - x[0]) * (x[i] - x[0]) + (y[i] - y[0]) * (y[i] - y[0]);
+			if (d > max) { max = d; far = i; }
+		}
+		boolean[] keep = new boolean[n];
+		keep[0] = true;
+		keep[far] = true;
+		simplifyChain(x, y, 0, far, keep);
+		simplifyChain(x, y, far, n, keep);
+		int kept = 0;
+		for (int i = 0; i < n; i++) {
+			if (keep[i]) { kept++; }
+		}
+		// degenerate polygons, e.g., all vertices within 'tolerance' of a line, are left unchanged
+		if (kept < 3 || kept == n) { return ply; }
+		List<Position> res = new ArrayList<Position>(kept);
+		for (int i = 0; i < n; i++) {
+			if (keep[i]) { res.add(ply.get(i)); }
+		}
+		removed += n - kept;
+		return res;
+	}
+
+	/**
+	 * Douglas-Peucker on the chain of vertices first..last, where index n denotes vertex 0 (closing edge of the ring).
+	 * An explicit stack is used, to avoid deep recursion on dense polygons.
+	 */
+	protected void simplifyChain (double[] x, double[] y, int first, int last, boolean[] keep) {
+		int n = x.length;
+		int[] stack = new int[2 * (last - first + 1)];
+		int top = 0;
+		stack[top++] = first;
+		stack[top++] = last;
+		double tol2 = tolerance * tolerance;
+		while (top > 0) {
+			int b = stack[--top];
+			int a = stack[--top];
+			if (b - a < 2) { continue; }
+			double ax = x[a], ay = y[a];
+			double bx = x[b % n], by = y[b % n];
+			int idx = -1;
+			double max = tol2;
+			for (int i = a + 1; i < b; i++) {
+				double d = distance2(x[i], y[i], ax, ay, bx, by);
+				if (d > max) { max = d; idx = i; }
+			}
+			if (idx >= 0) {
+				keep[idx] = true;
+				stack[top++] = a;
+				stack[top++] = idx;
+				stack[top++] = idx;
+				stack[top++] = b;
+			}
+		}
+	}
+
+	/**
+	 * Squared distance between point (px, py) and segment (ax, ay)-(bx, by)
+	 */
+	protected static double distance2 (double px, double py, double ax, double ay, double bx, double by) {
+		double dx = bx - ax, dy = by - ay;
+		double len2 = dx * dx + dy * dy;
+		double t = len2 > 0 ? ((px - ax) * dx + (py - ay) * dy) / len2 : 0;
+		t = Math.max(0, Math.min(1, t));
+		double ex = ax + t * dx - px, ey = ay + t * dy - py;
+		return ex * ex + ey * ey;
+	}
+
+	/**
+	 * Adds the counters of another simplifier to the counters of this simplifier, used to merge the stats of parallel workers
+	 */
+	public void add (DAAPolygonSimplifier other) {
+		vertices += other.vertices;
+		removed += other.removed;
+	}
+
+	public long getVertices () {
+		return vertices;
+	}
+
+	public long getRemoved () {
+		return removed;
+	}
+
+	public void reset () {
+		vertices = 0;
+		removed = 0;
+	}
+
+	/**
+	 * Returns a one-line summary of the simplification
+	 */
+	public String printStats () {
+		return "Polygon simplification (tolerance: " + tolerance + "m): removed " + removed + " of " + vertices + " vertices"
+			+ (vertices > 0 ? " (" + (100 * removed / vertices) + "%)" : "");
+	}
+}
@@ -41,57 +41,113 @@ import java.io.FileWriter;
 import java.io.PrintWriter;
 
 /**
- * Simple profiler utility class for computing performance stats
+ * Profiler utility class for computing performance stats.
+ * Timings are measured with System.nanoTime() and collected in fixed-memory histograms, 
+ * one for each time step and one for each phase of a time step (state read, bands computation, 
+ * polygon generation, serialization, I/O). Phases can be nested, and the time of a nested phase 
+ * is not counted in the enclosing phase. The report includes min, mean, p50, p90, p99, p99.9 and max.
  */
 
 public class DAAProfiler {
+    // phases of a time step
+    public static final int READ = 0; // read the state of ownship and traffic
+    public static final int BANDS = 1; // compute bands, alerts, resolutions and metrics
+    public static final int POLYGONS = 2; // compute contours and hazard zones
+    public static final int SERIALIZATION = 3; // write the results to json
+    public static final int IO = 4; // write the results to file or socket
+    public static final String[] PHASES = { "read", "bands", "polygons", "serialization", "io" };
+
     long start = 0; // start profiler
     long stop = 0; // stop profiler
     String message = null; // can be used to keep track of what we are profiling, e.g., "time to compute bands"
-    String collected_data = ""; // data collected by the profiler, in millis, separated by SEPARATOR. Data is collected every time the stop method is invoked
-    String SEPARATOR = " ";
-    int LIMIT = 0; // 0 = "no limit"
+
+    Histogram steps = new Histogram(); // time of each time step, from start to stop
+    Histogram[] phases = new Histogram[PHASES.length]; // time of each phase in each time step
+    long[] current = new long[PHASES.length]; // time of each phase in the current time step
+    boolean[] used = new boolean[PHASES.length]; // phases used in the current time step
+    int[] stack = new int[PHASES.length]; // active phases, the innermost is on top
+    int top = 0;
+    long last = 0; // time of the last phase change
 
     /**
      * Constructors
      */
-    DAAProfiler () { }
+    DAAProfiler () {
+        for (int i = 0; i < phases.length; i++) { phases[i] = new Histogram(); }
+    }
     DAAProfiler (String title) {
+        this();
         message = title;
     }
 
     /**
-     * start profiler
+     * start profiler, i.e., start a time step
      */
     void start () {
-        start = System.currentTimeMillis();
+        start = System.nanoTime();
+        top = 0;
+        for (int i = 0; i < current.length; i++) {
+            current[i] = 0;
+            used[i] = false;
+        }
     }
 
     /**
-     * stop profiler and collect data
+     * stop profiler and collect data of the time step
      */
     void stop () {
-        stop = System.currentTimeMillis();
-        try {
-            collected_data += String.valueOf(stop - start) + SEPARATOR;
-        } catch (Exception e) {
-            System.err.println("[DAAProfiler] Warning: Runtime exception while collecting data " + e);
+        stop = System.nanoTime();
+        while (top > 0) { stopPhase(stack[top - 1]); }
+        steps.add(stop - start);
+        for (int i = 0; i < current.length; i++) {
+            if (used[i]) { phases[i].add(current[i]); }
+        }
+    }
+
+    /**
+     * start a phase of the current time step, the enclosing phase, if any, is paused
+     */
+    void startPhase (int phase) {
+        long now = System.nanoTime();
+        if (top > 0) { current[stack[top - 1]] += now - last; }
+        if (top < stack.length) { stack[top++] = phase; }
+        used[phase] = true;
+        last = now;
+    }
+
+    /**
+     * stop a phase of the current time step, the enclosing phase, if any, is resumed
+     */
+    void stopPhase (int phase) {
+        long now = System.nanoTime();
+        if (top > 0 && stack[top - 1] == phase) {
+            current[phase] += now - last;
+            top--;
         }
+        last = now;
+    }
+
+    /**
+     * add the data collected by another profiler, e.g., the profilers of the workers in parallel batch mode
+     */
+    void merge (DAAProfiler other) {
+        steps.merge(other.steps);
+        for (int i = 0; i < phases.length; i++) { phases[i].merge(other.phases[i]); }
     }
 
     /**
      * get elapsed time, in millis
      */
     long getElapsedTime () {
-        long now = System.currentTimeMillis();
-        return now - start;
+        long now = System.nanoTime();
+        return (now - start) / 1000000;
     }
 
     /**
      * get total time, from start to stop, in millis
      */
     long getTotalTime () {
-        return stop - start;
+        return (stop - start) / 1000000;
     }
 
     /**
@@ -113,20 +169,20 @@ public class DAAProfiler {
     }
 
     /**
-     * return collected data as a string
+     * return collected data as a string, one row per phase, times in millis
      */
     String printCollectedData () {
-        String[] dt = collected_data.split(SEPARATOR, LIMIT);
         String msg = "[DAAProfiler] " + (message != null ? message : "");
-        if (dt.length > 0) {
-            for (int i = 0; i < dt.length; i++) {
-                msg += "\n" + dt[i] + "ms";
-            }
-            msg += "\n";
-        } else {
-            msg += "\nNo data collected\n";
+        if (steps.count() == 0) {
+            return msg + "\nNo data collected\n";
         }
-        return msg;
+        msg += "\n" + String.format("%-14s %8s %10s %10s %10s %10s %10s %10s %10s", 
+            "phase", "count", "min", "mean", "p50", "p90", "p99", "p99.9", "max");
+        msg += "\n" + steps.print("step");
+        for (int i = 0; i < phases.length; i++) {
+            if (phases[i].count() > 0) { msg += "\n" + phases[i].print(PHASES[i]); }
+        }
+        return msg + "\n";
     }
 
     /**
@@ -144,4 +200,75 @@ public class DAAProfiler {
         }
         return true;
     }
+
+    /**
+     * Fixed-memory histogram of durations in nanoseconds.
+     * Values below 64ns have their own bucket, larger values are grouped in 32 buckets per power of two,
+     * so the relative error of the reported percentiles is below 1.6%. Min, max and mean are exact.
+     */
+    static class Histogram {
+        static final int SUB_BUCKETS = 32;
+        static final int LINEAR = 2 * SUB_BUCKETS;
+        final long[] counts = new long[LINEAR + (64 - 6) * SUB_BUCKETS];
+        long n = 0;
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = 0;
+
+        void add (long nanos) {
+            long v = Math.max(0, nanos);
+            counts[indexOf(v)]++;
+            n++;
+            sum += v;
+            if (v < min) { min = v; }
+            if (v > max) { max = v; }
+        }
+
+        void merge (Histogram other) {
+            for (int i = 0; i < counts.length; i++) { counts[i] += other.counts[i]; }
+            n += other.n;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        long count () {
+            return n;
+        }
+
+        static int indexOf (long v) {
+            if (v < LINEAR) { return (int) v; }
+            int e = 63 - Long.numberOfLeadingZeros(v); // e >= 6
+            int m = (int) (v >>> (e - 5)); // 32 <= m < 64
+            return LINEAR + (e - 6) * SUB_BUCKETS + (m - SUB_BUCKETS);
+        }
+
+        // midpoint of the values in the bucket
+        static long valueOf (int idx) {
+            if (idx < LINEAR) { return idx; }
+            int e = (idx - LINEAR) / SUB_BUCKETS + 6;
+            long m = (idx - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+            return (m << (e - 5)) + ((1L << (e - 5)) >>> 1);
+        }
+
+        /**
+         * value at quantile q (0 < q <= 1), clamped to the exact min and max
+         */
+        long percentile (double q) {
+            if (n == 0) { return 0; }
+            long rank = Math.max(1, (long) Math.ceil(q * n));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) { return Math.max(min, Math.min(max, valueOf(i))); }
+            }
+            return max;
+        }
+
+        String print (String label) {
+            return String.format("%-14s %8d %10.3f %10.3f %10.3f %10.3f %10.3f %10.3f %10.3f", label, n, 
+                min / 1e6, (double) sum / n / 1e6, percentile(0.5) / 1e6, percentile(0.9) / 1e6, 
+                percentile(0.99) / 1e6, percentile(0.999) / 1e6, max / 1e6);
+        }
+    }
 }
@@ -0,0 +1,138 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.util.List;
+
+import gov.nasa.larcfm.Util.EuclideanProjection;
+import gov.nasa.larcfm.Util.LatLonAlt;
+import gov.nasa.larcfm.Util.Position;
+import gov.nasa.larcfm.Util.Projection;
+import gov.nasa.larcfm.Util.Vect3;
+
+/**
+ * Projection context shared by all the inverse conversions of a time step.
+ * DAIDALUS projects traffic, contours and hazard zones on the plane tangent to the ownship position,
+ * which does not change within a time step. The projection is created when the ownship position changes, 
+ * and reused by all the following conversions, instead of being created again for every vertex and aircraft.
+ * A cache is not thread-safe, each worker should use its own cache.
+ */
+public class DAAProjectionCache {
+	protected EuclideanProjection eprj = null;
+	protected boolean latlon = false;
+	protected double x = Double.NaN, y = Double.NaN, z = Double.NaN; // projection point
+	protected long created = 0; // number of projections created
+	protected long reused = 0; // number of requests served with an existing projection
+
+	/**
+	 * Returns the projection for origin po, creating it only if po is different from the origin of the previous request
+	 */
+	public EuclideanProjection get (Position po) {
+		if (eprj != null && po.isLatLon() == latlon && po.x() == x && po.y() == y && po.z() == z) {
+			reused++;
+			return eprj;
+		}
+		eprj = Projection.createProjection(po);
+		latlon = po.isLatLon();
+		x = po.x();
+		y = po.y();
+		z = po.z();
+		created++;
+		return eprj;
+	}
+
+	/**
+	 * Returns the LLA coordinates of pi, using the projection with origin po for euclidean positions
+	 */
+	public LatLonAlt inverse (Position pi, Position po) {
+		return pi.isLatLon() ? pi.lla() : get(po).inverse(pi.vect3());
+	}
+
+	/**
+	 * Returns the LLA coordinates of the projected point si, using the projection with origin po
+	 */
+	public LatLonAlt inverse (Vect3 si, Position po) {
+		return get(po).inverse(si);
+	}
+
+	/**
+	 * Batch inverse, returns the LLA coordinates of all the positions in ply, e.g., the vertices of a polygon.
+	 * The projection is looked up once for the whole list.
+	 */
+	public LatLonAlt[] inverse (List<Position> ply, Position po) {
+		LatLonAlt[] res = new LatLonAlt[ply.size()];
+		EuclideanProjection prj = null;
+		for (int i = 0; i < res.length; i++) {
+			Position pi = ply.get(i);
+			if (pi.isLatLon()) {
+				res[i] = pi.lla();
+			} else {
+				if (prj == null) { prj = get(po); }
+				res[i] = prj.inverse(pi.vect3());
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * Batch inverse, returns the LLA coordinates of the projected points in si, e.g., the positions of all aircraft
+	 */
+	public LatLonAlt[] inverse (Vect3[] si, Position po) {
+		LatLonAlt[] res = new LatLonAlt[si.length];
+		EuclideanProjection prj = get(po);
+		for (int i = 0; i < res.length; i++) {
+			res[i] = prj.inverse(si[i]);
+		}
+		return res;
+	}
+
+	/**
+	 * Forgets the current projection, the next request creates a new one
+	 */
+	public void reset () {
+		eprj = null;
+	}
+
+	public long getCreated () {
+		return created;
+	}
+
+	public long getReused () {
+		return reused;
+	}
+}
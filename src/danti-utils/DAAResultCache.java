@@ -0,0 +1,262 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Persistent, content-addressed cache of the output files produced by DAABandsV2.
+ * The key of an entry is the SHA-256 hash of the input .daa file and of the settings that affect the output 
+ * (configuration parameters, alerter, wind, precision, DAIDALUS version, output options).
+ * Each entry is a folder <cache>/<key> with the output files and a file entry.properties with the entry metadata.
+ * When the total size of the cache exceeds the limit, the least recently used entries are evicted. 
+ * Hits, misses, stores and evictions are recorded in <cache>/cache.stats.
+ * The cache can be shared by the workers of the same process.
+ */
+public class DAAResultCache {
+	protected static final String ENTRY = "entry.properties";
+	protected static final String STATS = "cache.stats";
+	protected static final String OUTPUT = "output"; // name of the output files in an entry, followed by the suffix of each file
+
+	protected final File folder;
+	protected long maxSize; // bytes
+
+	/**
+	 * Creates a cache in the given folder, with the given size limit in bytes
+	 */
+	public DAAResultCache (String folder, long maxSize) {
+		this.folder = new File(folder);
+		this.folder.mkdirs();
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the key of an entry: SHA-256 of the content of the input file and of the settings
+	 */
+	public static String key (String ifname, String settings) throws IOException {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			try (InputStream in = new FileInputStream(ifname)) {
+				byte[] buffer = new byte[1 << 16];
+				int n = in.read(buffer);
+				while (n > 0) {
+					md.update(buffer, 0, n);
+					n = in.read(buffer);
+				}
+			}
+			md.update((byte) 0);
+			md.update(settings.getBytes(StandardCharsets.UTF_8));
+			StringBuilder sb = new StringBuilder();
+			for (byte b : md.digest()) { sb.append(String.format("%02x", b)); }
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Copies the output files of entry 'key' to ofname + suffix, and returns the metadata of the entry, or null on a cache miss.
+	 * References to the output file name in .files are updated if the output file name is different from the cached one.
+	 */
+	public synchronized Properties restore (String key, String ofname) {
+		File dir = new File(folder, key);
+		File entry = new File(dir, ENTRY);
+		Properties meta = entry.exists() ? readProperties(entry) : null;
+		if (meta == null) {
+			updateStats("misses", 1);
+			return null;
+		}
+		try {
+			String basename = new File(ofname).getName();
+			String cachedName = meta.getProperty("basename", basename);
+			for (String suffix : meta.getProperty("suffixes", "").split(",", -1)) {
+				File target = new File(ofname + suffix);
+				Files.copy(new File(dir, OUTPUT + suffix).toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				if (suffix.equals(".files") && !cachedName.equals(basename)) {
+					String content = new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8);
+					content = content.replace("\"file\": \"" + cachedName, "\"file\": \"" + basename);
+					Files.write(target.toPath(), content.getBytes(StandardCharsets.UTF_8));
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("** Error: " + e);
+			updateStats("misses", 1);
+			return null;
+		}
+		// the modification time of the entry file is used for LRU eviction
+		entry.setLastModified(System.currentTimeMillis());
+		updateStats("hits", 1);
+		return meta;
+	}
+
+	/**
+	 * Stores the files ofname + suffix in entry 'key', together with the given metadata, and evicts old entries if needed
+	 */
+	public synchronized boolean store (String key, String ofname, List<String> suffixes, Properties meta) {
+		File dir = new File(folder, key);
+		if (new File(dir, ENTRY).exists()) { return true; }
+		File tmp = new File(folder, key + ".tmp");
+		try {
+			deleteFolder(tmp);
+			tmp.mkdirs();
+			long size = 0;
+			for (String suffix : suffixes) {
+				File source = new File(ofname + suffix);
+				Files.copy(source.toPath(), new File(tmp, OUTPUT + suffix).toPath(), StandardCopyOption.REPLACE_EXISTING);
+				size += source.length();
+			}
+			meta.setProperty("basename", new File(ofname).getName());
+			meta.setProperty("suffixes", String.join(",", suffixes));
+			meta.setProperty("size", Long.toString(size));
+			writeProperties(new File(tmp, ENTRY), meta);
+			deleteFolder(dir);
+			if (!tmp.renameTo(dir)) { throw new IOException("Cannot rename " + tmp + " to " + dir); }
+		} catch (IOException e) {
+			System.err.println("** Error: " + e);
+			deleteFolder(tmp);
+			return false;
+		}
+		updateStats("stores", 1);
+		evict();
+		return true;
+	}
+
+	/**
+	 * Evicts the least recently used entries until the size of the cache is below the limit
+	 */
+	public synchronized void evict () {
+		List<File> entries = listEntries();
+		long total = 0;
+		for (File dir : entries) { total += entrySize(dir); }
+		entries.sort(Comparator.comparingLong((File dir) -> new File(dir, ENTRY).lastModified()));
+		int evicted = 0;
+		for (int i = 0; i < entries.size() && total > maxSize; i++) {
+			total -= entrySize(entries.get(i));
+			deleteFolder(entries.get(i));
+			evicted++;
+		}
+		if (evicted > 0) { updateStats("evictions", evicted); }
+	}
+
+	/**
+	 * Returns the cache statistics, as a human-readable string
+	 */
+	public synchronized String printStats () {
+		List<File> entries = listEntries();
+		long total = 0;
+		for (File dir : entries) { total += entrySize(dir); }
+		Properties stats = readStats();
+		long hits = Long.parseLong(stats.getProperty("hits", "0"));
+		long misses = Long.parseLong(stats.getProperty("misses", "0"));
+		return "Cache folder: " + folder.getAbsolutePath() + "\n"
+			+ "Entries: " + entries.size() + ", size: " + String.format("%.1f", total / 1048576.0) + "MB, limit: " + String.format("%.1f", maxSize / 1048576.0) + "MB\n"
+			+ "Hits: " + hits + ", misses: " + misses 
+			+ ", hit rate: " + (hits + misses > 0 ? (100 * hits / (hits + misses)) + "%" : "n/a") + "\n"
+			+ "Stores: " + stats.getProperty("stores", "0") + ", evictions: " + stats.getProperty("evictions", "0");
+	}
+
+	/**
+	 * Removes all entries and statistics
+	 */
+	public synchronized void clear () {
+		for (File dir : listEntries()) { deleteFolder(dir); }
+		new File(folder, STATS).delete();
+	}
+
+	/**
+	 * Utility functions
+	 */
+	protected List<File> listEntries () {
+		File[] dirs = folder.listFiles((File f) -> f.isDirectory() && new File(f, ENTRY).exists());
+		return dirs != null ? new ArrayList<File>(Arrays.asList(dirs)) : new ArrayList<File>();
+	}
+	protected long entrySize (File dir) {
+		Properties meta = readProperties(new File(dir, ENTRY));
+		return meta != null ? Long.parseLong(meta.getProperty("size", "0")) : 0;
+	}
+	protected Properties readStats () {
+		Properties stats = readProperties(new File(folder, STATS));
+		return stats != null ? stats : new Properties();
+	}
+	protected void updateStats (String counter, long increment) {
+		Properties stats = readStats();
+		stats.setProperty(counter, Long.toString(Long.parseLong(stats.getProperty(counter, "0")) + increment));
+		try {
+			writeProperties(new File(folder, STATS), stats);
+		} catch (IOException e) {
+			System.err.println("** Error: " + e);
+		}
+	}
+	protected static Properties readProperties (File file) {
+		if (!file.exists()) { return null; }
+		Properties props = new Properties();
+		try (InputStream in = new FileInputStream(file)) {
+			props.load(in);
+			return props;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+	protected static void writeProperties (File file, Properties props) throws IOException {
+		try (OutputStream out = new FileOutputStream(file)) {
+			props.store(out, null);
+		}
+	}
+	protected static void deleteFolder (File dir) {
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File f : files) { f.delete(); }
+		}
+		dir.delete();
+	}
+}
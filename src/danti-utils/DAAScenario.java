@@ -0,0 +1,229 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import gov.nasa.larcfm.ACCoRD.Daidalus;
+import gov.nasa.larcfm.ACCoRD.DaidalusFileWalker;
+import gov.nasa.larcfm.ACCoRD.SUMData;
+import gov.nasa.larcfm.ACCoRD.TrafficState;
+import gov.nasa.larcfm.Util.ParameterData;
+import gov.nasa.larcfm.Util.Position;
+import gov.nasa.larcfm.Util.Velocity;
+
+/**
+ * Immutable, in-memory representation of a daa scenario.
+ * The scenario is parsed once with DaidalusFileWalker, and can then be replayed 
+ * on any number of Daidalus objects, concurrently, without parsing the file again.
+ * 
+ * Parameters embedded in the daa file and extra columns (e.g., alerter, uncertainties) are taken from the 
+ * states loaded by DaidalusFileWalker, and are replayed in the same way, so the results are the same as 
+ * those obtained by walking the file.
+ */
+public final class DAAScenario {
+
+	/**
+	 * State of an aircraft at a given time step
+	 */
+	public static final class AircraftStep {
+		public final String id;
+		public final Position position;
+		public final Velocity velocity; // ground velocity
+		public final double time;
+		public final int alerterIndex;
+		// standard deviations of position and velocity (s_EW, s_NS, s_EN, sz, v_EW, v_NS, v_EN, vz), null if the state has no uncertainty
+		protected final double[] uncertainty;
+
+		AircraftStep (TrafficState ac) {
+			id = ac.getId();
+			position = ac.getPosition();
+			velocity = ac.getGroundVelocity();
+			time = ac.getTime();
+			alerterIndex = ac.getAlerterIndex();
+			SUMData sum = ac.sum();
+			double[] std = sum != null ? new double[] {
+				sum.get_s_EW_std(), sum.get_s_NS_std(), sum.get_s_EN_std(), sum.get_sz_std(),
+				sum.get_v_EW_std(), sum.get_v_NS_std(), sum.get_v_EN_std(), sum.get_vz_std()
+			} : null;
+			uncertainty = std != null && !isZero(std) ? std : null;
+		}
+
+		/**
+		 * Applies alerter and uncertainties to aircraft ac_idx in daa
+		 */
+		void applyExtraColumns (Daidalus daa, int ac_idx) {
+			daa.setAlerterIndex(ac_idx, alerterIndex);
+			if (uncertainty != null) {
+				daa.setHorizontalPositionUncertainty(ac_idx, uncertainty[0], uncertainty[1], uncertainty[2]);
+				daa.setVerticalPositionUncertainty(ac_idx, uncertainty[3]);
+				daa.setHorizontalVelocityUncertainty(ac_idx, uncertainty[4], uncertainty[5], uncertainty[6]);
+				daa.setVerticalSpeedUncertainty(ac_idx, uncertainty[7]);
+			}
+		}
+
+		protected static boolean isZero (double[] values) {
+			for (double v : values) {
+				if (v != 0) { return false; }
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Ownship and traffic states at a given time step
+	 */
+	public static final class Step {
+		public final double time;
+		public final AircraftStep ownship;
+		public final List<AircraftStep> traffic;
+
+		Step (Daidalus daa) {
+			time = daa.getCurrentTime();
+			ownship = new AircraftStep(daa.getOwnshipState());
+			List<AircraftStep> ac = new ArrayList<AircraftStep>();
+			for (int i = 1; i <= daa.lastTrafficIndex(); i++) {
+				ac.add(new AircraftStep(daa.getAircraftStateAt(i)));
+			}
+			traffic = Collections.unmodifiableList(ac);
+		}
+
+		/**
+		 * Loads ownship and traffic states in daa
+		 */
+		public void apply (Daidalus daa) {
+			daa.setOwnshipState(ownship.id, ownship.position, ownship.velocity, ownship.time);
+			ownship.applyExtraColumns(daa, 0);
+			for (AircraftStep ac : traffic) {
+				int idx = daa.addTrafficState(ac.id, ac.position, ac.velocity, ac.time);
+				ac.applyExtraColumns(daa, idx);
+			}
+		}
+	}
+
+	protected final String fname;
+	protected final List<Step> steps;
+	protected final ParameterData params; // parameters embedded in the daa file
+
+	protected DAAScenario (String fname, List<Step> steps, ParameterData params) {
+		this.fname = fname;
+		this.steps = Collections.unmodifiableList(steps);
+		this.params = params != null ? params : new ParameterData();
+	}
+
+	/**
+	 * Parses the given daa file. If ownshipName is null, the first aircraft in the file is the ownship.
+	 */
+	public static DAAScenario read (String fname, String ownshipName) {
+		DaidalusFileWalker walker = new DaidalusFileWalker(fname);
+		if (ownshipName != null) { walker.setOwnship(ownshipName); }
+		Daidalus daa = new Daidalus();
+		ParameterData defaults = daa.getParameterData();
+		ParameterData params = null;
+		List<Step> steps = new ArrayList<Step>();
+		while (!walker.atEnd()) {
+			walker.readState(daa);
+			if (params == null) { params = embeddedParameters(daa.getParameterData(), defaults); }
+			steps.add(new Step(daa));
+		}
+		return new DAAScenario(fname, steps, params);
+	}
+
+	/**
+	 * Utility function, returns the parameters loaded by DaidalusFileWalker, i.e., the entries of pd that are not in the default parameters
+	 */
+	protected static ParameterData embeddedParameters (ParameterData pd, ParameterData defaults) {
+		Set<String> entries = new HashSet<String>(defaults.getListFull());
+		ParameterData res = new ParameterData();
+		for (String entry : pd.getListFull()) {
+			if (!entries.contains(entry)) { res.set(entry); }
+		}
+		return res;
+	}
+
+	public String getFileName () {
+		return fname;
+	}
+
+	public int size () {
+		return steps.size();
+	}
+
+	public Step getStep (int i) {
+		return steps.get(i);
+	}
+
+	/**
+	 * Returns a new sequence over the time steps of the scenario.
+	 * Each sequence keeps its own position, so different threads can replay the same scenario at the same time.
+	 */
+	public StateSequence sequence () {
+		return new StateSequence() {
+			int index = 0;
+			public boolean atEnd () {
+				return index >= steps.size();
+			}
+			public void readState (Daidalus daa) {
+				// same as DaidalusFileWalker, embedded parameters override the configuration at each time step
+				if (params.size() > 0) {
+					daa.setParameterData(params);
+					daa.reset();
+				}
+				steps.get(index++).apply(daa);
+			}
+		};
+	}
+
+	/**
+	 * Returns a sequence over the time steps read by a DaidalusFileWalker
+	 */
+	public static StateSequence sequence (DaidalusFileWalker walker) {
+		return new StateSequence() {
+			public boolean atEnd () {
+				return walker.atEnd();
+			}
+			public void readState (Daidalus daa) {
+				walker.readState(daa);
+			}
+		};
+	}
+}
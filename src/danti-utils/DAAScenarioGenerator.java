@@ -0,0 +1,264 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+
+/**
+ * Generates synthetic .daa scenarios with a given number of intruders, used to measure how bands computation scales with traffic density.
+ * The ownship flies straight and level. Each intruder flies at constant velocity, and reaches its closest point of approach 
+ * with the ownship at a random time of the scenario, with a random miss distance. The encounter geometry of each intruder 
+ * (head-on, crossing, overtaking, vertical) is drawn from the given mix. Positions are computed on a local flat-earth 
+ * approximation around the initial position of the ownship. The output uses the same header, units and column format 
+ * of the .daa scenarios in daa-scenarios, and can be processed with DAABandsV2 or streamed to DAABandsREPLV2.
+ */
+public class DAAScenarioGenerator {
+	static final String tool_name = "DAAScenarioGenerator";
+	static final String[] GEOMETRIES = { "head-on", "crossing", "overtaking", "vertical" };
+	static final int HEAD_ON = 0, CROSSING = 1, OVERTAKING = 2, VERTICAL = 3;
+	static final double EARTH_RADIUS = 6371000; // meters
+	static final double KNOT = 1852.0 / 3600.0; // m/s
+	static final double FT = 0.3048; // m
+	static final double FPM = FT / 60.0; // m/s
+	static final double NMI = 1852; // m
+
+	protected int intruders = 10;
+	protected double duration = 300; // seconds
+	protected double rate = 1; // time steps per second
+	protected double[] mix = { 0.25, 0.25, 0.25, 0.25 }; // weight of each geometry, in the order of GEOMETRIES
+	protected long seed = 0;
+	protected String ofname = null;
+	protected String ownshipName = "ownship";
+	protected double lat0 = 39.6, lon0 = -104.9; // initial ownship position, deg
+	protected double alt0 = 7000; // ownship altitude, ft
+	protected double trk0 = 45; // ownship track, deg
+	protected double gs0 = 150; // ownship ground speed, knot
+	protected double maxMiss = 1.5; // maximum horizontal miss distance at the closest point of approach, nmi
+
+	/**
+	 * Constant-velocity aircraft, position in meters (east, north, up) at time 0, velocity in m/s
+	 */
+	static class Aircraft {
+		final String name;
+		final double x, y, z, vx, vy, vz;
+		Aircraft (String name, double x, double y, double z, double vx, double vy, double vz) {
+			this.name = name;
+			this.x = x; this.y = y; this.z = z;
+			this.vx = vx; this.vy = vy; this.vz = vz;
+		}
+	}
+
+	/**
+	 * Creates the ownship and the intruders
+	 */
+	protected Aircraft[] createAircraft () {
+		Random random = new Random(seed);
+		Aircraft[] ac = new Aircraft[intruders + 1];
+		double trk = Math.toRadians(trk0);
+		double ovx = gs0 * KNOT * Math.sin(trk), ovy = gs0 * KNOT * Math.cos(trk);
+		ac[0] = new Aircraft(ownshipName, 0, 0, alt0 * FT, ovx, ovy, 0);
+		double total = 0;
+		for (double w : mix) { total += w; }
+		for (int i = 1; i <= intruders; i++) {
+			// geometry
+			double r = random.nextDouble() * total;
+			int geometry = 0;
+			while (geometry < mix.length - 1 && r >= mix[geometry]) { r -= mix[geometry]; geometry++; }
+			// time and miss distance at the closest point of approach
+			double tcpa = duration * (0.1 + 0.8 * random.nextDouble());
+			double miss = maxMiss * NMI * random.nextDouble() * (random.nextBoolean() ? 1 : -1);
+			double dz = (geometry == VERTICAL ? 0 : (random.nextDouble() - 0.5) * 1000) * FT;
+			// intruder track (relative to the ownship track), ground speed and vertical speed
+			double rtrk, gs, vs = 0;
+			switch (geometry) {
+				case HEAD_ON: { 
+					rtrk = 180 + (random.nextDouble() - 0.5) * 30; 
+					gs = 100 + 150 * random.nextDouble(); 
+					break; 
+				}
+				case CROSSING: { 
+					rtrk = (45 + 90 * random.nextDouble()) * (random.nextBoolean() ? 1 : -1); 
+					gs = 100 + 150 * random.nextDouble(); 
+					break; 
+				}
+				case OVERTAKING: { 
+					rtrk = (random.nextDouble() - 0.5) * 20; 
+					gs = gs0 + 40 + 60 * random.nextDouble(); 
+					break; 
+				}
+				default: { // vertical
+					rtrk = (random.nextDouble() - 0.5) * 60; 
+					gs = 80 + 120 * random.nextDouble(); 
+					vs = (1000 + 1500 * random.nextDouble()) * (random.nextBoolean() ? 1 : -1); 
+					break; 
+				}
+			}
+			double itrk = trk + Math.toRadians(rtrk);
+			double vx = gs * KNOT * Math.sin(itrk), vy = gs * KNOT * Math.cos(itrk), vz = vs * FPM;
+			// position at the closest point of approach: ownship position, plus the miss distance perpendicular to the ownship track
+			double cx = ovx * tcpa + miss * Math.cos(trk), cy = ovy * tcpa - miss * Math.sin(trk), cz = alt0 * FT + dz;
+			String name = String.format("AC%04d", i);
+			ac[i] = new Aircraft(name, cx - vx * tcpa, cy - vy * tcpa, cz - vz * tcpa, vx, vy, vz);
+		}
+		return ac;
+	}
+
+	/**
+	 * Writes the scenario to ofname, returns the number of time steps
+	 */
+	public int generate () throws IOException {
+		Aircraft[] ac = createAircraft();
+		int steps = (int) Math.floor(duration * rate) + 1;
+		double cosLat0 = Math.cos(Math.toRadians(lat0));
+		try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(ofname), 1 << 16))) {
+			out.println("NAME     lat          lon           alt          trk      gs          vs        time");
+			out.println("[none]   [deg]        [deg]         [ft]         [deg]    [knot]      [fpm]     [s]");
+			StringBuilder sb = new StringBuilder(128);
+			for (int k = 0; k < steps; k++) {
+				double t = k / rate;
+				for (Aircraft a : ac) {
+					double x = a.x + a.vx * t, y = a.y + a.vy * t, z = a.z + a.vz * t;
+					double lat = lat0 + Math.toDegrees(y / EARTH_RADIUS);
+					double lon = lon0 + Math.toDegrees(x / (EARTH_RADIUS * cosLat0));
+					double trk = Math.toDegrees(Math.atan2(a.vx, a.vy));
+					if (trk < 0) { trk += 360; }
+					double gs = Math.sqrt(a.vx * a.vx + a.vy * a.vy);
+					sb.setLength(0);
+					sb.append(a.name).append(", ");
+					DAAFormatter.append(sb, lat, 8).append(", ");
+					DAAFormatter.append(sb, lon, 8).append(", ");
+					DAAFormatter.append(sb, z / FT, 6).append(", ");
+					DAAFormatter.append(sb, trk, 6).append(", ");
+					DAAFormatter.append(sb, gs / KNOT, 6).append(", ");
+					DAAFormatter.append(sb, a.vz / FPM, 6).append(", ");
+					DAAFormatter.append(sb, t, 3).append(' ');
+					out.println(sb);
+				}
+			}
+		}
+		return steps;
+	}
+
+	/**
+	 * Utility function, parses the geometry mix, e.g., head-on=2,crossing=1, geometries not in the list have weight 0
+	 */
+	protected boolean parseMix (String list) {
+		double[] weights = new double[GEOMETRIES.length];
+		for (String item : list.split(",")) {
+			String[] kv = item.trim().split("=");
+			int idx = -1;
+			for (int i = 0; i < GEOMETRIES.length; i++) {
+				if (GEOMETRIES[i].equalsIgnoreCase(kv[0].trim())) { idx = i; }
+			}
+			if (idx < 0) {
+				System.err.println("** Error: Invalid geometry (" + kv[0] + "), valid geometries: " + String.join(",", GEOMETRIES));
+				return false;
+			}
+			weights[idx] = kv.length > 1 ? Double.parseDouble(kv[1]) : 1;
+		}
+		mix = weights;
+		return true;
+	}
+
+	/**
+	 * Prints usage instructions
+	 */
+	public void printHelpMsg () {
+		System.out.println("Generates a synthetic .daa scenario with the given number of intruders");
+		System.out.println("Usage:");
+		System.out.println("  " + tool_name + " [options]");
+		System.out.println("Options:");
+		System.out.println("  --help\n\tPrint this message");
+		System.out.println("  --intruders <n>\n\tNumber of intruders (default: " + intruders + ")");
+		System.out.println("  --duration <sec>\n\tDuration of the scenario (default: " + duration + ")");
+		System.out.println("  --rate <hz>\n\tTime steps per second (default: " + rate + ")");
+		System.out.println("  --mix <geometry=weight,...>\n\tEncounter geometry mix, geometries: " + String.join(",", GEOMETRIES) + " (default: equal weights)");
+		System.out.println("  --seed <n>\n\tRandom seed, the same seed and options generate the same scenario (default: " + seed + ")");
+		System.out.println("  --ownship <name>\n\tOwnship name (default: " + ownshipName + ")");
+		System.out.println("  --output <file.daa>\n\tOutput file (default: traffic-<n>.daa)");
+		System.exit(0);
+	}
+
+	/**
+	 * Parse command line arguments
+	 */
+	public DAAScenarioGenerator parseCliArgs (String[] args) {
+		for (int a = 0; a < args.length; a++) {
+			if (args[a].startsWith("--help") || args[a].startsWith("-help") || args[a].equals("-h")) {
+				printHelpMsg();
+			} else if (a < args.length - 1 && (args[a].startsWith("--intruders") || args[a].startsWith("-intruders") || args[a].equals("-n"))) {
+				intruders = Integer.parseInt(args[++a]);
+			} else if (a < args.length - 1 && (args[a].startsWith("--duration") || args[a].startsWith("-duration"))) {
+				duration = Double.parseDouble(args[++a]);
+			} else if (a < args.length - 1 && (args[a].startsWith("--rate") || args[a].startsWith("-rate"))) {
+				rate = Double.parseDouble(args[++a]);
+			} else if (a < args.length - 1 && (args[a].startsWith("--mix") || args[a].startsWith("-mix"))) {
+				if (!parseMix(args[++a])) { System.exit(1); }
+			} else if (a < args.length - 1 && (args[a].startsWith("--seed") || args[a].startsWith("-seed"))) {
+				seed = Long.parseLong(args[++a]);
+			} else if (a < args.length - 1 && (args[a].startsWith("--ownship") || args[a].startsWith("-ownship"))) {
+				ownshipName = args[++a];
+			} else if (a < args.length - 1 && (args[a].startsWith("--out") || args[a].startsWith("-out") || args[a].equals("-o"))) {
+				ofname = args[++a];
+			} else {
+				System.err.println("** Warning: Invalid option (" + args[a] + ")");
+			}
+		}
+		if (ofname == null) { ofname = "traffic-" + intruders + ".daa"; }
+		return this;
+	}
+
+	public static void main (String[] args) {
+		DAAScenarioGenerator generator = new DAAScenarioGenerator().parseCliArgs(args);
+		if (generator.intruders < 0 || generator.duration < 0 || generator.rate <= 0) {
+			System.err.println("** Error: Invalid options, intruders and duration must be >= 0, rate must be > 0");
+			System.exit(1);
+		}
+		try {
+			int steps = generator.generate();
+			System.out.println("Scenario " + generator.ofname + " created: " + generator.intruders + " intruders, " + steps + " time steps");
+		} catch (IOException e) {
+			System.err.println("** Error: " + e);
+			System.exit(1);
+		}
+	}
+}
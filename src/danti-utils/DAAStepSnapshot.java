@@ -0,0 +1,356 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.util.Optional;
+
+import gov.nasa.larcfm.ACCoRD.BandsRegion;
+import gov.nasa.larcfm.ACCoRD.Daidalus;
+import gov.nasa.larcfm.ACCoRD.Detection3D;
+import gov.nasa.larcfm.ACCoRD.RecoveryInformation;
+import gov.nasa.larcfm.ACCoRD.TrafficState;
+import gov.nasa.larcfm.ACCoRD.WCV_tvar;
+import gov.nasa.larcfm.Util.Interval;
+import gov.nasa.larcfm.Util.Units;
+
+/**
+ * Immutable snapshot of the results computed by DAIDALUS at one time step: bands, regions, 
+ * resolutions, recovery information and alert levels.
+ * The snapshot is created once per time step, after the states have been loaded in the Daidalus object,
+ * and is then consumed by the json writers, the binary writer and the monitors, so that each
+ * DAIDALUS query is performed only once per step. Only the groups requested at construction time are computed,
+ * groups of bands and resolutions are per dimension, so that unused dimensions are never computed.
+ * Values are stored in internal units, conversions to the output units are performed by the readers.
+ */
+public final class DAAStepSnapshot {
+	// groups of results, can be combined with |
+	public static final int BANDS_HD = 1; // bands and region of the current value of the ownship, one group per dimension
+	public static final int BANDS_HS = 2;
+	public static final int BANDS_VS = 4;
+	public static final int BANDS_ALT = 8;
+	public static final int RES_HD = 16; // preferred and secondary resolutions, recovery information, one group per dimension
+	public static final int RES_HS = 32;
+	public static final int RES_VS = 64;
+	public static final int RES_ALT = 128;
+	public static final int REGIONS = 256; // region of the current value of the ownship in all dimensions, without bands
+	public static final int ALERTS = 512; // alert levels of the traffic aircraft
+	public static final int BANDS = BANDS_HD | BANDS_HS | BANDS_VS | BANDS_ALT;
+	public static final int RESOLUTIONS = RES_HD | RES_HS | RES_VS | RES_ALT;
+	public static final int ALL = BANDS | RESOLUTIONS | REGIONS | ALERTS;
+	public static final int METRICS = 1024; // metrics of the traffic aircraft, not included in ALL because metrics can be disabled
+
+	// metrics, in internal units
+	public static final int HORIZONTAL_SEPARATION = 0, VERTICAL_SEPARATION = 1;
+	public static final int HORIZONTAL_MISS_DISTANCE = 2, VERTICAL_MISS_DISTANCE = 3;
+	public static final int HORIZONTAL_CLOSURE_RATE = 4, VERTICAL_CLOSURE_RATE = 5;
+	public static final int TCPA = 6, TCOA = 7, TAUMOD = 8;
+	public static final int N_METRICS = 9;
+
+	// dimensions
+	public static final int HORIZONTAL_DIRECTION = 0;
+	public static final int HORIZONTAL_SPEED = 1;
+	public static final int VERTICAL_SPEED = 2;
+	public static final int ALTITUDE = 3;
+	public static final int N_DIMENSIONS = 4;
+
+	/**
+	 * Returns the group of bands (resp. resolutions) of the given dimension
+	 */
+	public static int bands (int dim) {
+		return BANDS_HD << dim;
+	}
+	public static int resolutions (int dim) {
+		return RES_HD << dim;
+	}
+
+	/**
+	 * Bands and resolutions of one dimension (horizontal direction, horizontal speed, vertical speed, altitude)
+	 */
+	public static final class Dimension {
+		protected final Interval[] intervals; // internal units
+		protected final BandsRegion[] regions;
+		public final BandsRegion currentRegion; // region of the current value of the ownship
+		public final boolean preferred; // preferred direction: right/up (true) or left/down (false)
+		public final double resolution; // preferred resolution, internal units
+		public final double resolution_sec; // secondary resolution, internal units
+		public final BandsRegion resolutionRegion;
+		public final BandsRegion resolutionRegion_sec;
+		public final RecoveryInformation recovery;
+
+		protected Dimension (Daidalus daa, int dim, int groups) {
+			if ((groups & bands(dim)) != 0) {
+				int n = DAAStepSnapshot.bandsLength(daa, dim);
+				intervals = new Interval[n];
+				regions = new BandsRegion[n];
+				for (int i = 0; i < n; i++) {
+					intervals[i] = DAAStepSnapshot.intervalAt(daa, dim, i);
+					regions[i] = DAAStepSnapshot.regionAt(daa, dim, i);
+				}
+			} else {
+				intervals = new Interval[0];
+				regions = new BandsRegion[0];
+			}
+			currentRegion = (groups & (bands(dim) | REGIONS)) != 0 ? 
+				regionOf(daa, dim, currentValue(daa.getOwnshipState(), dim)) : BandsRegion.UNKNOWN;
+			if ((groups & resolutions(dim)) != 0) {
+				preferred = preferredDirection(daa, dim);
+				resolution = resolution(daa, dim, preferred);
+				resolution_sec = resolution(daa, dim, !preferred);
+				// we want to use internal units here, to minimize round-off errors
+				resolutionRegion = regionOf(daa, dim, resolution);
+				resolutionRegion_sec = regionOf(daa, dim, resolution_sec);
+				recovery = recoveryInformation(daa, dim);
+			} else {
+				preferred = false;
+				resolution = Double.NaN;
+				resolution_sec = Double.NaN;
+				resolutionRegion = BandsRegion.UNKNOWN;
+				resolutionRegion_sec = BandsRegion.UNKNOWN;
+				recovery = null;
+			}
+		}
+
+		public int bandsLength () {
+			return intervals.length;
+		}
+		/**
+		 * Returns the i-th band, in internal units
+		 */
+		public Interval intervalAt (int i) {
+			return intervals[i];
+		}
+		/**
+		 * Returns the i-th band, in units u
+		 */
+		public Interval intervalAt (int i, String u) {
+			Interval ii = intervals[i];
+			return ii.isEmpty() ? ii : new Interval(Units.to(u, ii.low), Units.to(u, ii.up));
+		}
+		public BandsRegion regionAt (int i) {
+			return regions[i];
+		}
+		/**
+		 * Returns true if NONE and RECOVERY appear in the same list of bands
+		 */
+		public boolean hasNoneAndRecovery () {
+			boolean none = false;
+			boolean recovery = false;
+			for (int i = 0; i < regions.length; i++) {
+				if (regions[i] == BandsRegion.NONE) {
+					none = true;
+				} else if (regions[i] == BandsRegion.RECOVERY) {
+					recovery = true;
+				}
+			}
+			return none && recovery;
+		}
+	}
+
+	public final double time;
+	public final int lastTrafficIndex;
+	public final int groups;
+	protected final Dimension[] dimensions = new Dimension[N_DIMENSIONS];
+
+	// alerts, indexed by aircraft index (index 0 is the ownship and is not used)
+	protected final int[] alertLevel;
+	protected final int[] alerterIndex;
+	protected final BandsRegion[] alertRegion;
+	protected final String[] alerterId;
+	public final int correctiveRegionOrder;
+	// metrics, indexed by aircraft index (index 0 is the ownship and is not used)
+	protected final double[][] metrics;
+
+	/**
+	 * Computes the selected groups of results for the current time step of daa
+	 */
+	public DAAStepSnapshot (Daidalus daa, int groups) {
+		this.groups = groups;
+		time = daa.getCurrentTime();
+		lastTrafficIndex = daa.lastTrafficIndex();
+		for (int dim = 0; dim < N_DIMENSIONS; dim++) {
+			dimensions[dim] = new Dimension(daa, dim, groups);
+		}
+		int n = (groups & ALERTS) != 0 ? lastTrafficIndex + 1 : 0;
+		alertLevel = new int[n];
+		alerterIndex = new int[n];
+		alertRegion = new BandsRegion[n];
+		alerterId = new String[n];
+		for (int ac = 1; ac < n; ac++) {
+			alerterIndex[ac] = daa.alerterIndexBasedOnAlertingLogic(ac);
+			alertLevel[ac] = daa.alertLevel(ac);
+			alertRegion[ac] = alertLevel[ac] == 0 ? BandsRegion.NONE : daa.regionOfAlertLevel(alerterIndex[ac], alertLevel[ac]);
+			alerterId[ac] = daa.getAlerterAt(alerterIndex[ac]).getId();
+		}
+		correctiveRegionOrder = (groups & ALERTS) != 0 ? daa.getCorrectiveRegion().orderOfConflictRegion() : 0;
+		metrics = new double[(groups & METRICS) != 0 ? lastTrafficIndex + 1 : 0][];
+		for (int ac = 1; ac < metrics.length; ac++) {
+			metrics[ac] = metricsOf(daa, ac);
+		}
+	}
+
+	public DAAStepSnapshot (Daidalus daa) {
+		this(daa, ALL);
+	}
+
+	public boolean has (int group) {
+		return (groups & group) == group;
+	}
+
+	public Dimension dimension (int dim) {
+		return dimensions[dim];
+	}
+	public Dimension horizontalDirection () {
+		return dimensions[HORIZONTAL_DIRECTION];
+	}
+	public Dimension horizontalSpeed () {
+		return dimensions[HORIZONTAL_SPEED];
+	}
+	public Dimension verticalSpeed () {
+		return dimensions[VERTICAL_SPEED];
+	}
+	public Dimension altitude () {
+		return dimensions[ALTITUDE];
+	}
+
+	public int alertLevel (int ac) {
+		return alertLevel[ac];
+	}
+	public int alerterIndex (int ac) {
+		return alerterIndex[ac];
+	}
+	public BandsRegion alertRegion (int ac) {
+		return alertRegion[ac];
+	}
+	public String alerterId (int ac) {
+		return alerterId[ac];
+	}
+	/**
+	 * Returns the metrics of aircraft ac, indexed by HORIZONTAL_SEPARATION, ..., TAUMOD
+	 */
+	public double[] metrics (int ac) {
+		return metrics[ac];
+	}
+
+	/**
+	 * Computes the metrics of aircraft ac, taumod is NaN if the detector of the corrective alert level is not WCV_tvar
+	 */
+	public static double[] metricsOf (Daidalus daa, int ac) {
+		int alerter_idx = daa.alerterIndexBasedOnAlertingLogic(ac);
+		Optional<Detection3D> d3d = daa.getAlerterAt(alerter_idx).getDetector(daa.correctiveAlertLevel(alerter_idx));
+		Detection3D detector = d3d.get();
+		double[] res = new double[N_METRICS];
+		res[HORIZONTAL_SEPARATION] = daa.currentHorizontalSeparation(ac);
+		res[VERTICAL_SEPARATION] = daa.currentVerticalSeparation(ac);
+		res[HORIZONTAL_MISS_DISTANCE] = daa.predictedHorizontalMissDistance(ac);
+		res[VERTICAL_MISS_DISTANCE] = daa.predictedVerticalMissDistance(ac);
+		res[HORIZONTAL_CLOSURE_RATE] = daa.horizontalClosureRate(ac);
+		res[VERTICAL_CLOSURE_RATE] = daa.verticalClosureRate(ac);
+		res[TCPA] = daa.timeToHorizontalClosestPointOfApproach(ac);
+		res[TCOA] = daa.timeToCoAltitude(ac);
+		res[TAUMOD] = (detector instanceof WCV_tvar) ? daa.modifiedTau(ac, ((WCV_tvar) detector).getDTHR()) : Double.NaN;
+		return res;
+	}
+
+	/**
+	 * Utility functions, dispatch the DAIDALUS queries on the dimension
+	 */
+	protected static int bandsLength (Daidalus daa, int dim) {
+		switch (dim) {
+		case HORIZONTAL_DIRECTION: return daa.horizontalDirectionBandsLength();
+		case HORIZONTAL_SPEED: return daa.horizontalSpeedBandsLength();
+		case VERTICAL_SPEED: return daa.verticalSpeedBandsLength();
+		default: return daa.altitudeBandsLength();
+		}
+	}
+	protected static Interval intervalAt (Daidalus daa, int dim, int i) {
+		switch (dim) {
+		case HORIZONTAL_DIRECTION: return daa.horizontalDirectionIntervalAt(i);
+		case HORIZONTAL_SPEED: return daa.horizontalSpeedIntervalAt(i);
+		case VERTICAL_SPEED: return daa.verticalSpeedIntervalAt(i);
+		default: return daa.altitudeIntervalAt(i);
+		}
+	}
+	protected static BandsRegion regionAt (Daidalus daa, int dim, int i) {
+		switch (dim) {
+		case HORIZONTAL_DIRECTION: return daa.horizontalDirectionRegionAt(i);
+		case HORIZONTAL_SPEED: return daa.horizontalSpeedRegionAt(i);
+		case VERTICAL_SPEED: return daa.verticalSpeedRegionAt(i);
+		default: return daa.altitudeRegionAt(i);
+		}
+	}
+	protected static BandsRegion regionOf (Daidalus daa, int dim, double val) {
+		switch (dim) {
+		case HORIZONTAL_DIRECTION: return daa.regionOfHorizontalDirection(val);
+		case HORIZONTAL_SPEED: return daa.regionOfHorizontalSpeed(val);
+		case VERTICAL_SPEED: return daa.regionOfVerticalSpeed(val);
+		default: return daa.regionOfAltitude(val);
+		}
+	}
+	protected static double currentValue (TrafficState ownship, int dim) {
+		switch (dim) {
+		case HORIZONTAL_DIRECTION: return ownship.horizontalDirection();
+		case HORIZONTAL_SPEED: return ownship.horizontalSpeed();
+		case VERTICAL_SPEED: return ownship.verticalSpeed();
+		default: return ownship.altitude();
+		}
+	}
+	protected static boolean preferredDirection (Daidalus daa, int dim) {
+		switch (dim) {
+		case HORIZONTAL_DIRECTION: return daa.preferredHorizontalDirectionRightOrLeft();
+		case HORIZONTAL_SPEED: return daa.preferredHorizontalSpeedUpOrDown();
+		case VERTICAL_SPEED: return daa.preferredVerticalSpeedUpOrDown();
+		default: return daa.preferredAltitudeUpOrDown();
+		}
+	}
+	protected static double resolution (Daidalus daa, int dim, boolean dir) {
+		switch (dim) {
+		case HORIZONTAL_DIRECTION: return daa.horizontalDirectionResolution(dir);
+		case HORIZONTAL_SPEED: return daa.horizontalSpeedResolution(dir);
+		case VERTICAL_SPEED: return daa.verticalSpeedResolution(dir);
+		default: return daa.altitudeResolution(dir);
+		}
+	}
+	protected static RecoveryInformation recoveryInformation (Daidalus daa, int dim) {
+		switch (dim) {
+		case HORIZONTAL_DIRECTION: return daa.horizontalDirectionRecoveryInformation();
+		case HORIZONTAL_SPEED: return daa.horizontalSpeedRecoveryInformation();
+		case VERTICAL_SPEED: return daa.verticalSpeedRecoveryInformation();
+		default: return daa.altitudeRecoveryInformation();
+		}
+	}
+}
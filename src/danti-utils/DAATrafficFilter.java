@@ -0,0 +1,274 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import gov.nasa.larcfm.ACCoRD.Alerter;
+import gov.nasa.larcfm.ACCoRD.CDCylinder;
+import gov.nasa.larcfm.ACCoRD.Daidalus;
+import gov.nasa.larcfm.ACCoRD.Detection3D;
+import gov.nasa.larcfm.ACCoRD.WCV_tvar;
+import gov.nasa.larcfm.Util.Position;
+import gov.nasa.larcfm.Util.Units;
+import gov.nasa.larcfm.Util.Velocity;
+
+/**
+ * Spatial pre-filter of traffic, applied before the traffic states are loaded in Daidalus.
+ * Traffic aircraft are indexed in a grid of cells centered at the ownship (horizontal cells of 'cellSize' meters, 
+ * vertical cells of 'cellHeight' meters). At each time step, only the cells within reach of the ownship are visited, 
+ * and an aircraft is kept only if it can reach the alerting thresholds within the lookahead time, according to a 
+ * conservative bound on the closure rate: ownship at the maximum speed allowed by the bands (or its current speed, if larger)
+ * plus the speed of the intruder plus the wind, flying straight at each other.
+ * Thresholds are taken from the detectors of all alert levels of all alerters. If a detector is neither WCV_tvar nor CDCylinder, 
+ * or the altitude bands are instantaneous (vertical rate 0), the corresponding bound is not known and all aircraft are kept 
+ * in that dimension. 'margin' and 'marginV' are added to the bounds to account for position uncertainty and round-off errors.
+ * A filter is not thread-safe, each walker should use its own filter.
+ */
+public class DAATrafficFilter {
+	protected static final double R_EARTH = 6371000; // m, used only to compute grid cells, the final check uses distanceH
+	protected static final int MAX_CELLS = 4096;
+
+	protected final double cellSize; // m
+	protected final double cellHeight; // m
+	protected final double margin; // m
+	protected final double marginV; // m
+
+	// grid, cells are indexed by (column, row, layer) packed in a long
+	protected final Map<Long, List<Integer>> grid = new HashMap<Long, List<Integer>>();
+	protected final List<List<Integer>> used = new ArrayList<List<Integer>>(); // non-empty cells, cleared at each step
+	protected final List<Position> positions = new ArrayList<Position>();
+	protected final List<Velocity> velocities = new ArrayList<Velocity>();
+	protected final List<Integer> ids = new ArrayList<Integer>();
+
+	// state of the current time step
+	protected Position so = null;
+	protected double vo_h = 0; // m/s, bound on ownship ground speed
+	protected double vo_v = 0; // m/s, bound on ownship vertical speed
+	protected double dthr = 0; // m, largest horizontal threshold
+	protected double zthr = 0; // m, largest vertical threshold
+	protected double tthr = 0; // s, largest time threshold (horizontal)
+	protected double tcoa = 0; // s, largest time threshold (vertical)
+	protected double horizon = 0; // s, lookahead time or largest alerting time
+	protected boolean boundedH = true;
+	protected boolean boundedV = true;
+	protected double maxIntruderGs = 0;
+	protected double maxIntruderVs = 0;
+
+	// statistics
+	protected long steps = 0;
+	protected long total = 0; // aircraft submitted to the filter
+	protected long kept = 0; // aircraft that passed the filter
+
+	public DAATrafficFilter (double cellSize, double cellHeight, double margin, double marginV) {
+		this.cellSize = cellSize;
+		this.cellHeight = cellHeight;
+		this.margin = margin;
+		this.marginV = marginV;
+	}
+	/**
+	 * Default filter: 10NM x 5000ft cells, 1NM x 1000ft margins
+	 */
+	public DAATrafficFilter () {
+		this(Units.from("NM", 10), Units.from("ft", 5000), Units.from("NM", 1), Units.from("ft", 1000));
+	}
+
+	/**
+	 * Starts a new time step, thresholds and speed limits are taken from the current configuration of daa
+	 */
+	public void begin (Daidalus daa, Position so, Velocity vo) {
+		for (List<Integer> cell : used) { cell.clear(); }
+		used.clear();
+		// cells are relative to the ownship, the grid is rebuilt when the traffic moves to too many different cells
+		if (grid.size() > MAX_CELLS) { grid.clear(); }
+		positions.clear();
+		velocities.clear();
+		ids.clear();
+		maxIntruderGs = 0;
+		maxIntruderVs = 0;
+		this.so = so;
+		double wind = daa.getWindVelocityTo().gs();
+		vo_h = Math.max(vo.gs(), daa.getMaxHorizontalSpeed()) + wind;
+		vo_v = Math.max(Math.abs(vo.vs()), daa.getMaxVerticalSpeed());
+		horizon = daa.getLookaheadTime();
+		dthr = zthr = tthr = tcoa = 0;
+		boundedH = boundedV = true;
+		for (int a = 1; a <= daa.numberOfAlerters(); a++) {
+			Alerter alerter = daa.getAlerterAt(a);
+			for (int level = 1; level <= alerter.mostSevereAlertLevel(); level++) {
+				horizon = Math.max(horizon, daa.getEarlyAlertingTime(a, level));
+				Optional<Detection3D> detector = alerter.getDetector(level);
+				if (detector.isPresent() && detector.get() instanceof WCV_tvar) {
+					WCV_tvar wcv = (WCV_tvar) detector.get();
+					dthr = Math.max(dthr, wcv.getDTHR());
+					zthr = Math.max(zthr, wcv.getZTHR());
+					tthr = Math.max(tthr, wcv.getTTHR());
+					tcoa = Math.max(tcoa, wcv.getTCOA());
+				} else if (detector.isPresent() && detector.get() instanceof CDCylinder) {
+					CDCylinder cyl = (CDCylinder) detector.get();
+					dthr = Math.max(dthr, cyl.getHorizontalSeparation());
+					zthr = Math.max(zthr, cyl.getVerticalSeparation());
+				} else {
+					boundedH = boundedV = false;
+				}
+			}
+		}
+		// instantaneous altitude bands can reach any altitude within the lookahead time
+		if (daa.getVerticalRate() == 0) { boundedV = false; }
+		steps++;
+	}
+
+	/**
+	 * Adds a traffic aircraft, id is the index used by the caller to identify the aircraft
+	 */
+	public void add (int id, Position sa, Velocity va) {
+		int k = positions.size();
+		positions.add(sa);
+		velocities.add(va);
+		ids.add(id);
+		maxIntruderGs = Math.max(maxIntruderGs, va.gs());
+		maxIntruderVs = Math.max(maxIntruderVs, Math.abs(va.vs()));
+		List<Integer> cell = grid.get(key(column(sa), row(sa), layer(sa)));
+		if (cell == null) {
+			cell = new ArrayList<Integer>();
+			grid.put(key(column(sa), row(sa), layer(sa)), cell);
+		}
+		if (cell.isEmpty()) { used.add(cell); }
+		cell.add(k);
+		total++;
+	}
+
+	/**
+	 * Returns the ids of the aircraft that can reach the alerting thresholds within the lookahead time, in the order they were added
+	 */
+	public List<Integer> select () {
+		List<Integer> res = new ArrayList<Integer>();
+		if (!boundedH && !boundedV) {
+			res.addAll(ids);
+			kept += res.size();
+			return res;
+		}
+		int[] selected = new int[positions.size()];
+		int n = 0;
+		// cells within reach, one extra cell accounts for the distortion of the grid far from the ownship
+		int rc = boundedH ? (int) Math.ceil(reachH(maxIntruderGs) / cellSize) + 1 : -1;
+		int rl = boundedV ? (int) Math.ceil(reachV(maxIntruderVs) / cellHeight) + 1 : -1;
+		if (rc >= 0 && rl >= 0 && (2L * rc + 1) * (2L * rc + 1) * (2L * rl + 1) <= used.size()) {
+			for (int c = -rc; c <= rc; c++) {
+				for (int r = -rc; r <= rc; r++) {
+					for (int l = -rl; l <= rl; l++) {
+						List<Integer> cell = grid.get(key(c, r, l));
+						if (cell != null) { 
+							for (int k : cell) { if (inReach(k)) { selected[n++] = k; } }
+						}
+					}
+				}
+			}
+		} else {
+			// fewer non-empty cells than cells within reach, visiting the non-empty cells is faster
+			for (List<Integer> cell : used) {
+				for (int k : cell) { if (inReach(k)) { selected[n++] = k; } }
+			}
+		}
+		Arrays.sort(selected, 0, n);
+		for (int i = 0; i < n; i++) { res.add(ids.get(selected[i])); }
+		kept += n;
+		return res;
+	}
+
+	/**
+	 * Horizontal distance at which an intruder with ground speed gs can still reach the thresholds
+	 */
+	protected double reachH (double gs) {
+		return dthr + (vo_h + gs) * (horizon + tthr) + margin;
+	}
+	/**
+	 * Vertical distance at which an intruder with vertical speed vs can still reach the thresholds
+	 */
+	protected double reachV (double vs) {
+		return zthr + (vo_v + Math.abs(vs)) * (horizon + tcoa) + marginV;
+	}
+	protected boolean inReach (int k) {
+		Position sa = positions.get(k);
+		Velocity va = velocities.get(k);
+		return (!boundedH || so.distanceH(sa) <= reachH(va.gs()))
+			&& (!boundedV || Math.abs(sa.alt() - so.alt()) <= reachV(va.vs()));
+	}
+
+	/**
+	 * Utility functions, grid cells relative to the ownship position
+	 */
+	protected int column (Position p) {
+		double dx = so.isLatLon() ? normalizeAngle(p.lon() - so.lon()) * Math.cos(so.lat()) * R_EARTH : p.x() - so.x();
+		return (int) Math.floor(dx / cellSize + 0.5);
+	}
+	protected int row (Position p) {
+		double dy = so.isLatLon() ? (p.lat() - so.lat()) * R_EARTH : p.y() - so.y();
+		return (int) Math.floor(dy / cellSize + 0.5);
+	}
+	protected int layer (Position p) {
+		return (int) Math.floor((p.alt() - so.alt()) / cellHeight + 0.5);
+	}
+	protected static long key (int c, int r, int l) {
+		return ((long) (c & 0x1FFFFF) << 42) | ((long) (r & 0x1FFFFF) << 21) | (l & 0x1FFFFF);
+	}
+	protected static double normalizeAngle (double rad) {
+		double res = rad % (2 * Math.PI);
+		if (res > Math.PI) { res -= 2 * Math.PI; } else if (res < -Math.PI) { res += 2 * Math.PI; }
+		return res;
+	}
+
+	public void reset () {
+		steps = total = kept = 0;
+		grid.clear();
+		used.clear();
+	}
+
+	/**
+	 * Returns a one-line summary of the filter statistics
+	 */
+	public String printStats () {
+		return "Traffic filter: " + kept + " of " + total + " traffic states kept in " + steps + " time steps" 
+			+ (total > 0 ? " (" + String.format("%.1f", 100.0 * kept / total) + "%)" : "");
+	}
+}
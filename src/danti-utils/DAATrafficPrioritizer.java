@@ -0,0 +1,252 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import gov.nasa.larcfm.ACCoRD.Alerter;
+import gov.nasa.larcfm.ACCoRD.CDCylinder;
+import gov.nasa.larcfm.ACCoRD.Daidalus;
+import gov.nasa.larcfm.ACCoRD.Detection3D;
+import gov.nasa.larcfm.ACCoRD.WCV_tvar;
+import gov.nasa.larcfm.Util.Position;
+import gov.nasa.larcfm.Util.Velocity;
+
+/**
+ * Prioritization of traffic, ranks the candidate intruders with a cheap threat metric and keeps only the top K,
+ * so that the number of aircraft loaded in Daidalus, and therefore the latency of the bands computation, is bounded.
+ * Aircraft already inside the alerting volume (largest horizontal and vertical thresholds of the configuration)
+ * are always kept and do not count towards K, the K slots are given to the other aircraft by rank.
+ * Available metrics (lower score = higher priority):
+ * - tcpa: converging aircraft first, by time to horizontal closest point of approach, 
+ *   then aircraft that are not converging, by range
+ * - range: current horizontal distance
+ * - closure: horizontal closure rate (range rate), fastest closing aircraft first
+ * Relative positions are computed on a plane tangent to the ownship, which is accurate enough for ranking.
+ * A prioritizer is not thread-safe, each walker should use its own prioritizer.
+ */
+public class DAATrafficPrioritizer {
+	public static final String TCPA = "tcpa";
+	public static final String RANGE = "range";
+	public static final String CLOSURE = "closure";
+	public static final String[] METRICS = { TCPA, RANGE, CLOSURE };
+	protected static final double R_EARTH = 6371000; // m
+
+	protected int k;
+	protected String metric;
+
+	// ranks, aircraft in a lower rank are selected first
+	protected static final int INSIDE = 0; // inside the alerting volume, always selected
+	protected static final int CONVERGING = 1;
+	protected static final int OTHER = 2;
+
+	// candidates of the current time step
+	protected final List<Integer> ids = new ArrayList<Integer>();
+	protected int[] ranks = new int[64];
+	protected double[] scores = new double[64];
+	protected double[] ranges = new double[64];
+	protected Position so = null;
+	protected Velocity vo = null;
+	protected double dthr = -1; // m, horizontal threshold of the alerting volume, negative if unknown
+	protected double zthr = -1; // m, vertical threshold of the alerting volume, negative if unknown
+
+	// results of the last time step, used for reporting
+	protected int lastCandidates = 0;
+	protected final List<Integer> lastDropped = new ArrayList<Integer>();
+
+	public DAATrafficPrioritizer (int k, String metric) {
+		this.k = k;
+		this.metric = metric;
+	}
+	public DAATrafficPrioritizer (int k) {
+		this(k, TCPA);
+	}
+
+	public int getK () {
+		return k;
+	}
+	public String getMetric () {
+		return metric;
+	}
+	public static boolean isMetric (String metric) {
+		return Arrays.asList(METRICS).contains(metric);
+	}
+
+	/**
+	 * Starts a new time step, the alerting volume is taken from the current configuration of daa
+	 */
+	public void begin (Daidalus daa, Position so, Velocity vo) {
+		double dthr = -1, zthr = -1;
+		for (int a = 1; a <= daa.numberOfAlerters(); a++) {
+			Alerter alerter = daa.getAlerterAt(a);
+			for (int level = 1; level <= alerter.mostSevereAlertLevel(); level++) {
+				Optional<Detection3D> detector = alerter.getDetector(level);
+				if (detector.isPresent() && detector.get() instanceof WCV_tvar) {
+					WCV_tvar wcv = (WCV_tvar) detector.get();
+					dthr = Math.max(dthr, wcv.getDTHR());
+					zthr = Math.max(zthr, wcv.getZTHR());
+				} else if (detector.isPresent() && detector.get() instanceof CDCylinder) {
+					CDCylinder cyl = (CDCylinder) detector.get();
+					dthr = Math.max(dthr, cyl.getHorizontalSeparation());
+					zthr = Math.max(zthr, cyl.getVerticalSeparation());
+				}
+			}
+		}
+		begin(so, vo, dthr, zthr);
+	}
+	/**
+	 * Starts a new time step, with the given horizontal and vertical thresholds (m) of the alerting volume
+	 */
+	public void begin (Position so, Velocity vo, double dthr, double zthr) {
+		this.so = so;
+		this.vo = vo;
+		this.dthr = dthr;
+		this.zthr = zthr;
+		ids.clear();
+	}
+	/**
+	 * Starts a new time step, without alerting volume: all aircraft are ranked
+	 */
+	public void begin (Position so, Velocity vo) {
+		begin(so, vo, -1, -1);
+	}
+
+	/**
+	 * Adds a candidate intruder, id is the index used by the caller to identify the aircraft
+	 */
+	public void add (int id, Position sa, Velocity va) {
+		int n = ids.size();
+		if (n == scores.length) {
+			ranks = Arrays.copyOf(ranks, 2 * n);
+			scores = Arrays.copyOf(scores, 2 * n);
+			ranges = Arrays.copyOf(ranges, 2 * n);
+		}
+		// relative position and velocity of the intruder, east-north frame centered at the ownship
+		double sx, sy;
+		if (so.isLatLon()) {
+			double dlon = sa.lon() - so.lon();
+			if (dlon > Math.PI) { dlon -= 2 * Math.PI; } else if (dlon < -Math.PI) { dlon += 2 * Math.PI; }
+			sx = dlon * Math.cos(so.lat()) * R_EARTH;
+			sy = (sa.lat() - so.lat()) * R_EARTH;
+		} else {
+			sx = sa.x() - so.x();
+			sy = sa.y() - so.y();
+		}
+		double vx = va.x - vo.x;
+		double vy = va.y - vo.y;
+		double range = Math.sqrt(sx * sx + sy * sy);
+		double sv = sx * vx + sy * vy; // negative when converging
+		int rank = OTHER;
+		double score;
+		switch (metric) {
+			case RANGE: {
+				score = range;
+				break;
+			}
+			case CLOSURE: {
+				score = range > 0 ? sv / range : 0; // range rate
+				break;
+			}
+			default: {
+				double vv = vx * vx + vy * vy;
+				// converging aircraft are ranked by time to cpa, the others are already at cpa and are ranked by range
+				if (sv < 0 && vv > 0) {
+					rank = CONVERGING;
+					score = -sv / vv;
+				} else {
+					score = range;
+				}
+				break;
+			}
+		}
+		if (dthr >= 0 && zthr >= 0 && range <= dthr && Math.abs(sa.alt() - so.alt()) <= zthr) { rank = INSIDE; }
+		ids.add(id);
+		ranks[n] = rank;
+		scores[n] = score;
+		ranges[n] = range;
+	}
+
+	/**
+	 * Returns the ids of the top K candidates, and of all candidates inside the alerting volume, in the order they were added.
+	 * Ties are broken by range, then by order of insertion.
+	 */
+	public List<Integer> select () {
+		int n = ids.size();
+		lastCandidates = n;
+		lastDropped.clear();
+		if (n <= k) { return new ArrayList<Integer>(ids); }
+		Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++) { order[i] = i; }
+		Arrays.sort(order, (a, b) -> {
+			int c = Integer.compare(ranks[a], ranks[b]);
+			if (c == 0) { c = Double.compare(scores[a], scores[b]); }
+			if (c == 0) { c = Double.compare(ranges[a], ranges[b]); }
+			return c != 0 ? c : Integer.compare(a, b);
+		});
+		// aircraft inside the alerting volume come first in the order, and do not count towards K
+		boolean[] selected = new boolean[n];
+		int inside = 0;
+		while (inside < n && ranks[order[inside]] == INSIDE) { selected[order[inside++]] = true; }
+		for (int i = inside; i < Math.min(n, inside + k); i++) { selected[order[i]] = true; }
+		List<Integer> res = new ArrayList<Integer>(k);
+		for (int i = 0; i < n; i++) {
+			if (selected[i]) {
+				res.add(ids.get(i));
+			} else {
+				lastDropped.add(ids.get(i));
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * Number of candidates at the last time step
+	 */
+	public int getCandidates () {
+		return lastCandidates;
+	}
+	/**
+	 * Ids of the candidates that were not selected at the last time step
+	 */
+	public List<Integer> getDropped () {
+		return lastDropped;
+	}
+}
@@ -0,0 +1,149 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import gov.nasa.larcfm.Util.LatLonAlt;
+import gov.nasa.larcfm.Util.ParameterData;
+import gov.nasa.larcfm.Util.Position;
+import gov.nasa.larcfm.Util.Units;
+import gov.nasa.larcfm.Util.Util;
+import gov.nasa.larcfm.Util.Vect3;
+import gov.nasa.larcfm.Util.Velocity;
+
+/**
+ * Column layout of the ownship/traffic data received by the REPL, derived from the labels and units lines.
+ * Headings and default units are the same used by DaaStreamReader, so a line parsed with this table 
+ * results in the same state obtained by reading the line in a daa file with the same labels and units.
+ */
+class DaaStateTable {
+	protected int name = -1, sx = -1, sy = -1, sz = -1, vx = -1, vy = -1, vz = -1, tm = -1;
+	protected boolean latlon, trkgsvs, clock;
+	protected String[] headings;
+	protected String[] units;
+	protected List<Integer> extraColumns = new ArrayList<Integer>();
+
+	DaaStateTable (String labels, String units) {
+		headings = labels.split(",");
+		for (int i = 0; i < headings.length; i++) { headings[i] = headings[i].trim().toLowerCase(); }
+		String[] u = units.split(",");
+		this.units = new String[headings.length];
+		for (int i = 0; i < headings.length; i++) {
+			this.units[i] = i < u.length ? u[i].trim().replace("[", "").replace("]", "").trim() : "unspecified";
+		}
+		latlon = find("lat", "lon", "long", "latitude") >= 0;
+		clock = find("clock") >= 0;
+		trkgsvs = find("trk", "track") >= 0;
+		name = find("name", "aircraft", "id");
+		sx = find("sx", "lat", "latitude");
+		sy = find("sy", "lon", "long", "longitude");
+		sz = find("sz", "alt", "altitude");
+		vx = find("trk", "vx", "track");
+		vy = find("gs", "vy", "groundspeed", "groundspd");
+		vz = find("vs", "vz", "verticalspeed", "hdot");
+		tm = find("clock", "time", "tm", "st");
+		List<Integer> defined = Arrays.asList(name, sx, sy, sz, vx, vy, vz, tm);
+		for (int i = 0; i < headings.length; i++) {
+			if (!headings[i].isEmpty() && !defined.contains(i)) { extraColumns.add(i); }
+		}
+	}
+
+	/**
+	 * Returns true if the labels include all the columns necessary to build aircraft states
+	 */
+	boolean isValid () {
+		return name >= 0 && sx >= 0 && sy >= 0 && sz >= 0 && vx >= 0 && vy >= 0 && vz >= 0;
+	}
+
+	/**
+	 * Parses a line of ownship/traffic data, returns null if the line cannot be parsed
+	 */
+	DaaStateRecord parse (String line) {
+		if (!isValid() || line == null) { return null; }
+		String[] cols = line.split(",");
+		try {
+			String id = cols[name].trim();
+			double t = 0;
+			if (tm >= 0 && tm < cols.length) {
+				t = clock ? Util.parse_time(cols[tm].trim()) : value(cols, tm, "s");
+			}
+			Position ss = latlon ?
+				Position.make(LatLonAlt.mk(value(cols, sx, "deg"), value(cols, sy, "deg"), value(cols, sz, "ft")))
+				: Position.make(new Vect3(value(cols, sx, "nmi"), value(cols, sy, "nmi"), value(cols, sz, "ft")));
+			Velocity vv = trkgsvs ?
+				Velocity.mkTrkGsVs(value(cols, vx, "deg"), value(cols, vy, "knot"), value(cols, vz, "fpm"))
+				: Velocity.mkVxyz(value(cols, vx, "knot"), value(cols, vy, "knot"), value(cols, vz, "fpm"));
+			ParameterData extra = new ParameterData();
+			for (int col : extraColumns) {
+				if (col < cols.length && !cols[col].trim().isEmpty()) {
+					if (isUnspecified(units[col])) {
+						extra.set(headings[col], cols[col].trim());
+					} else {
+						extra.setInternal(headings[col], value(cols, col, units[col]), units[col]);
+					}
+				}
+			}
+			return new DaaStateRecord(id, ss, vv, t, extra);
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			System.err.println("** Error: " + e);
+			return null;
+		}
+	}
+
+	/**
+	 * Utility function, returns the value of column col in internal units, using the default units if the column has no units
+	 */
+	protected double value (String[] cols, int col, String defaultUnits) {
+		String u = isUnspecified(units[col]) ? defaultUnits : units[col];
+		return Units.from(u, Double.parseDouble(cols[col].trim()));
+	}
+	protected static boolean isUnspecified (String u) {
+		return u.isEmpty() || u.equals("-") || u.equalsIgnoreCase("unspecified") || u.equalsIgnoreCase("unitless");
+	}
+	protected int find (String... names) {
+		for (String n : names) {
+			for (int i = 0; i < headings.length; i++) {
+				if (headings[i].equals(n)) { return i; }
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,132 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Round-trip checks for the binary bands format: length-prefixed records, records larger than the write buffer, 
+ * strings truncated on a code point boundary, and files read through mapped windows smaller than the records.
+ * Usage: java DAABinaryFormatTest
+ */
+public class DAABinaryFormatTest {
+	static int checks = 0, failures = 0;
+
+	static void check (boolean ok, String msg) {
+		checks++;
+		if (!ok) {
+			failures++;
+			System.out.println("** Failed: " + msg);
+		}
+	}
+
+	// record of step i, sizes range from a few bytes to more than the 64KB buffer of the writer
+	static byte[] payload (int i) {
+		int n = (i % 7 == 3) ? 100000 + i : 8 * (1 + i % 50);
+		byte[] bytes = new byte[n];
+		for (int k = 0; k < n; k++) { bytes[k] = (byte) (31 * i + k); }
+		return bytes;
+	}
+
+	static void write (String fname, String scenario, int nSteps) throws IOException {
+		try (DAABinaryWriter out = new DAABinaryWriter(fname, scenario, "config", 0, 0, new String[] { "NONE", "NEAR" })) {
+			for (int i = 0; i < nSteps; i++) {
+				out.beginStep(i * 0.5);
+				byte[] bytes = payload(i);
+				for (int k = 0; k < bytes.length; k++) { out.putByte(bytes[k]); }
+				out.endStep();
+			}
+		}
+	}
+
+	static void checkSteps (DAABinaryReader reader, int nSteps, String label) {
+		check(reader.size() == nSteps, label + ": expected " + nSteps + " steps, found " + reader.size());
+		for (int i = 0; i < Math.min(nSteps, reader.size()); i++) {
+			ByteBuffer record = reader.getRecord(i).order(ByteOrder.LITTLE_ENDIAN);
+			byte[] expected = payload(i);
+			check(reader.getTime(i) == i * 0.5, label + ": time of step " + i);
+			check(record.remaining() == 8 + expected.length, label + ": length of step " + i + " is " + record.remaining());
+			check(record.getDouble(0) == i * 0.5, label + ": time in record " + i);
+			boolean same = record.remaining() == 8 + expected.length;
+			for (int k = 0; same && k < expected.length; k++) { same = record.get(8 + k) == expected[k]; }
+			check(same, label + ": content of step " + i);
+		}
+	}
+
+	public static void main (String[] args) throws IOException {
+		File dir = File.createTempFile("daa-binary", "");
+		dir.delete();
+		dir.mkdirs();
+		String fname = new File(dir, "steps.bin").getPath();
+		String copy = new File(dir, "copy.bin").getPath();
+		// 2-byte characters after an odd prefix, byte 65535 is in the middle of a character
+		StringBuilder scenario = new StringBuilder("x");
+		while (scenario.length() < 40000) { scenario.append("é€"); }
+		int nSteps = 40;
+		try {
+			write(fname, scenario.toString(), nSteps);
+			for (int window : new int[] { DAABinaryReader.DEFAULT_WINDOW, 4096, 64 }) {
+				try (DAABinaryReader reader = new DAABinaryReader(fname, window)) {
+					String s = reader.getScenario();
+					byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+					check(bytes.length <= 0xFFFF && scenario.toString().startsWith(s), "window " + window + ": scenario truncated on a code point boundary");
+					check(bytes.length > 0xFFFF - 3, "window " + window + ": scenario truncated to " + bytes.length + " bytes");
+					check("config".equals(reader.getConfig()), "window " + window + ": config after the truncated scenario");
+					checkSteps(reader, nSteps, "window " + window);
+				}
+			}
+			// segments written by the workers are merged with appendSteps
+			try (DAABinaryWriter out = new DAABinaryWriter(copy, scenario.toString(), "config", 0, 0, new String[] { "NONE", "NEAR" })) {
+				out.appendSteps(fname);
+			}
+			try (DAABinaryReader reader = new DAABinaryReader(copy, 4096)) {
+				checkSteps(reader, nSteps, "appendSteps");
+			}
+		} finally {
+			new File(fname).delete();
+			new File(copy).delete();
+			dir.delete();
+		}
+		System.out.println("DAABinaryFormatTest: " + checks + " checks, " + failures + " failures");
+		if (failures > 0) { System.exit(1); }
+	}
+}
@@ -0,0 +1,130 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Round-trip checks for DAAChunkIndex: the index written to <chunk>.idx must match the byte offsets of the records 
+ * in the chunk file, and lookups by time must return the same records whether the index is read from file or rebuilt.
+ * Usage: java DAAChunkIndexTest
+ */
+public class DAAChunkIndexTest {
+	static int checks = 0, failures = 0;
+
+	static void check (boolean ok, String msg) {
+		checks++;
+		if (!ok) {
+			failures++;
+			System.out.println("** Failed: " + msg);
+		}
+	}
+
+	static double time (int i) {
+		return i * 0.25;
+	}
+
+	// record i, with multi-byte characters and lengths above the 256 bytes retained by the scanner to parse the time
+	static String record (int i) {
+		StringBuilder sb = new StringBuilder("{ \"time\": " + time(i) + ", \"id\": \"AC" + i + "-é\", \"data\": \"");
+		for (int k = 0; k < (i % 5) * 40; k++) { sb.append(k % 2 == 0 ? "x" : "€"); }
+		return sb.append("\" }").toString();
+	}
+
+	static void checkIndex (DAAChunkIndex index, long[] offsets, int n, String label) throws IOException {
+		check(index.size() == n, label + ": expected " + n + " records, found " + index.size());
+		for (int i = 0; i < Math.min(n, index.size()); i++) {
+			check(index.getTime(i) == time(i), label + ": time of record " + i);
+			check(index.offsets[i] == offsets[i], label + ": offset of record " + i + " is " + index.offsets[i] + ", expected " + offsets[i]);
+			check(index.getRecord(i).equals(record(i)), label + ": record " + i);
+			// any time in [time(i), time(i + 1)) returns record i
+			check(index.getRecord(time(i) + 0.1).equals(record(i)), label + ": record at time " + (time(i) + 0.1));
+		}
+		check(index.getRecord(time(0) - 1) == null, label + ": record before the first time step");
+		check(index.getRecord(time(n) + 10).equals(record(n - 1)), label + ": record after the last time step");
+		List<String> range = index.getRecords(time(3) - 0.1, time(7));
+		check(range.size() == 5, label + ": expected 5 records in range, found " + range.size());
+		for (int k = 0; k < range.size(); k++) {
+			check(range.get(k).equals(record(3 + k)), label + ": record " + (3 + k) + " in range");
+		}
+		check(index.getRecords(time(n) + 1, time(n) + 2).isEmpty(), label + ": empty range");
+	}
+
+	public static void main (String[] args) throws IOException {
+		File chunk = File.createTempFile("daa-chunk", ".ownship");
+		File idx = new File(chunk.getPath() + DAAChunkIndex.EXT);
+		int n = 50;
+		long[] offsets = new long[n];
+		try {
+			// chunk file written as by DAABandsV2, one record per line, the last lines use \r\n
+			try (OutputStream out = new FileOutputStream(chunk)) {
+				long pos = 0;
+				for (int i = 0; i < n; i++) {
+					offsets[i] = pos;
+					byte[] bytes = (record(i) + (i < n - 5 ? "\n" : "\r\n")).getBytes(StandardCharsets.UTF_8);
+					out.write(bytes);
+					pos += bytes.length;
+				}
+			}
+			DAAChunkIndex.build(chunk.getPath()).close();
+			check(idx.length() == DAAChunkIndex.HEADER_SIZE + (long) DAAChunkIndex.ENTRY_SIZE * n, "size of " + idx.getName());
+			try (DAAChunkIndex index = DAAChunkIndex.open(chunk.getPath())) {
+				checkIndex(index, offsets, n, "index file");
+			}
+			// an index older than the chunk file is not used, the chunk file is scanned again
+			idx.setLastModified(chunk.lastModified() - 10000);
+			try (DAAChunkIndex index = DAAChunkIndex.open(chunk.getPath())) {
+				checkIndex(index, offsets, n, "stale index file");
+			}
+			idx.delete();
+			try (DAAChunkIndex index = DAAChunkIndex.open(chunk.getPath())) {
+				checkIndex(index, offsets, n, "missing index file");
+			}
+		} finally {
+			chunk.delete();
+			idx.delete();
+		}
+		System.out.println("DAAChunkIndexTest: " + checks + " checks, " + failures + " failures");
+		if (failures > 0) { System.exit(1); }
+	}
+}
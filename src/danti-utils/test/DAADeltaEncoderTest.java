@@ -0,0 +1,152 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Round-trip checks for DAADeltaEncoder: records encoded as in the delta output mode of DAABandsV2 
+ * must expand to the original output, byte for byte, both for the combined output file and for chunk files.
+ * Usage: java DAADeltaEncoderTest
+ */
+public class DAADeltaEncoderTest {
+	static final String[] LABELS = { "Ownship", "Alerts", "Contours" };
+	static final String INFO = "\"Info\": { \"language\": \"Java\", \"version\": \"2.0.2\", \"configuration\": \"DO_365B_no_SUM\" },";
+	static int checks = 0, failures = 0;
+
+	static void check (boolean ok, String msg) {
+		checks++;
+		if (!ok) {
+			failures++;
+			System.out.println("** Failed: " + msg);
+		}
+	}
+
+	// record of section s at step i, the body changes every few steps, and differently in each section
+	static String record (int s, int i) {
+		String time = (i % 4 == 1) ? (i + 0.5) + "" : i + "";
+		switch (s) {
+			case 0: return "{ \"time\": " + time + ", \"acstate\": { \"id\": \"ownship\", \"s\": { \"x\": \"" + (i / 5) + "\", \"y\": \"0\" } } }";
+			case 1: return "{ \"time\": " + time + ", \"alerts\": [ { \"ac\": \"AC1\", \"alert_level\": " + (i / 3 % 2) + ", \"region\": \"NONE\" } ] }";
+			default: return "{ \"time\": " + time + ", \"data\": [ { \"ac\": \"AC1\", \"polygons\": [ [ { \"lat\": \"" + (i < 10 ? i : 10) + "\" } ] ] } ] }";
+		}
+	}
+
+	static String output (String info, List<List<String>> arrays) {
+		StringWriter sw = new StringWriter();
+		try (PrintWriter out = new PrintWriter(sw)) {
+			out.println("{");
+			out.println(info);
+			for (int s = 0; s < arrays.size(); s++) {
+				DAABandsV2.printArray(out, arrays.get(s), LABELS[s]);
+				if (s + 1 < arrays.size()) { out.println(","); }
+			}
+			out.println("}");
+		}
+		return sw.toString();
+	}
+
+	static String expand (String str) throws IOException {
+		StringWriter sw = new StringWriter();
+		try (PrintWriter out = new PrintWriter(sw)) {
+			DAADeltaEncoder.expand(new BufferedReader(new StringReader(str)), out);
+		}
+		return sw.toString();
+	}
+
+	public static void main (String[] args) throws IOException {
+		int nSteps = 40;
+		DAADeltaEncoder encoder = new DAADeltaEncoder(LABELS.length);
+		List<List<String>> original = new ArrayList<List<String>>();
+		List<List<String>> encoded = new ArrayList<List<String>>();
+		for (int s = 0; s < LABELS.length; s++) {
+			original.add(new ArrayList<String>());
+			encoded.add(new ArrayList<String>());
+		}
+		// records are encoded step by step, as in DAABandsV2.deltaEncode
+		int markers = 0;
+		for (int i = 0; i < nSteps; i++) {
+			for (int s = 0; s < LABELS.length; s++) {
+				String rec = record(s, i);
+				String enc = encoder.encode(s, rec);
+				if (enc.contains(DAADeltaEncoder.MARKER)) { markers++; }
+				original.get(s).add(rec);
+				encoded.get(s).add(enc);
+			}
+		}
+		check(markers > nSteps, "expected unchanged markers in all sections, found " + markers);
+		check(encoded.get(0).get(1).equals("{ \"time\": 1.5, \"unchanged\": 0 }"), "marker of step 1: " + encoded.get(0).get(1));
+		check(encoded.get(0).get(5).equals(record(0, 5)), "full record after a change: " + encoded.get(0).get(5));
+
+		// combined output file, the Info object is flagged and the flag is removed by the expander
+		String expected = output(INFO, original);
+		String delta = output(INFO.replace(" },", DAADeltaEncoder.INFO_FLAG + " },"), encoded);
+		check(delta.length() < expected.length(), "delta output is not smaller than the original output");
+		String expanded = expand(delta);
+		check(expanded.equals(expected), "expanded output differs from the original output");
+
+		// chunk files, one record per line
+		for (int s = 0; s < LABELS.length; s++) {
+			String chunk = String.join("\n", encoded.get(s)) + "\n";
+			String orig = String.join(System.lineSeparator(), original.get(s)) + System.lineSeparator();
+			check(expand(chunk).equals(orig), "expanded chunk file " + LABELS[s] + " differs from the original records");
+		}
+
+		// after a reset, the next record of each section is emitted in full
+		encoder.reset();
+		check(encoder.encode(0, record(0, nSteps - 1)).equals(record(0, nSteps - 1)), "full record after reset");
+
+		// a marker without a previous full record cannot be expanded
+		boolean error = false;
+		try {
+			expand("\"Ownship\": [\n{ \"time\": 1, \"unchanged\": 0 }\n]\n");
+		} catch (IOException e) {
+			error = true;
+		}
+		check(error, "marker without a previous full record must be reported");
+
+		System.out.println("DAADeltaEncoderTest: " + checks + " checks, " + failures + " failures");
+		if (failures > 0) { System.exit(1); }
+	}
+}
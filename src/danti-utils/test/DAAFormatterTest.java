@@ -0,0 +1,83 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Checks DAAFormatter against String.format on edge values: negative zero, NaN, infinities, 
+ * rounding carries, values close to a rounding tie, and very small and very large magnitudes.
+ * The three entry points (format, append on a StringBuilder, append on an Appendable) must produce the same output.
+ * Usage: java DAAFormatterTest
+ */
+public class DAAFormatterTest {
+	static final double[] values = {
+		0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+		0.5, -0.5, 1.5, 2.5, -2.5, 0.005, 0.015, 0.125, -0.125, 1.0 / 3, -2.0 / 3,
+		9.5, 9.95, 9.995, 9.9995, 99.99999, 0.9999999, 0.9996, 199.995, -999.9999, 
+		-0.0001, -0.004, -0.0049, 0.0049, 1e-300, -1e-300, Double.MIN_VALUE, 
+		1e15, -1e15, 1e20, 8796093022207.5, 123456789.987654321, 39.95678901234567, -75.2, 
+		37.0298687, -76.3452218, 35000, 12.34, 1e-7, 5e-17
+	};
+
+	public static void main (String[] args) {
+		int checks = 0, failures = 0;
+		for (int precision = 0; precision <= 16; precision++) {
+			for (double val : values) {
+				String expected = String.format("%." + precision + "f", val);
+				String actual = DAAFormatter.format(val, precision);
+				String appended = DAAFormatter.append(new StringBuilder("x"), val, precision).substring(1);
+				String written = "";
+				try {
+					written = DAAFormatter.append(new StringWriter(), val, precision).toString();
+				} catch (IOException e) {
+					written = e.toString();
+				}
+				checks++;
+				if (!expected.equals(actual) || !expected.equals(appended) || !expected.equals(written)) {
+					failures++;
+					System.out.println("** Mismatch: " + val + " precision " + precision + " expected " + expected 
+						+ " format " + actual + " append(StringBuilder) " + appended + " append(Appendable) " + written);
+				}
+			}
+		}
+		System.out.println("DAAFormatterTest: " + checks + " checks, " + failures + " failures");
+		if (failures > 0) { System.exit(1); }
+	}
+}
@@ -0,0 +1,138 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Checks DAAResultCache: entries are keyed on the content of the scenario and on the settings, 
+ * restored files are identical to the stored files, and hits, misses and evictions are counted.
+ * Usage: java DAAResultCacheTest
+ */
+public class DAAResultCacheTest {
+	static int checks = 0, failures = 0;
+
+	static void check (boolean ok, String msg) {
+		checks++;
+		if (!ok) {
+			failures++;
+			System.out.println("** Failed: " + msg);
+		}
+	}
+
+	static void write (File file, String content) throws IOException {
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+	static String read (File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+	static long stat (DAAResultCache cache, String counter) {
+		return Long.parseLong(cache.readStats().getProperty(counter, "0"));
+	}
+
+	public static void main (String[] args) throws IOException {
+		File dir = Files.createTempDirectory("daa-cache-test").toFile();
+		File cacheDir = new File(dir, "cache");
+		File daa = new File(dir, "scenario.daa");
+		File output = new File(dir, "scenario.json");
+		File other = new File(dir, "other.json");
+		List<String> suffixes = Arrays.asList("", ".files", ".ownship");
+		try {
+			write(daa, "NAME lat lon alt trk gs vs time\n[none] [deg] [deg] [ft] [deg] [knot] [fpm] [s]\nownship 0 0 1000 0 100 0 0\n");
+			write(output, "{ \"Info\": { }, \"Ownship\": [ ] }\n");
+			write(new File(output.getPath() + ".files"), "{ \"chunks\": [ { \"file\": \"scenario.json.ownship\" } ] }\n");
+			write(new File(output.getPath() + ".ownship"), "{ \"time\": 0, \"acstate\": { } }\n");
+			DAAResultCache cache = new DAAResultCache(cacheDir.getPath(), 1L << 20);
+
+			// keys depend on the content of the scenario and on the settings, not on the file name
+			String key = DAAResultCache.key(daa.getPath(), "config=A");
+			check(key.equals(DAAResultCache.key(daa.getPath(), "config=A")), "same scenario and settings, same key");
+			check(!key.equals(DAAResultCache.key(daa.getPath(), "config=B")), "different settings, different key");
+			File copy = new File(dir, "copy.daa");
+			Files.copy(daa.toPath(), copy.toPath());
+			check(key.equals(DAAResultCache.key(copy.getPath(), "config=A")), "same content with a different name, same key");
+
+			// miss, store, hit
+			check(cache.restore(key, other.getPath()) == null, "restore before store is a miss");
+			Properties meta = new Properties();
+			meta.setProperty("steps", "1");
+			check(cache.store(key, output.getPath(), suffixes, meta), "store");
+			Properties restored = cache.restore(key, other.getPath());
+			check(restored != null && "1".equals(restored.getProperty("steps")), "restore after store is a hit with the stored metadata");
+			check(read(new File(other.getPath())).equals(read(output)), "restored output file");
+			check(read(new File(other.getPath() + ".ownship")).equals(read(new File(output.getPath() + ".ownship"))), "restored chunk file");
+			check(read(new File(other.getPath() + ".files")).contains("\"file\": \"other.json.ownship\""), "file names in the restored .files");
+			check(cache.restore(DAAResultCache.key(daa.getPath(), "config=B"), other.getPath()) == null, "different settings is a miss");
+
+			// a change in the scenario is a miss
+			write(copy, read(daa) + "ownship 0 0.001 1000 0 100 0 1\n");
+			check(cache.restore(DAAResultCache.key(copy.getPath(), "config=A"), other.getPath()) == null, "modified scenario is a miss");
+			check(stat(cache, "hits") == 1, "hits: " + stat(cache, "hits"));
+			check(stat(cache, "misses") == 3, "misses: " + stat(cache, "misses"));
+			check(stat(cache, "stores") == 1, "stores: " + stat(cache, "stores"));
+
+			// the least recently used entry is evicted when the size limit is exceeded
+			long size = Long.parseLong(restored.getProperty("size"));
+			DAAResultCache small = new DAAResultCache(cacheDir.getPath(), size + size / 2);
+			String key2 = DAAResultCache.key(copy.getPath(), "config=A");
+			new File(new File(cacheDir, key), DAAResultCache.ENTRY).setLastModified(System.currentTimeMillis() - 60000);
+			check(small.store(key2, output.getPath(), suffixes, new Properties()), "store of a second entry");
+			check(small.restore(key, other.getPath()) == null, "least recently used entry is evicted");
+			check(small.restore(key2, other.getPath()) != null, "most recent entry is kept");
+			check(stat(small, "evictions") == 1, "evictions: " + stat(small, "evictions"));
+		} finally {
+			deleteAll(dir);
+		}
+		System.out.println("DAAResultCacheTest: " + checks + " checks, " + failures + " failures");
+		if (failures > 0) { System.exit(1); }
+	}
+
+	static void deleteAll (File file) {
+		File[] files = file.listFiles();
+		if (files != null) {
+			for (File f : files) { deleteAll(f); }
+		}
+		file.delete();
+	}
+}
@@ -0,0 +1,109 @@
+/**
+
+   Notices:
+
+   Copyright 2016 United States Government as represented by the
+   Administrator of the National Aeronautics and Space Administration. No
+   copyright is claimed in the United States under Title 17,
+   U.S. Code. All Other Rights Reserved.
+
+   Disclaimers
+
+   No Warranty: THE SUBJECT SOFTWARE IS PROVIDED "AS IS" WITHOUT ANY
+   WARRANTY OF ANY KIND, EITHER EXPRESSED, IMPLIED, OR STATUTORY,
+   INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY THAT THE SUBJECT SOFTWARE
+   WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+   MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, OR FREEDOM FROM
+   INFRINGEMENT, ANY WARRANTY THAT THE SUBJECT SOFTWARE WILL BE ERROR
+   FREE, OR ANY WARRANTY THAT DOCUMENTATION, IF PROVIDED, WILL CONFORM TO
+   THE SUBJECT SOFTWARE. THIS AGREEMENT DOES NOT, IN ANY MANNER,
+   CONSTITUTE AN ENDORSEMENT BY GOVERNMENT AGENCY OR ANY PRIOR RECIPIENT
+   OF ANY RESULTS, RESULTING DESIGNS, HARDWARE, SOFTWARE PRODUCTS OR ANY
+   OTHER APPLICATIONS RESULTING FROM USE OF THE SUBJECT SOFTWARE.
+   FURTHER, GOVERNMENT AGENCY DISCLAIMS ALL WARRANTIES AND LIABILITIES
+   REGARDING THIRD-PARTY SOFTWARE, IF PRESENT IN THE ORIGINAL SOFTWARE,
+   AND DISTRIBUTES IT "AS IS."
+
+   Waiver and Indemnity: RECIPIENT AGREES TO WAIVE ANY AND ALL CLAIMS
+   AGAINST THE UNITED STATES GOVERNMENT, ITS CONTRACTORS AND
+   SUBCONTRACTORS, AS WELL AS ANY PRIOR RECIPIENT.  IF RECIPIENT'S USE OF
+   THE SUBJECT SOFTWARE RESULTS IN ANY LIABILITIES, DEMANDS, DAMAGES,
+   EXPENSES OR LOSSES ARISING FROM SUCH USE, INCLUDING ANY DAMAGES FROM
+   PRODUCTS BASED ON, OR RESULTING FROM, RECIPIENT'S USE OF THE SUBJECT
+   SOFTWARE, RECIPIENT SHALL INDEMNIFY AND HOLD HARMLESS THE UNITED
+   STATES GOVERNMENT, ITS CONTRACTORS AND SUBCONTRACTORS, AS WELL AS ANY
+   PRIOR RECIPIENT, TO THE EXTENT PERMITTED BY LAW.  RECIPIENT'S SOLE
+   REMEDY FOR ANY SUCH MATTER SHALL BE THE IMMEDIATE, UNILATERAL
+   TERMINATION OF THIS AGREEMENT.
+ **/
+
+import java.util.Arrays;
+import java.util.List;
+
+import gov.nasa.larcfm.Util.Position;
+import gov.nasa.larcfm.Util.Velocity;
+
+/**
+ * Checks the ranking of DAATrafficPrioritizer with the tcpa metric: converging aircraft first by tcpa, 
+ * then the other aircraft by range, and aircraft inside the alerting volume are always kept.
+ * Positions are in a local frame centered at the ownship (m), velocities in m/s.
+ * Usage: java DAATrafficPrioritizerTest
+ */
+public class DAATrafficPrioritizerTest {
+	static final Position SO = Position.mkXYZ(0, 0, 1000);
+	static final Velocity VO = Velocity.mkVxyz(0, 50, 0);
+	static int checks = 0, failures = 0;
+
+	static void check (List<Integer> actual, List<Integer> expected, String msg) {
+		checks++;
+		if (!actual.equals(expected)) {
+			failures++;
+			System.out.println("** Failed: " + msg + ", expected " + expected + ", found " + actual);
+		}
+	}
+
+	public static void main (String[] args) {
+		DAATrafficPrioritizer prioritizer = new DAATrafficPrioritizer(1);
+
+		// 1: receding intruder, close behind the ownship, 2: closing intruder, farther ahead
+		prioritizer.begin(SO, VO);
+		prioritizer.add(1, Position.mkXYZ(0, -2000, 1000), Velocity.mkVxyz(0, 0, 0));
+		prioritizer.add(2, Position.mkXYZ(0, 10000, 1000), Velocity.mkVxyz(0, -50, 0));
+		check(prioritizer.select(), Arrays.asList(2), "K=1 keeps the closing intruder");
+		check(prioritizer.getDropped(), Arrays.asList(1), "K=1 drops the receding intruder");
+
+		// converging aircraft are ranked by tcpa, the closest one is not the first one to reach cpa
+		prioritizer.begin(SO, VO);
+		prioritizer.add(1, Position.mkXYZ(0, 5000, 1000), Velocity.mkVxyz(0, 40, 0)); // tcpa 500s
+		prioritizer.add(2, Position.mkXYZ(0, 20000, 1000), Velocity.mkVxyz(0, -150, 0)); // tcpa 100s
+		check(prioritizer.select(), Arrays.asList(2), "converging intruders are ranked by tcpa");
+
+		// non-converging aircraft are ranked by range
+		prioritizer.begin(SO, VO);
+		prioritizer.add(1, Position.mkXYZ(0, -9000, 1000), Velocity.mkVxyz(0, 0, 0));
+		prioritizer.add(2, Position.mkXYZ(3000, 0, 1000), Velocity.mkVxyz(0, 50, 0));
+		check(prioritizer.select(), Arrays.asList(2), "non-converging intruders are ranked by range");
+
+		// the receding intruder is inside the alerting volume, it is kept together with the closing intruder
+		prioritizer.begin(SO, VO, 2500, 150);
+		prioritizer.add(1, Position.mkXYZ(0, -2000, 1000), Velocity.mkVxyz(0, 0, 0));
+		prioritizer.add(2, Position.mkXYZ(0, 10000, 1000), Velocity.mkVxyz(0, -50, 0));
+		check(prioritizer.select(), Arrays.asList(1, 2), "intruder inside the alerting volume is always kept");
+
+		// same horizontal distance, but above the vertical threshold: not inside the alerting volume
+		prioritizer.begin(SO, VO, 2500, 150);
+		prioritizer.add(1, Position.mkXYZ(0, -2000, 1500), Velocity.mkVxyz(0, 0, 0));
+		prioritizer.add(2, Position.mkXYZ(0, 10000, 1000), Velocity.mkVxyz(0, -50, 0));
+		check(prioritizer.select(), Arrays.asList(2), "intruder above the alerting volume is ranked");
+
+		// K=0 keeps only the aircraft inside the alerting volume
+		DAATrafficPrioritizer none = new DAATrafficPrioritizer(0);
+		none.begin(SO, VO, 2500, 150);
+		none.add(1, Position.mkXYZ(0, 10000, 1000), Velocity.mkVxyz(0, -50, 0));
+		none.add(2, Position.mkXYZ(1000, 0, 1000), Velocity.mkVxyz(0, 50, 0));
+		check(none.select(), Arrays.asList(2), "K=0 keeps the aircraft inside the alerting volume");
+
+		System.out.println("DAATrafficPrioritizerTest: " + checks + " checks, " + failures + " failures");
+		if (failures > 0) { System.exit(1); }
+	}
+}
@@ -0,0 +1,33 @@
+#!/bin/bash
+# Compares the output files of DAABandsV2 in sequential mode (--threads 1) and in parallel batch mode (--threads N)
+# on the scenarios in src/daa-scenarios. The combined output file, the chunk files and their .idx files must be identical.
+# Usage: test/check-parallel.sh [threads] [scenario.daa ...]
+cd "$(dirname "$0")/.."
+threads=${1:-4}
+shift
+scenarios=${@:-../daa-scenarios/*.daa}
+daidalus=$(ls lib/DAIDALUSv*.jar 2>/dev/null | tail -1)
+if [ -z "$daidalus" ]; then
+	echo "** Error: DAIDALUS jar not found in src/danti-utils/lib, run make repl-modules first"
+	exit 1
+fi
+out=$(mktemp -d)
+trap 'rm -rf "$out"' EXIT
+mkdir -p "$out/classes" "$out/seq" "$out/par"
+javac -encoding UTF-8 -nowarn -d "$out/classes" -cp "$daidalus" *.java || exit 1
+
+failed=0
+for scenario in $scenarios; do
+	name=$(basename "$scenario" .daa)
+	java -cp "$out/classes:$daidalus" DAABandsV2 --threads 1 --output "$out/seq/$name.json" "$scenario" > /dev/null || { echo "** Error: $name (sequential)"; failed=1; continue; }
+	java -cp "$out/classes:$daidalus" DAABandsV2 --threads $threads --output "$out/par/$name.json" "$scenario" > /dev/null || { echo "** Error: $name (--threads $threads)"; failed=1; continue; }
+	if diff -rq "$out/seq" "$out/par" > /dev/null; then
+		echo "OK $name"
+	else
+		echo "FAILED $name"
+		diff -rq "$out/seq" "$out/par"
+		failed=1
+	fi
+	rm -f "$out"/seq/* "$out"/par/*
+done
+exit $failed
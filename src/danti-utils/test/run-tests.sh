@@ -0,0 +1,20 @@
+#!/bin/bash
+# Compiles the utilities in src/danti-utils and runs the tests in src/danti-utils/test.
+# Each test is a class with a main method that exits with a non-zero status if any check fails.
+# Usage: test/run-tests.sh [TestClass ...]
+cd "$(dirname "$0")/.."
+daidalus=$(ls lib/DAIDALUSv*.jar 2>/dev/null | tail -1)
+if [ -z "$daidalus" ]; then
+	echo "** Error: DAIDALUS jar not found in src/danti-utils/lib, run make repl-modules first"
+	exit 1
+fi
+out=$(mktemp -d)
+trap 'rm -rf "$out"' EXIT
+javac -encoding UTF-8 -nowarn -d "$out" -cp "$daidalus" *.java test/*.java || exit 1
+
+tests=${@:-$(cd test && ls *Test.java | sed 's/\.java$//')}
+failed=0
+for test in $tests; do
+	(cd test && java -cp "$out:$daidalus" $test) || { echo "FAILED $test"; failed=1; }
+done
+exit $failed